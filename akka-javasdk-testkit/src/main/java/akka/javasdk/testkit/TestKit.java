@@ -514,7 +514,7 @@ public class TestKit {
       }
 
       // once runtime is started
-      componentClient = new ComponentClientImpl(componentClients, Option.empty(), runtimeActorSystem.executionContext());
+      componentClient = new ComponentClientImpl(componentClients, Option.empty(), Option.empty(), runtimeActorSystem.executionContext());
       selfHttpClient = new HttpClientImpl(runtimeActorSystem, "http://" + proxyHost + ":" + proxyPort);
       httpClientProvider = startupContext.httpClientProvider();
       var codec = new JsonMessageCodec();
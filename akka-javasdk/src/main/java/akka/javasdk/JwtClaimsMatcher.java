@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk;
+
+import akka.javasdk.impl.StaticClaimMatcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Rules over the JWT claims of a request, with the same semantics as the static claims of {@link
+ * akka.javasdk.annotations.JWT}, for checks that depend on more than the annotations can express.
+ *
+ * <p>Matchers are immutable, and validate and compile their rules when created, so they are
+ * intended to be created once, for example in a static field, and evaluated for each request in
+ * endpoints and components alike.
+ *
+ * <pre>{@code
+ * private static final JwtClaimsMatcher TENANT_ADMIN =
+ *     JwtClaimsMatcher.create()
+ *         .withValues("role", "admin")
+ *         .withPattern("tenant", "^acme-\\S+$");
+ *
+ * if (!TENANT_ADMIN.matches(requestContext().getJwtClaims())) { ... }
+ * }</pre>
+ */
+public final class JwtClaimsMatcher {
+
+  private static final JwtClaimsMatcher EMPTY = new JwtClaimsMatcher(Collections.emptyList());
+
+  private final List<StaticClaimMatcher> rules;
+
+  private JwtClaimsMatcher(List<StaticClaimMatcher> rules) {
+    this.rules = rules;
+  }
+
+  /** A matcher without rules, that matches any claims. */
+  public static JwtClaimsMatcher create() {
+    return EMPTY;
+  }
+
+  /**
+   * Require the claim to have all the given values. A claim with a single value can only have one
+   * of them, a claim with an array value must contain all of them.
+   */
+  public JwtClaimsMatcher withValues(String claim, String... values) {
+    return withRule(StaticClaimMatcher.values(claim, Arrays.asList(values)));
+  }
+
+  /**
+   * Require the claim, or any of the elements of a claim with an array value, to contain a match of
+   * the given regular expression.
+   *
+   * @throws IllegalArgumentException if the regular expression is invalid
+   */
+  public JwtClaimsMatcher withPattern(String claim, String regex) {
+    return withRule(StaticClaimMatcher.pattern(claim, regex));
+  }
+
+  /** Whether the claims satisfy all the rules of this matcher. */
+  public boolean matches(JwtClaims claims) {
+    for (StaticClaimMatcher rule : rules) {
+      if (!rule.matches(claims)) return false;
+    }
+    return true;
+  }
+
+  private JwtClaimsMatcher withRule(StaticClaimMatcher rule) {
+    var newRules = new ArrayList<StaticClaimMatcher>(rules.size() + 1);
+    newRules.addAll(rules);
+    newRules.add(rule);
+    return new JwtClaimsMatcher(Collections.unmodifiableList(newRules));
+  }
+}
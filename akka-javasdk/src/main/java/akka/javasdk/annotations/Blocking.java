@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to run the handlers of a {@link akka.javasdk.consumer.Consumer} or
+ * {@link akka.javasdk.timedaction.TimedAction} on virtual threads, so that they can call blocking APIs
+ * such as JDBC or a blocking HTTP client directly instead of returning an async effect.
+ * <p>
+ * On a {@link akka.javasdk.workflow.Workflow} it configures the blocking steps defined with
+ * {@link akka.javasdk.workflow.StepBuilder#call(Class, java.util.function.Function)}, which always run on
+ * virtual threads.
+ * <p>
+ * At most {@link #maxConcurrency()} blocking calls of the component run at the same time, further calls wait
+ * for one of them to complete.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Blocking {
+
+  /**
+   * The maximum number of concurrent blocking calls used for components that are not annotated.
+   */
+  int DEFAULT_MAX_CONCURRENCY = 64;
+
+  /**
+   * The maximum number of blocking calls of this component running at the same time.
+   */
+  int maxConcurrency() default DEFAULT_MAX_CONCURRENCY;
+}
@@ -64,6 +64,23 @@ public @interface Consume {
      * </ul>
      */
     boolean ignoreUnknown() default false;
+
+    /**
+     * This option is only available for {@link akka.javasdk.consumer.Consumer} classes.
+     *
+     * <p>
+     * When greater than 0, the events are spread by entity over this number of partitions, and the
+     * partitions are handled concurrently, so at most this number of handler calls run at the same time.
+     * Events for the same entity are always handled one at a time, in the order they were emitted.
+     * <p>
+     * This does not limit how many events are in flight: the events waiting for their partition are
+     * queued without a bound, and how many events are delivered before earlier ones are acknowledged is
+     * decided by the runtime. The concurrency can therefore not be higher than the runtime delivery allows.
+     * <p>
+     * Useful when the handlers are bound by the latency of calls to other services rather than by CPU.
+     * Defaults to 0, which applies no additional ordering or concurrency limit.
+     */
+    int parallelism() default 0;
   }
 
   /**
@@ -99,6 +116,19 @@ public @interface Consume {
      * </ul>
      **/
     boolean ignoreUnknown() default false;
+
+    /**
+     * This option is only available for {@link akka.javasdk.consumer.Consumer} classes.
+     *
+     * <p>
+     * When greater than 0, the consumer handles messages with different subjects (the message key)
+     * concurrently, with at most this number of messages in flight at the same time. Messages with
+     * the same subject are always handled one at a time, in the order they were received.
+     * <p>
+     * Useful when the handlers are bound by the latency of calls to other services rather than by CPU.
+     * Defaults to 0, which applies no additional ordering or concurrency limit.
+     */
+    int parallelism() default 0;
   }
 
 
@@ -148,4 +178,41 @@ public @interface Consume {
      **/
     boolean ignoreUnknown() default false;
   }
+
+  /**
+   * Annotation for handling the messages consumed by a {@link akka.javasdk.consumer.Consumer} in batches.
+   * <p>
+   * The consumer must have a single handler method, accepting a {@code java.util.List} of
+   * {@link akka.javasdk.consumer.MessageEnvelope}. The effect returned by the handler applies to all the
+   * messages of the batch, a failure leads to the whole batch being redelivered.
+   * <p>
+   * A batch is handed to the consumer once it contains {@link #maxSize()} messages, or when
+   * {@link #maxWaitMillis()} have passed since the first message of the batch arrived, whichever comes first.
+   * Batches are handled one at a time, in the order the messages were received.
+   * <p>
+   * A batch only collects the messages that are delivered to the consumer while it waits, a message is
+   * acknowledged only once its batch has been handled. How many messages are delivered before earlier ones are
+   * acknowledged is decided by the runtime, not by this annotation. When messages are delivered one at a time,
+   * every batch holds a single message and is handled after {@link #maxWaitMillis()}, which then limits the
+   * throughput to one message per wait. The default wait is therefore only a few milliseconds, a longer wait only
+   * helps when the runtime delivers more messages while a batch waits.
+   * <p>
+   * A batch handler can mark the messages as processed or ignore them, producing messages to a topic or
+   * service stream is not supported.
+   */
+  @Target(ElementType.TYPE)
+  @Retention(RetentionPolicy.RUNTIME)
+  @Documented
+  @interface Batch {
+
+    /**
+     * The maximum number of messages in a batch.
+     */
+    int maxSize() default 100;
+
+    /**
+     * The maximum time, in milliseconds, to wait for more messages before handling an incomplete batch.
+     */
+    long maxWaitMillis() default 5;
+  }
 }
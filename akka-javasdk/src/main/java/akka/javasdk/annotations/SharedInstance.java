@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to create a single instance of a {@link akka.javasdk.consumer.Consumer} or
+ * {@link akka.javasdk.timedaction.TimedAction} and reuse it for all messages, instead of creating
+ * a new instance for each message.
+ * <p>
+ * The instance is invoked concurrently, so the class must be thread safe and must not keep
+ * per-message state in fields. The message or command context is only available from the thread
+ * calling the handler method, not from async callbacks. Capture what is needed from the context
+ * before starting any async operation. Likewise, component client calls carry the metadata and
+ * trace of the message only when made from the thread calling the handler method.
+ * <p>
+ * Use this when the constructor or the injected dependencies are expensive to create.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SharedInstance {
+}
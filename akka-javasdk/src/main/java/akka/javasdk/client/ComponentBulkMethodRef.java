@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.client;
+
+import akka.annotation.DoNotInherit;
+import akka.javasdk.Metadata;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Zero argument component call representation for a number of entities or workflows, not executed
+ * until invoked.
+ *
+ * @param <R> The type of value returned by executing the call
+ *     <p>Not for user extension or instantiation, returned by the SDK component client
+ */
+@DoNotInherit
+public interface ComponentBulkMethodRef<R> {
+
+  ComponentBulkMethodRef<R> withMetadata(Metadata metadata);
+
+  /**
+   * Call the method for each id, with at most {@code parallelism} calls in flight at the same time.
+   * A failing call does not stop the other calls, its failure is part of the result for its id.
+   *
+   * @return the results of all calls, in the order of the ids
+   */
+  CompletionStage<List<EntityCallResult<R>>> invokeAllAsync(int parallelism);
+}
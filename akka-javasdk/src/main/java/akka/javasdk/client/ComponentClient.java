@@ -6,6 +6,8 @@ package akka.javasdk.client;
 
 import akka.annotation.DoNotInherit;
 
+import java.util.Collection;
+
 /**
  * Utility to send requests to other components by composing a call that can be executed by the
  * runtime. To compose a call:
@@ -41,6 +43,15 @@ public interface ComponentClient {
    */
   KeyValueEntityClient forKeyValueEntity(String keyValueEntityId);
 
+  /**
+   * Select a number of {@link akka.javasdk.keyvalueentity.KeyValueEntity} instances as call
+   * targets, to call the same method on each of them with bounded concurrency.
+   *
+   * @param keyValueEntityIds - key value entity ids used to create the calls. Must not contain null
+   *     or empty strings.
+   */
+  KeyValueEntitiesClient forKeyValueEntities(Collection<String> keyValueEntityIds);
+
   /**
    * Select {@link akka.javasdk.eventsourcedentity.EventSourcedEntity} as a call target component.
    *
@@ -49,6 +60,15 @@ public interface ComponentClient {
    */
   EventSourcedEntityClient forEventSourcedEntity(String eventSourcedEntityId);
 
+  /**
+   * Select a number of {@link akka.javasdk.eventsourcedentity.EventSourcedEntity} instances as call
+   * targets, to call the same method on each of them with bounded concurrency.
+   *
+   * @param eventSourcedEntityIds - event sourced entity ids used to create the calls. Must not
+   *     contain null or empty strings.
+   */
+  EventSourcedEntitiesClient forEventSourcedEntities(Collection<String> eventSourcedEntityIds);
+
   /**
    * Select {@link akka.javasdk.workflow.Workflow} as a call target component.
    *
@@ -56,6 +76,15 @@ public interface ComponentClient {
    */
   WorkflowClient forWorkflow(String workflowId);
 
+  /**
+   * Select a number of {@link akka.javasdk.workflow.Workflow} instances as call targets, to call the
+   * same method on each of them with bounded concurrency.
+   *
+   * @param workflowIds - workflow ids used to create the calls. Must not contain null or empty
+   *     strings.
+   */
+  WorkflowsClient forWorkflows(Collection<String> workflowIds);
+
   /** Select {@link akka.javasdk.view.View} as a call target component. */
   ViewClient forView();
 }
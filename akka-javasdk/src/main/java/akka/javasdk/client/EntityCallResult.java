@@ -0,0 +1,19 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.client;
+
+/**
+ * The outcome of one call of a bulk invocation, for the entity or workflow with the given id.
+ *
+ * @param <R> The type of value returned by the call
+ * @param id The id of the called entity or workflow.
+ * @param result The value returned by the call, {@code null} if the call failed.
+ * @param failure The failure of the call, {@code null} if the call succeeded.
+ */
+public record EntityCallResult<R>(String id, R result, Throwable failure) {
+  public boolean isSuccess() {
+    return failure == null;
+  }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.client;
+
+import akka.annotation.DoNotInherit;
+import akka.japi.function.Function;
+import akka.japi.function.Function2;
+import akka.javasdk.eventsourcedentity.EventSourcedEntity;
+
+/**
+ * Calls the same method of a number of Event Sourced Entity instances.
+ *
+ * <p>Not for user extension
+ */
+@DoNotInherit
+public interface EventSourcedEntitiesClient {
+
+  /**
+   * Pass in an Event Sourced Entity command handler method reference, e.g. {@code UserEntity::create}
+   */
+  <T, R> ComponentBulkMethodRef<R> method(Function<T, EventSourcedEntity.Effect<R>> methodRef);
+
+  /**
+   * Pass in an Event Sourced Entity command handler method reference, e.g. {@code UserEntity::update}
+   */
+  <T, A1, R> ComponentBulkMethodRef1<A1, R> method(Function2<T, A1, EventSourcedEntity.Effect<R>> methodRef);
+}
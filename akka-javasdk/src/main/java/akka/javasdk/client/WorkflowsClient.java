@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.client;
+
+import akka.annotation.DoNotInherit;
+import akka.japi.function.Function;
+import akka.japi.function.Function2;
+import akka.javasdk.workflow.Workflow;
+
+/**
+ * Calls the same method of a number of Workflow instances.
+ *
+ * <p>Not for user extension
+ */
+@DoNotInherit
+public interface WorkflowsClient {
+
+  /**
+   * Pass in a Workflow method reference, e.g. {@code MyWorkflow::start}
+   */
+  <T, R> ComponentBulkMethodRef<R> method(Function<T, Workflow.Effect<R>> methodRef);
+
+  /**
+   * Pass in a Workflow method reference, e.g. {@code MyWorkflow::start}
+   */
+  <T, A1, R> ComponentBulkMethodRef1<A1, R> method(Function2<T, A1, Workflow.Effect<R>> methodRef);
+}
@@ -38,11 +38,23 @@ import java.util.concurrent.CompletionStage;
  * <p>
  * Concrete class must be annotated with {@link akka.javasdk.annotations.ComponentId} and
  * one of the {@link akka.javasdk.annotations.Consume} annotations.
+ * <p>
+ * A new instance is created for each message, unless the class is annotated with
+ * {@link akka.javasdk.annotations.SharedInstance}.
+ * <p>
+ * Handlers that call blocking APIs can run on virtual threads by annotating the class with
+ * {@link akka.javasdk.annotations.Blocking}.
+ * <p>
+ * To handle several messages with a single call, for example for bulk writes to an external store,
+ * annotate the class with {@link akka.javasdk.annotations.Consume.Batch}.
  */
 public abstract class Consumer {
 
   private volatile Optional<MessageContext> messageContext = Optional.empty();
 
+  // context of the message handled by the current thread, for instances shared by concurrent messages
+  private static final ThreadLocal<MessageContext> currentMessageContext = new ThreadLocal<>();
+
   /**
    * Additional context and metadata for a message handler.
    *
@@ -53,7 +65,9 @@ public abstract class Consumer {
   }
 
   private MessageContext messageContext(String errorMessage) {
-    return messageContext.orElseThrow(() -> new IllegalStateException(errorMessage));
+    return messageContext
+      .or(() -> Optional.ofNullable(currentMessageContext.get()))
+      .orElseThrow(() -> new IllegalStateException(errorMessage));
   }
 
   /**
@@ -65,6 +79,16 @@ public abstract class Consumer {
     messageContext = context;
   }
 
+  /**
+   * INTERNAL API
+   * @hidden
+   */
+  @InternalApi
+  public static void _internalSetCurrentMessageContext(Optional<MessageContext> context) {
+    if (context.isPresent()) currentMessageContext.set(context.get());
+    else currentMessageContext.remove();
+  }
+
   public final Effect.Builder effects() {
     return ConsumerEffectImpl.builder();
   }
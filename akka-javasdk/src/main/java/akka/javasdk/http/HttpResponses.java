@@ -7,14 +7,24 @@ package akka.javasdk.http;
 
 import akka.http.javadsl.model.ContentType;
 import akka.http.javadsl.model.ContentTypes;
+import akka.http.javadsl.model.HttpCharsets;
+import akka.http.javadsl.model.HttpEntities;
 import akka.http.javadsl.model.HttpHeader;
+import akka.http.javadsl.model.HttpRequest;
 import akka.http.javadsl.model.HttpResponse;
+import akka.http.javadsl.model.MediaTypes;
 import akka.http.javadsl.model.StatusCode;
 import akka.http.javadsl.model.StatusCodes;
 import akka.javasdk.JsonSupport;
+import akka.javasdk.impl.http.HttpResponseEncoding;
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.net.HttpHeaders;
 
+import java.time.Duration;
+import java.util.function.Supplier;
+
 
 /**
  * Helper class for creating common HTTP responses.
@@ -193,5 +203,141 @@ public class HttpResponses {
     return ok(text).withStatus(StatusCodes.NOT_IMPLEMENTED);
   }
 
+  private static final ContentType NDJSON =
+      ContentTypes.create(MediaTypes.applicationWithFixedCharset("x-ndjson", HttpCharsets.UTF_8));
+
+  private static final ContentType EVENT_STREAM = ContentTypes.create(MediaTypes.TEXT_EVENT_STREAM);
+
+  private static final ByteString NEWLINE = ByteString.fromString("\n");
+
+  // a comment line, ignored by SSE clients, keeps idle connections from being closed by proxies
+  private static final ByteString SSE_HEARTBEAT = ByteString.fromString(":\n\n");
+
+  /**
+   * Creates a 200 OK response with an application/json body, a JSON array with the elements of the
+   * source, streamed as they are emitted. Each element is serialized to json using the
+   * application's default Jackson serializer.
+   *
+   * <p>The source is only run when the response is sent, and is backpressured by the client, for
+   * example a stream from a view query with {@code ComponentClient.forView().stream(...)}.
+   */
+  public static <T> HttpResponse streamJsonArray(Source<T, ?> source) {
+    if (source == null) throw new IllegalArgumentException("source must not be null");
+    Source<ByteString, ?> body =
+        source
+            .map(HttpResponses::encodeJson)
+            .intersperse(ByteString.fromString("["), ByteString.fromString(","), ByteString.fromString("]"));
+    return HttpResponse.create().withEntity(HttpEntities.create(ContentTypes.APPLICATION_JSON, body));
+  }
+
+  /**
+   * Creates a 200 OK response with an application/x-ndjson body, newline delimited JSON with one
+   * line for each element of the source, streamed as they are emitted. Each element is serialized
+   * to json using the application's default Jackson serializer.
+   *
+   * <p>The source is only run when the response is sent, and is backpressured by the client.
+   */
+  public static <T> HttpResponse streamNdJson(Source<T, ?> source) {
+    if (source == null) throw new IllegalArgumentException("source must not be null");
+    Source<ByteString, ?> body = source.map(element -> encodeJson(element).concat(NEWLINE));
+    return HttpResponse.create().withEntity(HttpEntities.create(NDJSON, body));
+  }
+
+  /**
+   * Creates a 200 OK response with a text/event-stream body, one Server-Sent Event for each element
+   * of the source, streamed as they are emitted. The data of each event is the element serialized
+   * to json using the application's default Jackson serializer.
+   *
+   * <p>The source is only run when the response is sent, and is backpressured by the client. For a
+   * source that can be idle for a long time, like a view query with {@code streamUpdates = true},
+   * use {@link #serverSentEvents(Source, Duration)} so that the connection is not closed as idle.
+   */
+  public static <T> HttpResponse serverSentEvents(Source<T, ?> source) {
+    if (source == null) throw new IllegalArgumentException("source must not be null");
+    return serverSentEventsResponse(source.map(HttpResponses::encodeServerSentEvent));
+  }
+
+  /**
+   * Creates a 200 OK response with a text/event-stream body, one Server-Sent Event for each element
+   * of the source, like {@link #serverSentEvents(Source)}, with a heartbeat comment sent when no
+   * event was sent for the given interval.
+   */
+  public static <T> HttpResponse serverSentEvents(Source<T, ?> source, Duration heartbeatInterval) {
+    if (source == null) throw new IllegalArgumentException("source must not be null");
+    if (heartbeatInterval == null) throw new IllegalArgumentException("heartbeatInterval must not be null");
+    return serverSentEventsResponse(
+        source
+            .map(HttpResponses::encodeServerSentEvent)
+            .keepAlive(heartbeatInterval, () -> SSE_HEARTBEAT));
+  }
+
+  /** The minimum body size of the responses compressed by {@link #compressed(HttpRequest, HttpResponse)}. */
+  public static final int MIN_COMPRESSED_SIZE = 1024;
+
+  /**
+   * Compresses the body of the response with gzip or deflate, if accepted by the client according to
+   * the {@code Accept-Encoding} header of the request, and if the body is at least {@link
+   * #MIN_COMPRESSED_SIZE} bytes. Streamed bodies are always compressed, as their size is not known.
+   *
+   * <p>To use it, the endpoint method accepts the {@link HttpRequest} as its last parameter.
+   */
+  public static HttpResponse compressed(HttpRequest request, HttpResponse response) {
+    return compressed(request, response, MIN_COMPRESSED_SIZE);
+  }
+
+  /**
+   * Compresses the body of the response with gzip or deflate, if accepted by the client according to
+   * the {@code Accept-Encoding} header of the request, and if the body is at least {@code minSize}
+   * bytes.
+   */
+  public static HttpResponse compressed(HttpRequest request, HttpResponse response, int minSize) {
+    return HttpResponseEncoding.compressed(request, response, minSize);
+  }
+
+  /**
+   * Adds an ETag header to a 200 OK response, a hash of its body, and replaces it with a 304 NOT
+   * MODIFIED response without body if the ETag matches the {@code If-None-Match} header of a GET or
+   * HEAD request. Responses with a streamed body are returned as they are.
+   *
+   * <p>To use it, the endpoint method accepts the {@link HttpRequest} as its last parameter.
+   */
+  public static HttpResponse conditional(HttpRequest request, HttpResponse response) {
+    return HttpResponseEncoding.conditional(request, response);
+  }
+
+  /**
+   * Responds with a 304 NOT MODIFIED response without body if the given ETag, for example the
+   * version of the returned state, matches the {@code If-None-Match} header of a GET or HEAD request.
+   * Otherwise, the response is created and the ETag header is added to it. Unlike {@link
+   * #conditional(HttpRequest, HttpResponse)}, the body is not serialized when the client already has
+   * it.
+   */
+  public static HttpResponse conditional(HttpRequest request, String etag, Supplier<HttpResponse> response) {
+    return HttpResponseEncoding.conditional(request, etag, response);
+  }
+
+  private static HttpResponse serverSentEventsResponse(Source<ByteString, ?> body) {
+    return HttpResponse.create()
+        .withEntity(HttpEntities.create(EVENT_STREAM, body))
+        .addHeader(HttpHeader.parse(HttpHeaders.CACHE_CONTROL, "no-cache"));
+  }
+
+  private static ByteString encodeJson(Object element) {
+    try {
+      return JsonSupport.encodeToAkkaByteString(element);
+    } catch (JsonProcessingException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static ByteString encodeServerSentEvent(Object element) {
+    // every line of the data needs its own field, a pretty printing serializer emits multiple lines
+    StringBuilder event = new StringBuilder();
+    for (String line : encodeJson(element).utf8String().split("\n", -1)) {
+      event.append("data: ").append(line).append('\n');
+    }
+    return ByteString.fromString(event.append('\n').toString());
+  }
+
 
 }
@@ -9,6 +9,7 @@ import akka.http.javadsl.model.ContentType;
 import akka.http.javadsl.model.HttpHeader;
 import akka.http.javadsl.model.HttpRequest;
 import akka.http.javadsl.model.headers.HttpCredentials;
+import akka.util.ByteString;
 
 import java.time.Duration;
 import java.util.concurrent.CompletionStage;
@@ -24,6 +25,9 @@ import java.util.function.Function;
 @DoNotInherit
 public interface RequestBuilder<R> {
 
+  /** The maximum size of one JSON object in a body decoded with {@link #invokeStreamAsync(Class)}. */
+  int MAX_STREAMED_ELEMENT_BYTES = 1024 * 1024;
+
   RequestBuilder<R> withRequest(HttpRequest request);
 
   RequestBuilder<R> addHeader(String header, String value);
@@ -36,6 +40,38 @@ public interface RequestBuilder<R> {
 
   RequestBuilder<R> withTimeout(Duration timeout);
 
+  /**
+   * Retry the request when it fails without a response, or with a 502, 503 or 504 response, waiting
+   * an exponentially growing backoff with random jitter between the attempts.
+   *
+   * <p>Only requests with an idempotent method, like GET, PUT and DELETE, and a body that is not
+   * streamed are retried.
+   *
+   * @param maxRetries the maximum number of attempts after the first one
+   * @param minBackoff the backoff before the first retry
+   * @param maxBackoff the maximum backoff between attempts
+   */
+  RequestBuilder<R> withRetries(int maxRetries, Duration minBackoff, Duration maxBackoff);
+
+  /**
+   * Send a second, hedged, attempt of the request if no response has arrived once the given
+   * percentile of the latency of the recent requests to the same service or host has passed, for
+   * example {@code 0.95}. The first response to arrive is used.
+   *
+   * <p>Only requests with an idempotent method, like GET, PUT and DELETE, and a body that is not
+   * streamed are hedged, and only once enough requests to the same target have been sent to know
+   * their latency.
+   */
+  RequestBuilder<R> withHedging(double latencyPercentile);
+
+  /**
+   * The maximum size in bytes of the response body, overriding {@code
+   * akka.javasdk.http-client.max-response-size} and {@code
+   * akka.javasdk.http-client.max-streamed-response-size}. A larger response fails with a {@link
+   * ResponseTooLargeException}, a streamed body fails once the maximum has been read.
+   */
+  RequestBuilder<R> withMaxResponseSize(long maxBytes);
+
   /**
    * Transform the request before sending it. This method allows for extra request configuration.
    */
@@ -61,6 +97,30 @@ public interface RequestBuilder<R> {
 
   CompletionStage<StrictResponse<R>> invokeAsync();
 
+  /**
+   * Send the request and complete as soon as the status and headers of the response are received,
+   * without buffering the response body in memory. The body bytes are streamed as they arrive.
+   *
+   * <p>The body must always be consumed or cancelled, for example with {@code
+   * response.body().runWith(Sink.ignore(), materializer)}, even when the response status is a
+   * failure.
+   */
+  CompletionStage<StreamedResponse<ByteString>> invokeStreamAsync();
+
+  /**
+   * Send the request and stream the response body as a sequence of JSON objects, each deserialized
+   * to the specified type using the application's default Jackson deserializer, as they arrive.
+   *
+   * <p>The body is expected to be a JSON array of objects or newline delimited JSON objects. An
+   * element that is not an object, or a single object larger than {@link
+   * #MAX_STREAMED_ELEMENT_BYTES}, fails the stream.
+   *
+   * <p>Fails if the response status is a failure, without a body to consume.
+   *
+   * @param elementType the expected class type of each element of the response body
+   */
+  <T> CompletionStage<StreamedResponse<T>> invokeStreamAsync(Class<T> elementType);
+
   /**
    * Converts the response body to the specified type.
    *
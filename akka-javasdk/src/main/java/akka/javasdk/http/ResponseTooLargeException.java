@@ -0,0 +1,27 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.http;
+
+/**
+ * Thrown when the body of a response to a request of an {@link HttpClient} is larger than the
+ * maximum response size. Streamed bodies fail with it as soon as the maximum has been read.
+ *
+ * <p>The maximum is configured with {@code akka.javasdk.http-client.max-response-size} or for one
+ * request with {@link RequestBuilder#withMaxResponseSize(long)}.
+ */
+public final class ResponseTooLargeException extends RuntimeException {
+
+  private final long maxResponseSize;
+
+  public ResponseTooLargeException(String message, long maxResponseSize) {
+    super(message);
+    this.maxResponseSize = maxResponseSize;
+  }
+
+  /** The maximum response size in bytes that was exceeded. */
+  public long maxResponseSize() {
+    return maxResponseSize;
+  }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.http;
+
+import akka.NotUsed;
+import akka.http.javadsl.model.HttpResponse;
+import akka.http.javadsl.model.StatusCode;
+import akka.stream.javadsl.Source;
+
+/**
+ * A response of which the body has not been received yet, but is streamed as it arrives.
+ * <p>
+ * The body must always be consumed or cancelled, until it is, the connection of the request is not
+ * released. The entity of the HttpResponse must not be used to access the body.
+ * <p>
+ * The HttpResponse can be used to access other response fields, like content-type, headers and http status code.
+ *
+ * @param <T> The type of the elements of the body.
+ * @param httpResponse The HTTP response.
+ * @param body The body of the response, as a stream of elements.
+ */
+public record StreamedResponse<T>(HttpResponse httpResponse, Source<T, NotUsed> body) {
+  public StatusCode status() {
+    return httpResponse.status();
+  }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl;
+
+import akka.annotation.InternalApi;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * INTERNAL API
+ *
+ * @hidden
+ */
+@InternalApi
+public final class VirtualThreads {
+
+  // in Java since the Scala sources are compiled for an older release without virtual threads
+  private static final Executor executor =
+      Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("akka-javasdk-blocking-", 0).factory());
+
+  private VirtualThreads() {}
+
+  /**
+   * An executor starting a new virtual thread for each task.
+   */
+  public static Executor executor() {
+    return executor;
+  }
+}
@@ -29,11 +29,20 @@ import java.util.concurrent.CompletionStage;
  * </ul>
  * <p>
  * Concrete class must be annotated with {@link akka.javasdk.annotations.ComponentId}.
+ * <p>
+ * A new instance is created for each command, unless the class is annotated with
+ * {@link akka.javasdk.annotations.SharedInstance}.
+ * <p>
+ * Handlers that call blocking APIs can run on virtual threads by annotating the class with
+ * {@link akka.javasdk.annotations.Blocking}.
  */
 public abstract class TimedAction {
 
   private volatile Optional<CommandContext> commandContext = Optional.empty();
 
+  // context of the command handled by the current thread, for instances shared by concurrent commands
+  private static final ThreadLocal<CommandContext> currentCommandContext = new ThreadLocal<>();
+
   /**
    * Additional context and metadata for a message handler.
    *
@@ -44,7 +53,9 @@ public abstract class TimedAction {
   }
 
   private CommandContext commandContext(String errorMessage) {
-    return commandContext.orElseThrow(() -> new IllegalStateException(errorMessage));
+    return commandContext
+      .or(() -> Optional.ofNullable(currentCommandContext.get()))
+      .orElseThrow(() -> new IllegalStateException(errorMessage));
   }
 
   /**
@@ -56,6 +67,16 @@ public abstract class TimedAction {
     commandContext = context;
   }
 
+  /**
+   * INTERNAL API
+   * @hidden
+   */
+  @InternalApi
+  public static void _internalSetCurrentCommandContext(Optional<CommandContext> context) {
+    if (context.isPresent()) currentCommandContext.set(context.get());
+    else currentCommandContext.remove();
+  }
+
   public final Effect.Builder effects() {
     return TimedActionEffectImpl.builder();
   }
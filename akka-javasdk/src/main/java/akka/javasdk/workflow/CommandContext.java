@@ -7,6 +7,8 @@ package akka.javasdk.workflow;
 import akka.javasdk.MetadataContext;
 import akka.javasdk.Tracing;
 
+import java.util.Optional;
+
 /** A value based workflow command context. */
 public interface CommandContext extends MetadataContext {
 
@@ -33,4 +35,18 @@ public interface CommandContext extends MetadataContext {
 
   /** Access to tracing for custom app specific tracing. */
   Tracing tracing();
+
+  /**
+   * A key identifying the step being executed with its input, it is the same for every execution of a step after the
+   * same transition, including retries, and different when the workflow transitions to the step again. It can be
+   * passed along with calls made from the step so that the called service can ignore duplicates.
+   * <p>
+   * The transitions are counted in memory, so the key only stays the same after a failover when
+   * {@code akka.javasdk.workflow.store-step-transitions} is enabled.
+   *
+   * @return The idempotency key when executing a step, empty when handling a command.
+   */
+  default Optional<String> idempotencyKey() {
+    return Optional.empty();
+  }
 }
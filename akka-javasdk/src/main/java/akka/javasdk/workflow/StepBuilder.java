@@ -6,6 +6,7 @@ package akka.javasdk.workflow;
 
 import akka.javasdk.DeferredCall;
 
+import java.util.List;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -60,6 +61,67 @@ public class StepBuilder {
   }
 
 
+  /**
+   * Build a step action with a blocking call.
+   * <p>
+   * The {@link Function} passed to this method may block, for example on a JDBC or blocking HTTP client call. It is
+   * run on a virtual thread, with at most {@link akka.javasdk.annotations.Blocking#maxConcurrency()} blocking calls
+   * of the workflow component running at the same time.
+   * Its result is made available to this workflow via the {@code andThen} method.
+   * <p>
+   * On failure, the step will be retried according to the default retry strategy or the one defined in the step configuration.
+   *
+   * @param callInputClass Input class for call.
+   * @param call           Blocking call.
+   * @param <Input>        Input for the blocking call, provided by transition method.
+   * @param <Output>       Output of the blocking call.
+   * @return Step builder.
+   */
+  public <Input, Output> BlockingCallStepBuilder<Input, Output> call(Class<Input> callInputClass, Function<Input, Output> call) {
+    return new BlockingCallStepBuilder<>(name, callInputClass, call);
+  }
+
+  /**
+   * Build a step action with a blocking call.
+   * <p>
+   * The {@link Supplier} passed to this method may block, for example on a JDBC or blocking HTTP client call. It is
+   * run on a virtual thread, with at most {@link akka.javasdk.annotations.Blocking#maxConcurrency()} blocking calls
+   * of the workflow component running at the same time.
+   * Its result is made available to this workflow via the {@code andThen} method.
+   * <p>
+   * On failure, the step will be retried according to the default retry strategy or the one defined in the step configuration.
+   *
+   * @param callSupplier Blocking call.
+   * @param <Output>     Output of the blocking call.
+   * @return Step builder.
+   */
+  public <Output> BlockingCallStepBuilder<Void, Output> call(Supplier<Output> callSupplier) {
+    return new BlockingCallStepBuilder<>(name, Void.class, (Void v) -> callSupplier.get());
+  }
+
+
+  /**
+   * Build a step action running several async calls concurrently.
+   * <p>
+   * Each {@link Function} passed to this method receives the step input and should return a {@link CompletionStage}.
+   * By default all calls are started at once and must all succeed; use {@code maxConcurrency} to limit the number of
+   * calls in flight and {@code firstSuccess} or {@code quorum} to complete the step before all calls succeeded.
+   * The results of the successful calls, in the order the calls were given, are made available to this workflow
+   * via the {@code andThen} method.
+   * <p>
+   * When not enough calls can succeed anymore, the step fails and is retried according to the default retry strategy
+   * or the one defined in the step configuration. A step timeout covers all the calls of the step.
+   *
+   * @param callInputClass Input class for the call factories.
+   * @param callFactories  Factory methods for creating the async calls.
+   * @param <Input>        Input for the async call factories, provided by transition method.
+   * @param <Output>       Output of each async call.
+   * @return Step builder.
+   */
+  public <Input, Output> ParallelCallStepBuilder<Input, Output> parallelCall(Class<Input> callInputClass, List<Function<Input, CompletionStage<Output>>> callFactories) {
+    return new ParallelCallStepBuilder<>(name, callInputClass, callFactories);
+  }
+
   public static class CallStepBuilder<Input, DefCallInput, DefCallOutput> {
 
     final private String name;
@@ -126,4 +188,103 @@ public class StepBuilder {
       return new Workflow.AsyncCallStep<>(name, callInputClass, callFunc, transitionInputClass, transitionFunc);
     }
   }
+
+  public static class BlockingCallStepBuilder<CallInput, CallOutput> {
+
+    final private String name;
+
+    final private Class<CallInput> callInputClass;
+    final private Function<CallInput, CallOutput> callFunc;
+
+    public BlockingCallStepBuilder(String name, Class<CallInput> callInputClass, Function<CallInput, CallOutput> callFunc) {
+      this.name = name;
+      this.callInputClass = callInputClass;
+      this.callFunc = callFunc;
+    }
+
+    /**
+     * Transition to the next step based on the result of the step call.
+     * <p>
+     * The {@link Function} passed to this method should receive the return type of the step call and return
+     * an {@link Workflow.Effect.TransitionalEffect} describing the next step to transition to.
+     * <p>
+     * When defining the Effect, you can update the workflow state and indicate the next step to transition to.
+     * This can be another step, or a pause or end of the workflow.
+     * <p>
+     * When transition to another step, you can also pass an input parameter to the next step.
+     *
+     * @param transitionInputClass Input class for transition.
+     * @param transitionFunc       Function that transform the action result to a {@link Workflow.Effect.TransitionalEffect}
+     * @return BlockingCallStep
+     */
+    public Workflow.BlockingCallStep<CallInput, CallOutput, ?> andThen(Class<CallOutput> transitionInputClass, Function<CallOutput, Workflow.Effect.TransitionalEffect<Void>> transitionFunc) {
+      return new Workflow.BlockingCallStep<>(name, callInputClass, callFunc, transitionInputClass, transitionFunc);
+    }
+  }
+
+  public static class ParallelCallStepBuilder<CallInput, CallOutput> {
+
+    final private String name;
+
+    final private Class<CallInput> callInputClass;
+    final private List<Function<CallInput, CompletionStage<CallOutput>>> callFuncs;
+    private int maxConcurrency;
+    private Workflow.ParallelCallStep.Completion completion = Workflow.ParallelCallStep.Completion.ALL;
+    private int quorum;
+
+    public ParallelCallStepBuilder(String name, Class<CallInput> callInputClass, List<Function<CallInput, CompletionStage<CallOutput>>> callFuncs) {
+      if (callFuncs.isEmpty())
+        throw new IllegalArgumentException("Parallel step '" + name + "' must have at least one call");
+      this.name = name;
+      this.callInputClass = callInputClass;
+      this.callFuncs = callFuncs;
+      this.maxConcurrency = callFuncs.size();
+      this.quorum = callFuncs.size();
+    }
+
+    /**
+     * Limit the number of calls of this step that are in flight at the same time. By default all calls are started
+     * at once.
+     */
+    public ParallelCallStepBuilder<CallInput, CallOutput> maxConcurrency(int maxConcurrency) {
+      if (maxConcurrency < 1)
+        throw new IllegalArgumentException("Max concurrency of parallel step '" + name + "' must be at least 1");
+      this.maxConcurrency = maxConcurrency;
+      return this;
+    }
+
+    /**
+     * Complete the step with the result of the first call that succeeds.
+     */
+    public ParallelCallStepBuilder<CallInput, CallOutput> firstSuccess() {
+      this.completion = Workflow.ParallelCallStep.Completion.FIRST_SUCCESS;
+      this.quorum = 1;
+      return this;
+    }
+
+    /**
+     * Complete the step with the results of the first {@code quorum} calls that succeed.
+     */
+    public ParallelCallStepBuilder<CallInput, CallOutput> quorum(int quorum) {
+      if (quorum < 1 || quorum > callFuncs.size())
+        throw new IllegalArgumentException("Quorum of parallel step '" + name + "' must be between 1 and " + callFuncs.size());
+      this.completion = Workflow.ParallelCallStep.Completion.QUORUM;
+      this.quorum = quorum;
+      return this;
+    }
+
+    /**
+     * Transition to the next step based on the results of the step calls.
+     * <p>
+     * The {@link Function} passed to this method receives the results of the successful calls and should return
+     * an {@link Workflow.Effect.TransitionalEffect} describing the next step to transition to.
+     *
+     * @param transitionInputClass Output class of each call.
+     * @param transitionFunc       Function that transform the call results to a {@link Workflow.Effect.TransitionalEffect}
+     * @return ParallelCallStep
+     */
+    public Workflow.ParallelCallStep<CallInput, CallOutput, ?> andThen(Class<CallOutput> transitionInputClass, Function<List<CallOutput>, Workflow.Effect.TransitionalEffect<Void>> transitionFunc) {
+      return new Workflow.ParallelCallStep<>(name, callInputClass, callFuncs, maxConcurrency, completion, quorum, transitionInputClass, transitionFunc);
+    }
+  }
 }
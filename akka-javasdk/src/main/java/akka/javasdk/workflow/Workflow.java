@@ -13,10 +13,10 @@ import akka.javasdk.workflow.Workflow.RecoverStrategy.MaxRetries;
 
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -150,6 +150,10 @@ public abstract class Workflow<S> {
   }
 
   /**
+   * The definition is created once per workflow instance and reused for all its steps and transitions. The step
+   * functions should therefore read the state with {@link #currentState()} when they are invoked rather than capture
+   * it when the definition is created.
+   *
    * @return A workflow definition in a form of steps and transitions between them.
    */
   public abstract WorkflowDef<S> definition();
@@ -334,7 +338,7 @@ public abstract class Workflow<S> {
 
     final private List<Step> steps = new ArrayList<>();
     final private List<StepConfig> stepConfigs = new ArrayList<>();
-    final private Set<String> uniqueNames = new HashSet<>();
+    final private Map<String, Step> stepsByName = new HashMap<>();
     private Optional<Duration> workflowTimeout = Optional.empty();
     private Optional<String> failoverStepName = Optional.empty();
     private Optional<Object> failoverStepInput = Optional.empty();
@@ -347,7 +351,7 @@ public abstract class Workflow<S> {
     }
 
     public Optional<Step> findByName(String name) {
-      return steps.stream().filter(s -> s.name().equals(name)).findFirst();
+      return Optional.ofNullable(stepsByName.get(name));
     }
 
     /**
@@ -373,11 +377,11 @@ public abstract class Workflow<S> {
     }
 
     private void addStepWithValidation(Step step) {
-      if (uniqueNames.contains(step.name()))
+      if (stepsByName.containsKey(step.name()))
         throw new IllegalArgumentException("Name '" + step.name() + "' is already in use by another step in this workflow");
 
       this.steps.add(step);
-      this.uniqueNames.add(step.name());
+      this.stepsByName.put(step.name(), step);
     }
 
 
@@ -529,6 +533,7 @@ public abstract class Workflow<S> {
     final public Class<CallInput> callInputClass;
     final public Class<CallOutput> transitionInputClass;
     private Optional<Duration> _timeout = Optional.empty();
+    private boolean _resultCached = false;
 
     public AsyncCallStep(String name,
                          Class<CallInput> callInputClass,
@@ -559,6 +564,135 @@ public abstract class Workflow<S> {
       this._timeout = Optional.of(timeout);
       return this;
     }
+
+    /**
+     * Reuse the result of the call when the step is executed again after the same transition, for example when it
+     * is retried after a step timeout while the first call was still running or had already succeeded. A failed call
+     * is not reused, and the result is kept only until the step transitions. A result that was delivered is stored
+     * in the workflow state by the runtime, so it is not executed again after a failover.
+     * <p>
+     * Calls made from the step can be made idempotent downstream with {@link CommandContext#idempotencyKey()}.
+     */
+    public AsyncCallStep<CallInput, CallOutput, FailoverInput> cacheResult() {
+      this._resultCached = true;
+      return this;
+    }
+
+    public boolean isResultCached() {
+      return this._resultCached;
+    }
+  }
+
+  public static class BlockingCallStep<CallInput, CallOutput, FailoverInput> implements Step {
+
+    final private String _name;
+    final public Function<CallInput, CallOutput> callFunc;
+    final public Function<CallOutput, Effect.TransitionalEffect<Void>> transitionFunc;
+    final public Class<CallInput> callInputClass;
+    final public Class<CallOutput> transitionInputClass;
+    private Optional<Duration> _timeout = Optional.empty();
+
+    public BlockingCallStep(String name,
+                            Class<CallInput> callInputClass,
+                            Function<CallInput, CallOutput> callFunc,
+                            Class<CallOutput> transitionInputClass,
+                            Function<CallOutput, Effect.TransitionalEffect<Void>> transitionFunc) {
+      _name = name;
+      this.callInputClass = callInputClass;
+      this.callFunc = callFunc;
+      this.transitionInputClass = transitionInputClass;
+      this.transitionFunc = transitionFunc;
+    }
+
+    @Override
+    public String name() {
+      return this._name;
+    }
+
+    @Override
+    public Optional<Duration> timeout() {
+      return this._timeout;
+    }
+
+    /**
+     * Define a step timeout.
+     */
+    public BlockingCallStep<CallInput, CallOutput, FailoverInput> timeout(Duration timeout) {
+      this._timeout = Optional.of(timeout);
+      return this;
+    }
+  }
+
+  public static class ParallelCallStep<CallInput, CallOutput, FailoverInput> implements Step {
+
+    /**
+     * How many of the calls of a parallel step must succeed for the step to complete.
+     */
+    public enum Completion {
+      /** All calls must succeed. */
+      ALL,
+      /** The first call that succeeds completes the step. */
+      FIRST_SUCCESS,
+      /** A given number of calls must succeed. */
+      QUORUM
+    }
+
+    final private String _name;
+    final public List<Function<CallInput, CompletionStage<CallOutput>>> callFuncs;
+    final public Function<List<CallOutput>, Effect.TransitionalEffect<Void>> transitionFunc;
+    final public Class<CallInput> callInputClass;
+    final public Class<CallOutput> transitionInputClass;
+    final public int maxConcurrency;
+    final public Completion completion;
+    final public int quorum;
+    private Optional<Duration> _timeout = Optional.empty();
+
+    public ParallelCallStep(String name,
+                            Class<CallInput> callInputClass,
+                            List<Function<CallInput, CompletionStage<CallOutput>>> callFuncs,
+                            int maxConcurrency,
+                            Completion completion,
+                            int quorum,
+                            Class<CallOutput> transitionInputClass,
+                            Function<List<CallOutput>, Effect.TransitionalEffect<Void>> transitionFunc) {
+      _name = name;
+      this.callInputClass = callInputClass;
+      this.callFuncs = List.copyOf(callFuncs);
+      this.maxConcurrency = maxConcurrency;
+      this.completion = completion;
+      this.quorum = quorum;
+      this.transitionInputClass = transitionInputClass;
+      this.transitionFunc = transitionFunc;
+    }
+
+    @Override
+    public String name() {
+      return this._name;
+    }
+
+    @Override
+    public Optional<Duration> timeout() {
+      return this._timeout;
+    }
+
+    /**
+     * The number of successful calls needed for the step to complete.
+     */
+    public int requiredSuccesses() {
+      return switch (completion) {
+        case ALL -> callFuncs.size();
+        case FIRST_SUCCESS -> 1;
+        case QUORUM -> quorum;
+      };
+    }
+
+    /**
+     * Define a step timeout, covering all the calls of the step.
+     */
+    public ParallelCallStep<CallInput, CallOutput, FailoverInput> timeout(Duration timeout) {
+      this._timeout = Optional.of(timeout);
+      return this;
+    }
   }
 
   public static class StepConfig {
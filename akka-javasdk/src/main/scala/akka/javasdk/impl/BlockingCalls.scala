@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl
+
+import java.util.concurrent.Executor
+import java.util.concurrent.Semaphore
+
+import scala.concurrent.Future
+import scala.concurrent.Promise
+import scala.util.control.NonFatal
+
+import akka.annotation.InternalApi
+
+/**
+ * INTERNAL API
+ *
+ * Runs blocking calls of one component on virtual threads, with at most `maxConcurrency` of them running at the same
+ * time. Calls over the limit wait on their own virtual thread, so no SDK dispatcher thread is blocked.
+ */
+@InternalApi
+final class BlockingCalls(val maxConcurrency: Int, executor: Executor = VirtualThreads.executor()) {
+  require(maxConcurrency > 0, s"maxConcurrency must be greater than 0, was [$maxConcurrency]")
+
+  private val permits = new Semaphore(maxConcurrency)
+
+  def run[T](call: => T): Future[T] = {
+    val promise = Promise[T]()
+    executor.execute { () =>
+      try {
+        permits.acquire()
+        try promise.success(call)
+        catch {
+          case ex: Throwable =>
+            // also fatal errors complete the call, and are then rethrown to the thread
+            promise.failure(ex)
+            if (!NonFatal(ex)) throw ex
+        } finally permits.release()
+      } catch {
+        case ex: InterruptedException => promise.tryFailure(ex)
+      }
+    }
+    promise.future
+  }
+
+  /**
+   * Number of calls running or waiting to run.
+   */
+  def pending: Int = maxConcurrency - permits.availablePermits() + permits.getQueueLength
+}
@@ -6,6 +6,7 @@ package akka.javasdk.impl
 
 import akka.annotation.InternalApi
 import akka.javasdk.impl.reflection.ParameterExtractor
+import akka.javasdk.impl.reflection.Reflect
 import java.lang.reflect.InvocationTargetException
 import java.lang.reflect.Method
 
@@ -36,7 +37,7 @@ private[impl] final case class CommandHandler(
    */
   private def lookupMethodAcceptingSubType(inputTypeUrl: String): Option[MethodInvoker] = {
     methodInvokers.values.find { javaMethod =>
-      val lastParam = javaMethod.method.getParameterTypes.last
+      val lastParam = Reflect.subscriptionInputType(javaMethod.method)
       if (lastParam.getAnnotation(classOf[JsonSubTypes]) != null) {
         lastParam.getAnnotation(classOf[JsonSubTypes]).value().exists { subType =>
           inputTypeUrl == messageCodec
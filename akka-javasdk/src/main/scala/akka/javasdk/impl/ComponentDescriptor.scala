@@ -228,7 +228,10 @@ private[impl] object ComponentDescriptor {
               val parameterExtractors: ParameterExtractorsArray = {
                 meth.getParameterTypes.length match {
                   case 1 =>
-                    Array(new ParameterExtractors.AnyBodyExtractor[AnyRef](meth.getParameterTypes.head, messageCodec))
+                    Array(
+                      new ParameterExtractors.AnyBodyExtractor[AnyRef](
+                        Reflect.subscriptionInputType(meth),
+                        messageCodec))
                   case n =>
                     throw new IllegalStateException(
                       s"Update handler ${method} is expecting $n parameters, should be 1, the update")
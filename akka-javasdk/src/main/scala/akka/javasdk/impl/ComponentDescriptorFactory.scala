@@ -6,6 +6,7 @@ package akka.javasdk.impl
 
 import akka.annotation.InternalApi
 import akka.javasdk.annotations.Acl
+import akka.javasdk.annotations.Blocking
 import akka.javasdk.annotations.ComponentId
 import akka.javasdk.eventsourcedentity.EventSourcedEntity
 import akka.javasdk.impl.reflection.CombinedSubscriptionServiceMethod
@@ -16,11 +17,13 @@ import java.lang.reflect.AnnotatedElement
 import java.lang.reflect.Method
 import java.lang.reflect.ParameterizedType
 
+import akka.javasdk.annotations.Consume.Batch
 import akka.javasdk.annotations.Consume.FromEventSourcedEntity
 import akka.javasdk.annotations.Consume.FromKeyValueEntity
 import akka.javasdk.annotations.Consume.FromServiceStream
 import akka.javasdk.annotations.Consume.FromTopic
 import akka.javasdk.annotations.DeleteHandler
+import akka.javasdk.annotations.SharedInstance
 import akka.javasdk.annotations.Produce.ServiceStream
 import akka.javasdk.annotations.Produce.ToTopic
 import akka.javasdk.consumer.Consumer
@@ -198,6 +201,21 @@ private[impl] object ComponentDescriptorFactory {
     else false
   }
 
+  def hasSharedInstance(clazz: Class[_]): Boolean =
+    clazz.hasAnnotation[SharedInstance]
+
+  def blockingMaxConcurrency(clazz: Class[_]): Option[Int] =
+    clazz.getAnnotationOption[Blocking].map(_.maxConcurrency())
+
+  def batchSubscription(clazz: Class[_]): Option[Batch] =
+    clazz.getAnnotationOption[Batch]
+
+  def findParallelism(clazz: Class[_]): Int = {
+    if (hasTopicSubscription(clazz)) clazz.getAnnotation(classOf[FromTopic]).parallelism()
+    else if (hasEventSourcedEntitySubscription(clazz)) clazz.getAnnotation(classOf[FromEventSourcedEntity]).parallelism()
+    else 0
+  }
+
   def valueEntityEventSource(clazz: Class[_], handleDeletes: Boolean) = {
     val entityType = findValueEntityType(clazz)
     EventSource
@@ -371,9 +389,8 @@ private[impl] object ComponentDescriptorFactory {
       case (source, kMethods) if kMethods.size > 1 =>
         val methodsMap =
           kMethods.flatMap { k =>
-            val methodParameterTypes = k.serviceMethod.javaMethodOpt.get.getParameterTypes
             // it is safe to pick the last parameter. An action has one and View has two. In the View always the last is the event
-            val eventParameter = methodParameterTypes.last
+            val eventParameter = Reflect.subscriptionInputType(k.serviceMethod.javaMethodOpt.get)
 
             messageCodec.typeUrlsFor(eventParameter).map(typeUrl => (typeUrl, k.serviceMethod.javaMethodOpt.get))
           }.toMap
@@ -387,9 +404,9 @@ private[impl] object ComponentDescriptorFactory {
 
       case (source, kMethod +: Nil) =>
         //only here it makes sense to check if the input is sealed, since kMethod size is 1
-        if (kMethod.serviceMethod.javaMethodOpt.exists(_.getParameterTypes.last.isSealed)) {
+        if (kMethod.serviceMethod.javaMethodOpt.exists(Reflect.subscriptionInputType(_).isSealed)) {
           val javaMethod = kMethod.serviceMethod.javaMethodOpt.get
-          val methodsMap = javaMethod.getParameterTypes.last.getPermittedSubclasses.toList.flatMap { subClass =>
+          val methodsMap = Reflect.subscriptionInputType(javaMethod).getPermittedSubclasses.toList.flatMap { subClass =>
             messageCodec.typeUrlsFor(subClass).map(typeUrl => (typeUrl, javaMethod))
           }.toMap
           KalixMethod(
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl
+
+import java.util.concurrent.TimeUnit
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+import scala.concurrent.duration._
+
+import akka.Done
+import akka.NotUsed
+import akka.actor.ActorSystem
+import akka.actor.Cancellable
+import akka.actor.CoordinatedShutdown
+import akka.annotation.InternalApi
+import akka.stream.scaladsl.Flow
+import io.opentelemetry.api.common.AttributeKey
+import io.opentelemetry.api.common.Attributes
+import io.opentelemetry.api.metrics.Meter
+import org.slf4j.LoggerFactory
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[impl] object ComponentDispatchers {
+  val EventSourcedEntityType = "event-sourced-entity"
+  val KeyValueEntityType = "key-value-entity"
+  val WorkflowType = "workflow"
+  val ViewType = "view"
+  val ConsumerType = "consumer"
+  val TimedActionType = "timed-action"
+
+  private val DispatcherAttribute = AttributeKey.stringKey("dispatcher")
+  private val ProbeInterval = 1.second
+
+  /**
+   * Runs the stages of `flow` on `dispatcher`, if any.
+   */
+  def withDispatcher[In, Out](flow: Flow[In, Out, NotUsed], dispatcher: Option[String]): Flow[In, Out, NotUsed] =
+    dispatcher.fold(flow)(flow.async(_))
+}
+
+/**
+ * INTERNAL API
+ *
+ * Assigns the dispatcher that runs the handlers of each component, so that slow or CPU heavy components can be kept
+ * from taking the threads of others. A dispatcher configured for a component id takes precedence over the one
+ * configured for its component type, and components without either run on the SDK dispatcher.
+ */
+@InternalApi
+private[impl] final class ComponentDispatchers(
+    system: ActorSystem,
+    settings: Settings,
+    sdkDispatcherName: String,
+    sdkExecutionContext: ExecutionContext) {
+  import ComponentDispatchers._
+
+  private val log = LoggerFactory.getLogger(classOf[ComponentDispatchers])
+
+  // dispatchers handed out, for the saturation metrics
+  @volatile private var usedDispatchers = Set(sdkDispatcherName)
+
+  /**
+   * @return the dispatcher to use for the component, or None for the SDK dispatcher
+   */
+  def dispatcherFor(componentType: String, componentId: String): Option[String] =
+    settings.componentDispatchers
+      .get(componentId)
+      .orElse(settings.componentTypeDispatchers.get(componentType))
+      .filter(_ != sdkDispatcherName)
+      .filter { dispatcher =>
+        val exists = system.dispatchers.hasDispatcher(dispatcher)
+        if (!exists)
+          log.warn(
+            "Dispatcher [{}] configured for component [{}] does not exist, using the SDK dispatcher",
+            dispatcher,
+            componentId)
+        exists
+      }
+      .map { dispatcher =>
+        synchronized(usedDispatchers += dispatcher)
+        dispatcher
+      }
+
+  /**
+   * @return the execution context of the dispatcher for the component, or None for the SDK dispatcher
+   */
+  def executionContextFor(componentType: String, componentId: String): Option[ExecutionContext] =
+    dispatcherFor(componentType, componentId).map(system.dispatchers.lookup)
+
+  /**
+   * Periodically measures how long a task waits before it starts running on each used dispatcher, a delay that grows
+   * when the dispatcher is saturated. The measurements stop when the SDK shuts down.
+   *
+   * @return the scheduled measurements
+   */
+  def registerSaturationMetrics(meter: Meter): Cancellable = {
+    val schedulingDelay = meter
+      .histogramBuilder("akka.javasdk.dispatcher.scheduling_delay")
+      .setDescription("Time a task waits before it starts running on a dispatcher")
+      .setUnit("s")
+      .build()
+
+    val probe = system.scheduler.scheduleWithFixedDelay(ProbeInterval, ProbeInterval) { () =>
+      usedDispatchers.foreach { dispatcher =>
+        val attributes = Attributes.of(DispatcherAttribute, dispatcher)
+        val scheduledAt = System.nanoTime()
+        system.dispatchers.lookup(dispatcher).execute { () =>
+          schedulingDelay.record((System.nanoTime() - scheduledAt).toDouble / TimeUnit.SECONDS.toNanos(1), attributes)
+        }
+      }
+    }(sdkExecutionContext)
+
+    CoordinatedShutdown(system).addTask(CoordinatedShutdown.PhaseServiceStop, "stop-dispatcher-saturation-metrics") {
+      () =>
+        probe.cancel()
+        Future.successful(Done)
+    }
+    probe
+  }
+}
@@ -23,8 +23,6 @@ import akka.javasdk.impl.Validations.Validation
 import akka.runtime.sdk.spi.ACL
 import akka.runtime.sdk.spi.{ JWT => RuntimeJWT }
 import akka.runtime.sdk.spi.All
-import akka.runtime.sdk.spi.ClaimPattern
-import akka.runtime.sdk.spi.ClaimValues
 import akka.runtime.sdk.spi.ComponentOptions
 import akka.runtime.sdk.spi.HttpEndpointConstructionContext
 import akka.runtime.sdk.spi.HttpEndpointDescriptor
@@ -33,16 +31,10 @@ import akka.runtime.sdk.spi.Internet
 import akka.runtime.sdk.spi.MethodOptions
 import akka.runtime.sdk.spi.PrincipalMatcher
 import akka.runtime.sdk.spi.ServiceNamePattern
-import akka.runtime.sdk.spi.StaticClaim
-import akka.runtime.sdk.spi.StaticClaimContent
 import org.slf4j.LoggerFactory
 
 import java.lang.reflect.Method
 import scala.annotation.tailrec
-import scala.util.matching.Regex
-import scala.util.Success
-import scala.util.Failure
-import scala.util.Try
 
 /**
  * INTERNAL API
@@ -166,51 +158,15 @@ private[javasdk] object HttpEndpointDescriptorFactory {
       )
     }
 
-  private[impl] def extractEnvVars(claimValueContent: String, claimRef: String): String = {
-    val pattern = """\$\{([A-Z_][A-Z0-9_]*)\}""".r
-
-    pattern.replaceAllIn(
-      claimValueContent,
-      matched => {
-        val varName = matched.group(1)
-        Try(sys.env(varName)) match {
-          case Success(varValue) => varValue
-          case Failure(ex) =>
-            throw new IllegalArgumentException(
-              s"[${ex.getMessage}] env var is missing but it is used in claim [$claimValueContent] in [$claimRef].")
-        }
-      })
-  }
-
   private def deriveJWTOptions(
       jwtAnnotation: Option[JWT],
       className: String,
       method: Option[Method] = None): Option[RuntimeJWT] = {
-    //Validates the a.j.a.JWT.StaticClaim and creates a.r.s.spi.StaticClaim out of it
-    def createStaticClaim(staticClaim: JWT.StaticClaim): Option[StaticClaim] = {
-      val culprit = method.getOrElse(className).toString
-      val content: Option[StaticClaimContent] = (staticClaim.values(), staticClaim.pattern) match {
-        case (value, pattern) if value.nonEmpty && pattern.nonEmpty =>
-          throw new IllegalArgumentException(
-            s"Claim in $culprit must have a content at most for one: `value` or `pattern`. This claim has both.")
-        case (values, _) if values.nonEmpty =>
-          val staticClaimValues = values.map(v => extractEnvVars(v, culprit))
-          Some(new ClaimValues(staticClaimValues.toSet))
-        case (_, pattern) if pattern.nonEmpty =>
-          Try(new Regex(pattern)) match {
-            case Success(_) => Some(new ClaimPattern(staticClaim.pattern()))
-            case Failure(ex) =>
-              throw new IllegalArgumentException(s"Claim in $culprit has an invalid `pattern`.", ex)
-          }
-        case _ =>
-          throw new IllegalArgumentException(
-            s"Claim in $culprit must have a content at least for one: `value` or `pattern`.")
-      }
-      content.map(new StaticClaim(staticClaim.claim(), _))
-    }
-
+    val culprit = method.getOrElse(className).toString
     jwtAnnotation.map { ann =>
-      val spiStaticClaims = ann.staticClaims().flatMap(createStaticClaim)
+      // validated and compiled once, values referring to environment variables are resolved here
+      val spiStaticClaims =
+        ann.staticClaims().map(StaticClaimMatcher.fromAnnotation(_, culprit).toSpi)
       new RuntimeJWT(
         validate = ann.validate().contains(JwtMethodMode.BEARER_TOKEN),
         bearerTokenIssuers = ann.bearerTokenIssuers().toSeq,
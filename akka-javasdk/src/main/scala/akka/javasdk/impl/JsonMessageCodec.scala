@@ -16,6 +16,7 @@ import com.google.protobuf.BytesValue
 import com.google.protobuf.any.{ Any => ScalaPbAny }
 import com.google.protobuf.{ Any => JavaPbAny }
 import AnySupport.BytesPrimitive
+import akka.Done
 import akka.annotation.InternalApi
 import akka.javasdk.JsonSupport
 import akka.javasdk.annotations.Migration
@@ -34,6 +35,10 @@ private[javasdk] class JsonMessageCodec extends MessageCodec {
 
   override def toString: String = s"JsonMessageCodec: ${typeHints.keySet().size()} registered types"
 
+  // Done is the reply of most consumer and timed action handlers, no need to serialize it for every message
+  private lazy val encodedDone: ScalaPbAny =
+    ScalaPbAny.fromJavaProto(JsonSupport.encodeJson(Done, lookupTypeHintWithVersion(Done)))
+
   /**
    * In the Java SDK, output data are encoded to Json.
    */
@@ -42,6 +47,7 @@ private[javasdk] class JsonMessageCodec extends MessageCodec {
     value match {
       case javaPbAny: JavaPbAny   => ScalaPbAny.fromJavaProto(javaPbAny)
       case scalaPbAny: ScalaPbAny => scalaPbAny
+      case Done                   => encodedDone
       case bytes: Array[Byte]     => ScalaPbAny.fromJavaProto(JavaPbAny.pack(BytesValue.of(ByteString.copyFrom(bytes))))
       case other => ScalaPbAny.fromJavaProto(JsonSupport.encodeJson(other, lookupTypeHintWithVersion(other)))
     }
@@ -9,6 +9,7 @@ import java.nio.ByteBuffer
 import java.time.ZonedDateTime
 import java.time.format.DateTimeFormatter
 import java.util
+import java.util.Locale
 import java.util.Objects
 import java.util.Optional
 
@@ -30,19 +31,28 @@ import kalix.protocol.component.MetadataEntry
 
 /**
  * INTERNAL API
+ *
+ * Immutable, modifications share the entries with the metadata they were made from. Keys are looked up through an
+ * index of the lower-cased keys, built when first needed.
  */
 @InternalApi
-private[javasdk] class MetadataImpl private (val entries: Seq[MetadataEntry]) extends Metadata with CloudEvent {
+private[javasdk] class MetadataImpl private (val entries: Vector[MetadataEntry]) extends Metadata with CloudEvent {
 
-  override def has(key: String): Boolean = entries.exists(_.key.equalsIgnoreCase(key))
+  // entries by lower-cased key, in their original order
+  private lazy val index: Map[String, Vector[MetadataEntry]] =
+    entries.groupBy(entry => MetadataImpl.lowerCase(entry.key))
+
+  private def entriesFor(key: String): Vector[MetadataEntry] =
+    if (entries.isEmpty) Vector.empty else index.getOrElse(MetadataImpl.lowerCase(key), Vector.empty)
+
+  override def has(key: String): Boolean = entriesFor(key).nonEmpty
 
   override def get(key: String): Optional[String] =
     getScala(key).toJava
 
   private[akka] def getScala(key: String): Option[String] =
-    entries.collectFirst {
-      case MetadataEntry(k, MetadataEntry.Value.StringValue(value), _) if key.equalsIgnoreCase(k) =>
-        value
+    entriesFor(key).collectFirst { case MetadataEntry(_, MetadataEntry.Value.StringValue(value), _) =>
+      value
     }
 
   def withTracing(spanContext: SpanContext): Metadata = {
@@ -64,27 +74,24 @@ private[javasdk] class MetadataImpl private (val entries: Seq[MetadataEntry]) ex
     getAllScala(key).asJava
 
   private[akka] def getAllScala(key: String): Seq[String] =
-    entries.collect {
-      case MetadataEntry(k, MetadataEntry.Value.StringValue(value), _) if key.equalsIgnoreCase(k) =>
-        value
+    entriesFor(key).collect { case MetadataEntry(_, MetadataEntry.Value.StringValue(value), _) =>
+      value
     }
 
   override def getBinary(key: String): Optional[ByteBuffer] =
     getBinaryScala(key).toJava
 
   private[akka] def getBinaryScala(key: String): Option[ByteBuffer] =
-    entries.collectFirst {
-      case MetadataEntry(k, MetadataEntry.Value.BytesValue(value), _) if key.equalsIgnoreCase(k) =>
-        value.asReadOnlyByteBuffer()
+    entriesFor(key).collectFirst { case MetadataEntry(_, MetadataEntry.Value.BytesValue(value), _) =>
+      value.asReadOnlyByteBuffer()
     }
 
   override def getBinaryAll(key: String): util.List[ByteBuffer] =
     getBinaryAllScala(key).asJava
 
   private[akka] def getBinaryAllScala(key: String): Seq[ByteBuffer] =
-    entries.collect {
-      case MetadataEntry(k, MetadataEntry.Value.BytesValue(value), _) if key.equalsIgnoreCase(k) =>
-        value.asReadOnlyByteBuffer()
+    entriesFor(key).collect { case MetadataEntry(_, MetadataEntry.Value.BytesValue(value), _) =>
+      value.asReadOnlyByteBuffer()
     }
 
   override def getAllKeys: util.List[String] = getAllKeysScala.asJava
@@ -93,28 +100,29 @@ private[javasdk] class MetadataImpl private (val entries: Seq[MetadataEntry]) ex
   override def set(key: String, value: String): MetadataImpl = {
     Objects.requireNonNull(key, "Key must not be null")
     Objects.requireNonNull(value, "Value must not be null")
-    MetadataImpl.of(removeKey(key) :+ MetadataEntry(key, MetadataEntry.Value.StringValue(value)))
+    new MetadataImpl(removeKey(key) :+ MetadataImpl.entry(key, MetadataEntry.Value.StringValue(value)))
   }
 
   override def setBinary(key: String, value: ByteBuffer): MetadataImpl = {
     Objects.requireNonNull(key, "Key must not be null")
     Objects.requireNonNull(value, "Value must not be null")
-    MetadataImpl.of(removeKey(key) :+ MetadataEntry(key, MetadataEntry.Value.BytesValue(ByteString.copyFrom(value))))
+    new MetadataImpl(
+      removeKey(key) :+ MetadataImpl.entry(key, MetadataEntry.Value.BytesValue(ByteString.copyFrom(value))))
   }
 
   override def add(key: String, value: String): MetadataImpl = {
     Objects.requireNonNull(key, "Key must not be null")
     Objects.requireNonNull(value, "Value must not be null")
-    MetadataImpl.of(entries :+ MetadataEntry(key, MetadataEntry.Value.StringValue(value)))
+    new MetadataImpl(entries :+ MetadataImpl.entry(key, MetadataEntry.Value.StringValue(value)))
   }
 
   override def addBinary(key: String, value: ByteBuffer): MetadataImpl = {
     Objects.requireNonNull(key, "Key must not be null")
     Objects.requireNonNull(value, "Value must not be null")
-    MetadataImpl.of(entries :+ MetadataEntry(key, MetadataEntry.Value.BytesValue(ByteString.copyFrom(value))))
+    new MetadataImpl(entries :+ MetadataImpl.entry(key, MetadataEntry.Value.BytesValue(ByteString.copyFrom(value))))
   }
 
-  override def remove(key: String): MetadataImpl = MetadataImpl.of(removeKey(key))
+  override def remove(key: String): MetadataImpl = if (has(key)) new MetadataImpl(removeKey(key)) else this
 
   override def clear(): MetadataImpl = MetadataImpl.Empty
 
@@ -131,9 +139,16 @@ private[javasdk] class MetadataImpl private (val entries: Seq[MetadataEntry]) ex
         override def isBinary: Boolean = entry.value.isBytesValue
       }).asJava
 
-  private def removeKey(key: String) = entries.filterNot(_.key.equalsIgnoreCase(key))
+  // appending to the shared entries is cheap, only copy them when there is something to remove
+  private def removeKey(key: String): Vector[MetadataEntry] =
+    if (has(key)) {
+      val lowerCaseKey = MetadataImpl.lowerCase(key)
+      entries.filterNot(entry => MetadataImpl.lowerCase(entry.key) == lowerCaseKey)
+    } else entries
+
+  private lazy val cloudEvent = MetadataImpl.CeRequired.forall(h => has(h))
 
-  def isCloudEvent: Boolean = MetadataImpl.CeRequired.forall(h => has(h))
+  def isCloudEvent: Boolean = cloudEvent
 
   override def asCloudEvent(): MetadataImpl =
     if (!isCloudEvent) {
@@ -150,26 +165,29 @@ private[javasdk] class MetadataImpl private (val entries: Seq[MetadataEntry]) ex
         MetadataEntry(MetadataImpl.CeType, MetadataEntry.Value.StringValue(`type`))))
 
   private def getRequiredCloudEventField(key: String) =
-    entries
-      .collectFirst {
-        case MetadataEntry(k, MetadataEntry.Value.StringValue(value), _) if key.equalsIgnoreCase(k) =>
-          value
-      }
+    getScala(key)
       .getOrElse {
         throw new IllegalStateException(s"Metadata is not a CloudEvent because it does not have required field $key")
       }
 
-  override def specversion(): String = getRequiredCloudEventField(MetadataImpl.CeSpecversion)
+  // the required fields are read for each message handled as a CloudEvent, so they are only looked up once
+  private lazy val ceSpecversion = getRequiredCloudEventField(MetadataImpl.CeSpecversion)
+  private lazy val ceId = getRequiredCloudEventField(MetadataImpl.CeId)
+  private lazy val ceSource = URI.create(getRequiredCloudEventField(MetadataImpl.CeSource))
+  private lazy val ceType = getRequiredCloudEventField(MetadataImpl.CeType)
+  private lazy val ceTime = getScala(MetadataImpl.CeTime).map(ZonedDateTime.parse(_))
+
+  override def specversion(): String = ceSpecversion
 
-  override def id(): String = getRequiredCloudEventField(MetadataImpl.CeId)
+  override def id(): String = ceId
 
   override def withId(id: String): MetadataImpl = set(MetadataImpl.CeId, id)
 
-  override def source(): URI = URI.create(getRequiredCloudEventField(MetadataImpl.CeSource))
+  override def source(): URI = ceSource
 
   override def withSource(source: URI): MetadataImpl = set(MetadataImpl.CeSource, source.toString)
 
-  override def `type`(): String = getRequiredCloudEventField(MetadataImpl.CeType)
+  override def `type`(): String = ceType
 
   override def withType(`type`: String): MetadataImpl = set(MetadataImpl.CeType, `type`)
 
@@ -196,8 +214,7 @@ private[javasdk] class MetadataImpl private (val entries: Seq[MetadataEntry]) ex
   override def clearSubject(): MetadataImpl = remove(MetadataImpl.CeSubject)
 
   override def time(): Optional[ZonedDateTime] = timeScala.toJava
-  private[akka] def timeScala: Option[ZonedDateTime] =
-    getScala(MetadataImpl.CeTime).map(ZonedDateTime.parse(_))
+  private[akka] def timeScala: Option[ZonedDateTime] = ceTime
 
   override def withTime(time: ZonedDateTime): MetadataImpl =
     set(MetadataImpl.CeTime, DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(time))
@@ -220,7 +237,9 @@ private[javasdk] class MetadataImpl private (val entries: Seq[MetadataEntry]) ex
 
   override def merge(other: Metadata): Metadata = {
     val otherImpl = other.asInstanceOf[MetadataImpl]
-    MetadataImpl.of(entries ++ otherImpl.entries)
+    if (otherImpl.entries.isEmpty) this
+    else if (entries.isEmpty) otherImpl
+    else new MetadataImpl(entries ++ otherImpl.entries)
   }
 }
 
@@ -248,7 +267,9 @@ object MetadataImpl {
     (key, attr)
   }.toMap
 
-  val Empty = MetadataImpl.of(Vector.empty)
+  val Empty = new MetadataImpl(Vector.empty)
+
+  private def lowerCase(key: String): String = key.toLowerCase(Locale.ROOT)
 
   def toProtocol(metadata: Metadata): Option[component.Metadata] =
     metadata match {
@@ -259,18 +280,19 @@ object MetadataImpl {
         throw new RuntimeException(s"Unknown metadata implementation: ${other.getClass}, cannot send")
     }
 
-  def of(entries: Seq[MetadataEntry]): MetadataImpl = {
-    val transformedEntries =
-      entries.map { entry =>
-        // is incoming ce key in one of the alternative formats?
-        // if so, convert key to our internal default key format
+  // is the ce key in one of the alternative formats? if so, convert it to our internal default key format
+  private def entry(key: String, value: MetadataEntry.Value): MetadataEntry =
+    MetadataEntry(alternativeKeyFormats.getOrElse(key, key), value)
+
+  def of(entries: Seq[MetadataEntry]): MetadataImpl =
+    if (entries.isEmpty) Empty
+    else if (entries.exists(entry => alternativeKeyFormats.contains(entry.key)))
+      new MetadataImpl(entries.iterator.map { entry =>
         alternativeKeyFormats.get(entry.key) match {
           case Some(defaultKey) => MetadataEntry(defaultKey, entry.value)
           case _                => entry
         }
-      }
-
-    new MetadataImpl(transformedEntries)
-  }
+      }.toVector)
+    else new MetadataImpl(entries.toVector)
 
 }
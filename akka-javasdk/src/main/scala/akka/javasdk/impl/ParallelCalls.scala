@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+import scala.concurrent.Promise
+import scala.util.Failure
+import scala.util.Success
+import scala.util.control.NonFatal
+
+import akka.annotation.InternalApi
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[impl] object ParallelCalls {
+
+  final class NotEnoughSuccessfulCalls(required: Int, failures: Seq[Throwable])
+      extends RuntimeException(
+        s"Not enough successful calls, [$required] required but [${failures.size}] failed: " +
+        failures.map(_.getMessage).mkString("[", ", ", "]"))
+
+  /**
+   * Run `calls` with at most `maxConcurrency` of them in flight. Completes with the results of the first `required`
+   * successful calls, in the order of `calls`, or fails as soon as `required` successes are no longer possible. Calls
+   * that were not started yet when the outcome is known are never started.
+   */
+  def run[T](calls: Seq[() => Future[T]], maxConcurrency: Int, required: Int)(implicit
+      ec: ExecutionContext): Future[Seq[T]] = {
+    require(calls.nonEmpty, "calls must not be empty")
+    require(maxConcurrency > 0, s"maxConcurrency must be greater than 0, was [$maxConcurrency]")
+    require(required > 0 && required <= calls.size, s"required must be between 1 and ${calls.size}, was [$required]")
+
+    val result = Promise[Seq[T]]()
+    // guarded by result
+    var nextCall = 0
+    var successes = Map.empty[Int, T]
+    var failures = Vector.empty[Throwable]
+
+    def startNext(): Unit = {
+      val index = result.synchronized {
+        if (result.isCompleted || nextCall == calls.size) -1
+        else {
+          nextCall += 1
+          nextCall - 1
+        }
+      }
+      if (index >= 0) {
+        val call =
+          try calls(index)()
+          catch {
+            case NonFatal(ex) => Future.failed(ex)
+          }
+        call.onComplete { outcome =>
+          result.synchronized {
+            outcome match {
+              case Success(value) => successes = successes.updated(index, value)
+              case Failure(ex)    => failures :+= ex
+            }
+            if (!result.isCompleted) {
+              if (successes.size == required)
+                result.success(successes.toSeq.sortBy(_._1).map(_._2))
+              else if (calls.size - failures.size < required)
+                result.failure(new NotEnoughSuccessfulCalls(required, failures))
+            }
+          }
+          startNext()
+        }
+      }
+    }
+
+    (0 until math.min(maxConcurrency, calls.size)).foreach(_ => startNext())
+    result.future
+  }
+}
@@ -36,6 +36,8 @@ import akka.javasdk.impl.Validations.Valid
 import akka.javasdk.impl.Validations.Validation
 import akka.javasdk.impl.action.ActionsImpl
 import akka.javasdk.impl.client.ComponentClientImpl
+import akka.javasdk.impl.client.SingleFlight
+import akka.javasdk.impl.consumer.ConsumerMetricsEndpoint
 import akka.javasdk.impl.consumer.ConsumerService
 import akka.javasdk.impl.eventsourcedentity.EventSourcedEntitiesImpl
 import akka.javasdk.impl.eventsourcedentity.EventSourcedEntityService
@@ -62,6 +64,7 @@ import akka.javasdk.http.AbstractHttpEndpoint
 import akka.javasdk.Tracing
 import akka.javasdk.impl.http.JwtClaimsImpl
 import akka.javasdk.impl.telemetry.SpanTracingImpl
+import akka.javasdk.impl.telemetry.Telemetry
 import akka.javasdk.impl.telemetry.TraceInstrumentation
 import akka.runtime.sdk.spi.ComponentClients
 import akka.runtime.sdk.spi.HttpEndpointConstructionContext
@@ -362,7 +365,7 @@ private final class Sdk(
   // FIXME mixing runtime config with sdk with user project config is tricky
   def spiEndpoints: SpiComponents = {
 
-    var actionsEndpoint: Option[Actions] = None
+    var actionsEndpoint: Option[ActionsImpl] = None
     var eventSourcedEntitiesEndpoint: Option[EventSourcedEntities] = None
     var valueEntitiesEndpoint: Option[ValueEntities] = None
     var viewsEndpoint: Option[Views] = None
@@ -374,18 +377,34 @@ private final class Sdk(
       serviceDescriptor.getFullName -> service
     }
 
+    val componentDispatchers =
+      new ComponentDispatchers(classicSystem, sdkSettings, sdkDispatcherName, sdkExecutionContext)
+
+    // by service name, only for the components not running on the SDK dispatcher
+    def dispatchersOf(componentType: String, services: Map[String, Service]): Map[String, String] =
+      services.flatMap { case (serviceName, service) =>
+        componentDispatchers.dispatcherFor(componentType, service.componentId).map(serviceName -> _)
+      }
+
     val actionAndConsumerServices = services.filter { case (_, service) =>
       service.getClass == classOf[TimedActionService[_]] || service.getClass == classOf[ConsumerService[_]]
     }
 
     if (actionAndConsumerServices.nonEmpty) {
+      val componentExecutionContexts = actionAndConsumerServices.values.flatMap { service =>
+        val componentType =
+          if (service.isInstanceOf[ConsumerService[_]]) ComponentDispatchers.ConsumerType
+          else ComponentDispatchers.TimedActionType
+        componentDispatchers.executionContextFor(componentType, service.componentId).map(service.componentId -> _)
+      }.toMap
       actionsEndpoint = Some(
         new ActionsImpl(
           classicSystem,
           actionAndConsumerServices,
           runtimeComponentClients.timerClient,
           sdkExecutionContext,
-          sdkTracerFactory))
+          sdkTracerFactory,
+          componentExecutionContexts))
     }
 
     services.groupBy(_._2.getClass).foreach {
@@ -398,13 +417,20 @@ private final class Sdk(
             eventSourcedServices,
             sdkSettings,
             sdkDispatcherName,
-            sdkTracerFactory)
+            sdkTracerFactory,
+            dispatchersOf(ComponentDispatchers.EventSourcedEntityType, eventSourcedServices))
         eventSourcedEntitiesEndpoint = Some(eventSourcedImpl)
 
       case (serviceClass, entityServices: Map[String, KeyValueEntityService[_, _]] @unchecked)
           if serviceClass == classOf[KeyValueEntityService[_, _]] =>
         valueEntitiesEndpoint = Some(
-          new KeyValueEntitiesImpl(classicSystem, entityServices, sdkSettings, sdkDispatcherName, sdkTracerFactory))
+          new KeyValueEntitiesImpl(
+            classicSystem,
+            entityServices,
+            sdkSettings,
+            sdkDispatcherName,
+            sdkTracerFactory,
+            dispatchersOf(ComponentDispatchers.KeyValueEntityType, entityServices)))
 
       case (serviceClass, workflowServices: Map[String, WorkflowService[_, _]] @unchecked)
           if serviceClass == classOf[WorkflowService[_, _]] =>
@@ -414,7 +440,9 @@ private final class Sdk(
             runtimeComponentClients.timerClient,
             sdkExecutionContext,
             sdkDispatcherName,
-            sdkTracerFactory))
+            sdkTracerFactory,
+            dispatchersOf(ComponentDispatchers.WorkflowType, workflowServices),
+            sdkSettings.workflowStoreStepTransitions))
 
       case (serviceClass, _: Map[String, TimedActionService[_]] @unchecked)
           if serviceClass == classOf[TimedActionService[_]] =>
@@ -426,12 +454,19 @@ private final class Sdk(
 
       case (serviceClass, viewServices: Map[String, ViewService[_]] @unchecked)
           if serviceClass == classOf[ViewService[_]] =>
-        viewsEndpoint = Some(new ViewsImpl(viewServices, sdkDispatcherName))
+        val viewExecutionContexts = viewServices.flatMap { case (serviceName, service) =>
+          componentDispatchers
+            .executionContextFor(ComponentDispatchers.ViewType, service.componentId)
+            .map(serviceName -> _)
+        }
+        viewsEndpoint = Some(new ViewsImpl(viewServices, sdkDispatcherName, viewExecutionContexts))
 
       case (serviceClass, _) =>
         sys.error(s"Unknown service type: $serviceClass")
     }
 
+    componentDispatchers.registerSaturationMetrics(Telemetry.meter)
+
     val serviceSetup: Option[ServiceSetup] = maybeServiceClass match {
       case Some(serviceClassClass) if classOf[ServiceSetup].isAssignableFrom(serviceClassClass) =>
         // FIXME: HttpClientProvider will inject but not quite work for cross service calls until we
@@ -442,6 +477,13 @@ private final class Sdk(
       case _ => None
     }
 
+    val consumerMetricsEndpoint =
+      for {
+        path <- sdkSettings.consumerMetricsEndpointPath
+        actions <- actionsEndpoint
+        if actions.consumerMetrics.nonEmpty
+      } yield ConsumerMetricsEndpoint.descriptor(path, actions.consumerMetrics.values.toSeq)
+
     val devModeServiceName = sdkSettings.devModeSettings.map(_.serviceName)
     val discoveryEndpoint =
       new DiscoveryImpl(
@@ -488,7 +530,7 @@ private final class Sdk(
       override def views: Option[Views] = viewsEndpoint
       override def workflowEntities: Option[WorkflowEntities] = workflowEntitiesEndpoint
       override def replicatedEntities: Option[ReplicatedEntities] = None
-      override def httpEndpointDescriptors: Seq[HttpEndpointDescriptor] = httpEndpoints
+      override def httpEndpointDescriptors: Seq[HttpEndpointDescriptor] = httpEndpoints ++ consumerMetricsEndpoint
     }
   }
 
@@ -524,6 +566,10 @@ private final class Sdk(
               List(asyncCallStep.callInputClass, asyncCallStep.transitionInputClass)
             case callStep: Workflow.CallStep[_, _, _, _] =>
               List(callStep.callInputClass, callStep.transitionInputClass)
+            case blockingCallStep: Workflow.BlockingCallStep[_, _, _] =>
+              List(blockingCallStep.callInputClass, blockingCallStep.transitionInputClass)
+            case parallelCallStep: Workflow.ParallelCallStep[_, _, _] =>
+              List(parallelCallStep.callInputClass, parallelCallStep.transitionInputClass)
           }
           .foreach(messageCodec.registerTypeHints)
 
@@ -560,22 +606,11 @@ private final class Sdk(
       wiredInstance(_)(PartialFunction.empty))
 
   private def httpEndpointFactory[E](httpEndpointClass: Class[E]): HttpEndpointConstructionContext => E = {
+    // looked up once rather than per request, the reflective lookup copies the constructors
+    val constructor = singleConstructor(httpEndpointClass)
     (context: HttpEndpointConstructionContext) =>
-      lazy val requestContext = new RequestContext {
-        override def getPrincipals: Principals =
-          PrincipalsImpl(context.principal.source, context.principal.service)
-
-        override def getJwtClaims: JwtClaims =
-          context.jwt match {
-            case Some(jwtClaims) => new JwtClaimsImpl(jwtClaims)
-            case None =>
-              throw new RuntimeException(
-                "There are no JWT claims defined but trying accessing the JWT claims. The class or the method needs to be annotated with @JWT.")
-          }
-
-        override def tracing(): Tracing = new SpanTracingImpl(context.openTelemetrySpan, sdkTracerFactory)
-      }
-      val instance = wiredInstance(httpEndpointClass) {
+      lazy val requestContext = newRequestContext(context)
+      val instance = wiredInstance(constructor) {
         sideEffectingComponentInjects(context.openTelemetrySpan).orElse {
           case p if p == classOf[RequestContext] => requestContext
         }
@@ -587,10 +622,33 @@ private final class Sdk(
       instance
   }
 
-  private def wiredInstance[T](clz: Class[T])(partial: PartialFunction[Class[_], Any]): T = {
+  private def newRequestContext(context: HttpEndpointConstructionContext): RequestContext =
+    new RequestContext {
+      override def getPrincipals: Principals =
+        PrincipalsImpl(context.principal.source, context.principal.service)
+
+      // created once per request, so that claims read by several calls are only parsed once
+      private lazy val jwtClaims = context.jwt.map(new JwtClaimsImpl(_))
+
+      override def getJwtClaims: JwtClaims =
+        jwtClaims match {
+          case Some(claims) => claims
+          case None =>
+            throw new RuntimeException(
+              "There are no JWT claims defined but trying accessing the JWT claims. The class or the method needs to be annotated with @JWT.")
+        }
+
+      override def tracing(): Tracing = new SpanTracingImpl(context.openTelemetrySpan, sdkTracerFactory)
+    }
+
+  private def wiredInstance[T](clz: Class[T])(partial: PartialFunction[Class[_], Any]): T =
+    wiredInstance(singleConstructor(clz))(partial)
+
+  private def singleConstructor[T](clz: Class[T]): Constructor[T] = {
     // only one constructor allowed
-    require(clz.getDeclaredConstructors.length == 1, s"Class [${clz.getSimpleName}] must have only one constructor.")
-    wiredInstance(clz.getDeclaredConstructors.head.asInstanceOf[Constructor[T]])(partial)
+    val constructors = clz.getDeclaredConstructors
+    require(constructors.length == 1, s"Class [${clz.getSimpleName}] must have only one constructor.")
+    constructors.head.asInstanceOf[Constructor[T]]
   }
 
   /**
@@ -649,8 +707,10 @@ private final class Sdk(
     anyOther == classOf[KeyValueEntityContext]
   }
 
+  private val componentReadCoalescing = Option.when(sdkSettings.coalesceComponentReads)(new SingleFlight)
+
   private def componentClient(openTelemetrySpan: Option[Span]): ComponentClient = {
-    ComponentClientImpl(runtimeComponentClients, openTelemetrySpan)(sdkExecutionContext)
+    ComponentClientImpl(runtimeComponentClients, openTelemetrySpan, componentReadCoalescing)(sdkExecutionContext)
   }
 
   private def timerScheduler(openTelemetrySpan: Option[Span]): TimerScheduler = {
@@ -6,9 +6,14 @@ package akka.javasdk.impl
 
 import java.time.Duration
 
+import scala.jdk.CollectionConverters._
+
 import akka.annotation.InternalApi
 import Settings.DevModeSettings
+import akka.javasdk.impl.http.HttpClientImpl
 import com.typesafe.config.Config
+import com.typesafe.config.ConfigObject
+import com.typesafe.config.ConfigUtil
 
 /**
  * INTERNAL API
@@ -21,12 +26,38 @@ private[impl] object Settings {
       snapshotEvery = sdkConfig.getInt("event-sourced-entity.snapshot-every"),
       cleanupDeletedEventSourcedEntityAfter = sdkConfig.getDuration("event-sourced-entity.cleanup-deleted-after"),
       cleanupDeletedKeyValueEntityAfter = sdkConfig.getDuration("key-value-entity.cleanup-deleted-after"),
+      workflowStoreStepTransitions = sdkConfig.getBoolean("workflow.store-step-transitions"),
+      consumerMetricsEndpointPath = Option.when(sdkConfig.getBoolean("consumer.metrics-endpoint.enabled"))(
+        sdkConfig.getString("consumer.metrics-endpoint.path")),
+      coalesceComponentReads = sdkConfig.getBoolean("component-client.coalesce-reads"),
+      httpClientDiscoveryCacheTtl = sdkConfig.getDuration("http-client.discovery-cache-ttl"),
+      httpClientConnectionPools = sdkConfig.getConfig("http-client.connection-pool").root().asScala.collect {
+        case (target, pool: ConfigObject) => target -> pool.toConfig
+      }.toMap,
+      httpClientMaxResponseSize = sdkConfig.getBytes("http-client.max-response-size"),
+      httpClientMaxResponseSizes = {
+        val perTarget = sdkConfig.getConfig("http-client.max-response-size-per-target")
+        perTarget.root().keySet().asScala.map { target =>
+          target -> perTarget.getBytes(ConfigUtil.joinPath(target)).toLong
+        }
+      }.toMap,
+      httpClientMaxStreamedResponseSize =
+        HttpClientImpl.SizeLimits.bytesOrInfinite(sdkConfig, "http-client.max-streamed-response-size"),
+      httpClientMaxRequestSize = sdkConfig.getBytes("http-client.max-request-size"),
+      componentTypeDispatchers = dispatchers(sdkConfig.getConfig("dispatchers.component-type")),
+      componentDispatchers = dispatchers(sdkConfig.getConfig("dispatchers.component")),
       devModeSettings = Option.when(sdkConfig.getBoolean("dev-mode.enabled"))(
         DevModeSettings(
           serviceName = sdkConfig.getString("dev-mode.service-name"),
           httpPort = sdkConfig.getInt("dev-mode.http-port"))))
   }
 
+  // by component type or id, a component id containing dots must be quoted, empty values mean the SDK dispatcher
+  private def dispatchers(config: Config): Map[String, String] =
+    config.root().asScala.collect {
+      case (key, value) if value.unwrapped().toString.nonEmpty => key -> value.unwrapped().toString
+    }.toMap
+
   final case class DevModeSettings(serviceName: String, httpPort: Int)
 }
 
@@ -38,4 +69,15 @@ private[impl] final case class Settings(
     snapshotEvery: Int,
     cleanupDeletedEventSourcedEntityAfter: Duration,
     cleanupDeletedKeyValueEntityAfter: Duration,
+    workflowStoreStepTransitions: Boolean,
+    consumerMetricsEndpointPath: Option[String],
+    coalesceComponentReads: Boolean,
+    httpClientDiscoveryCacheTtl: Duration,
+    httpClientConnectionPools: Map[String, Config],
+    httpClientMaxResponseSize: Long,
+    httpClientMaxResponseSizes: Map[String, Long],
+    httpClientMaxStreamedResponseSize: Long,
+    httpClientMaxRequestSize: Long,
+    componentTypeDispatchers: Map[String, String],
+    componentDispatchers: Map[String, String],
     devModeSettings: Option[DevModeSettings])
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl
+
+import java.util.Optional
+import java.util.regex.Matcher
+import java.util.regex.Pattern
+import java.util.regex.PatternSyntaxException
+
+import scala.collection.immutable.ListSet
+import scala.jdk.CollectionConverters._
+
+import akka.annotation.InternalApi
+import akka.javasdk.JwtClaims
+import akka.javasdk.annotations.JWT
+import akka.runtime.sdk.spi.ClaimPattern
+import akka.runtime.sdk.spi.ClaimValues
+import akka.runtime.sdk.spi.StaticClaim
+
+/**
+ * INTERNAL API
+ *
+ * A static claim rule, validated and compiled once, that can be evaluated against the claims of each request.
+ */
+@InternalApi
+private[akka] sealed abstract class StaticClaimMatcher {
+  def claim: String
+
+  /** Matches a claim value, for claims with an array value each of the elements of the array. */
+  protected def matchesValues(claimValues: Iterable[String]): Boolean
+
+  final def matches(claims: JwtClaims): Boolean = {
+    val value = claims.getString(claim)
+    value.isPresent && {
+      // array claims are parsed at most once per request by the claims, a value that only looks like an array but is
+      // not a JSON array of strings is matched as a single value
+      val elements =
+        if (value.get.startsWith("[")) claims.getStringList(claim).map[Iterable[String]](_.asScala)
+        else Optional.empty[Iterable[String]]()
+      matchesValues(elements.orElse(value.get :: Nil))
+    }
+  }
+
+  def toSpi: StaticClaim
+}
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[akka] object StaticClaimMatcher {
+
+  private val EnvVarPattern = Pattern.compile("""\$\{([A-Z_][A-Z0-9_]*)\}""")
+
+  /**
+   * All the values are required, a single valued claim can only have one of them. The values are kept in the declared
+   * order for the runtime, and hashed for matching.
+   */
+  final case class ClaimValuesMatcher(claim: String, values: Seq[String]) extends StaticClaimMatcher {
+    private val valueSet = values.toSet
+
+    override protected def matchesValues(claimValues: Iterable[String]): Boolean =
+      if (valueSet.size == 1) claimValues.exists(valueSet.contains)
+      else valueSet.subsetOf(claimValues.toSet)
+
+    override def toSpi: StaticClaim = new StaticClaim(claim, new ClaimValues(ListSet.from(values)))
+  }
+
+  /** The pattern is found in the claim value, or in any of the elements of an array claim. */
+  final case class ClaimPatternMatcher(claim: String, pattern: Pattern) extends StaticClaimMatcher {
+    override protected def matchesValues(claimValues: Iterable[String]): Boolean =
+      claimValues.exists(pattern.matcher(_).find())
+
+    override def toSpi: StaticClaim = new StaticClaim(claim, new ClaimPattern(pattern.pattern))
+
+    // patterns do not implement equality
+    override def equals(other: Any): Boolean = other match {
+      case that: ClaimPatternMatcher => claim == that.claim && pattern.pattern == that.pattern.pattern
+      case _                         => false
+    }
+
+    override def hashCode(): Int = (claim, pattern.pattern).hashCode()
+  }
+
+  def values(claim: String, values: java.lang.Iterable[String]): StaticClaimMatcher = {
+    val valueSeq = values.asScala.toSeq
+    if (valueSeq.isEmpty) throw new IllegalArgumentException(s"Claim [$claim] must have at least one value.")
+    ClaimValuesMatcher(claim, valueSeq)
+  }
+
+  def pattern(claim: String, regex: String): StaticClaimMatcher =
+    try ClaimPatternMatcher(claim, Pattern.compile(regex))
+    catch {
+      case ex: PatternSyntaxException =>
+        throw new IllegalArgumentException(s"Claim [$claim] has an invalid pattern [$regex].", ex)
+    }
+
+  /** Validates the annotation and compiles its pattern, values referring to environment variables are resolved. */
+  def fromAnnotation(staticClaim: JWT.StaticClaim, culprit: String): StaticClaimMatcher =
+    (staticClaim.values(), staticClaim.pattern) match {
+      case (values, pattern) if values.nonEmpty && pattern.nonEmpty =>
+        throw new IllegalArgumentException(
+          s"Claim in $culprit must have a content at most for one: `value` or `pattern`. This claim has both.")
+      case (values, _) if values.nonEmpty =>
+        ClaimValuesMatcher(staticClaim.claim(), values.toSeq.map(extractEnvVars(_, culprit)))
+      case (_, pattern) if pattern.nonEmpty =>
+        try ClaimPatternMatcher(staticClaim.claim(), Pattern.compile(pattern))
+        catch {
+          case ex: PatternSyntaxException =>
+            throw new IllegalArgumentException(s"Claim in $culprit has an invalid `pattern`.", ex)
+        }
+      case _ =>
+        throw new IllegalArgumentException(
+          s"Claim in $culprit must have a content at least for one: `value` or `pattern`.")
+    }
+
+  def extractEnvVars(claimValueContent: String, claimRef: String): String =
+    if (!claimValueContent.contains("${")) claimValueContent
+    else {
+      val matcher = EnvVarPattern.matcher(claimValueContent)
+      matcher.replaceAll { matched =>
+        val varName = matched.group(1)
+        sys.env.get(varName) match {
+          case Some(varValue) => Matcher.quoteReplacement(varValue)
+          case None =>
+            throw new IllegalArgumentException(
+              s"[$varName] env var is missing but it is used in claim [$claimValueContent] in [$claimRef].")
+        }
+      }
+    }
+}
@@ -16,7 +16,10 @@ import akka.javasdk.annotations.Query
 import akka.javasdk.annotations.Table
 import akka.javasdk.consumer.Consumer
 import akka.javasdk.eventsourcedentity.EventSourcedEntity
+import akka.javasdk.impl.ComponentDescriptorFactory.batchSubscription
+import akka.javasdk.impl.ComponentDescriptorFactory.blockingMaxConcurrency
 import akka.javasdk.impl.ComponentDescriptorFactory.eventSourcedEntitySubscription
+import akka.javasdk.impl.ComponentDescriptorFactory.findParallelism
 import akka.javasdk.impl.ComponentDescriptorFactory.hasAcl
 import akka.javasdk.impl.ComponentDescriptorFactory.hasConsumerOutput
 import akka.javasdk.impl.ComponentDescriptorFactory.hasESEffectOutput
@@ -24,6 +27,7 @@ import akka.javasdk.impl.ComponentDescriptorFactory.hasEventSourcedEntitySubscri
 import akka.javasdk.impl.ComponentDescriptorFactory.hasHandleDeletes
 import akka.javasdk.impl.ComponentDescriptorFactory.hasKVEEffectOutput
 import akka.javasdk.impl.ComponentDescriptorFactory.hasQueryEffectOutput
+import akka.javasdk.impl.ComponentDescriptorFactory.hasSharedInstance
 import akka.javasdk.impl.ComponentDescriptorFactory.hasStreamSubscription
 import akka.javasdk.impl.ComponentDescriptorFactory.hasSubscription
 import akka.javasdk.impl.ComponentDescriptorFactory.hasTimedActionEffectOutput
@@ -118,6 +122,8 @@ private[javasdk] object Validations {
 
   def validate(component: Class[_]): Validation =
     componentMustBePublic(component) ++
+    sharedInstanceOnlyOnStatelessComponents(component) ++
+    blockingOnlyOnSupportedComponents(component) ++
     validateTimedAction(component) ++
     validateConsumer(component) ++
     validateView(component) ++
@@ -181,6 +187,22 @@ private[javasdk] object Validations {
     }
   }
 
+  private def sharedInstanceOnlyOnStatelessComponents(component: Class[_]): Validation = {
+    when(hasSharedInstance(component) && !Reflect.isConsumer(component) && !Reflect.isAction(component)) {
+      Invalid(errorMessage(component, "@SharedInstance can only be used on a Consumer or a TimedAction."))
+    }
+  }
+
+  private def blockingOnlyOnSupportedComponents(component: Class[_]): Validation =
+    blockingMaxConcurrency(component) match {
+      case Some(_)
+          if !Reflect.isConsumer(component) && !Reflect.isAction(component) && !Reflect.isWorkflow(component) =>
+        Invalid(errorMessage(component, "@Blocking can only be used on a Consumer, a TimedAction or a Workflow."))
+      case Some(maxConcurrency) if maxConcurrency <= 0 =>
+        Invalid(errorMessage(component, s"@Blocking maxConcurrency must be greater than 0, was [$maxConcurrency]."))
+      case _ => Valid
+    }
+
   private def componentMustBePublic(component: Class[_]): Validation = {
     if (component.isPublic) {
       Valid
@@ -204,6 +226,8 @@ private[javasdk] object Validations {
     when[Consumer](component) {
       hasConsumeAnnotation(component, "Consumer") ++
       commonSubscriptionValidation(component, hasConsumerOutput) ++
+      consumerParallelismMustNotBeNegative(component) ++
+      batchConsumerValidations(component) ++
       actionValidation(component) ++
       mustHaveValidComponentId(component)
     }
@@ -215,6 +239,42 @@ private[javasdk] object Validations {
     }
   }
 
+  private def consumerParallelismMustNotBeNegative(component: Class[_]): Validation = {
+    when(findParallelism(component) < 0) {
+      Invalid(errorMessage(component, "The `parallelism` of a `@Consume` annotation must not be negative."))
+    }
+  }
+
+  private def batchConsumerValidations(component: Class[_]): Validation = {
+    val handlers = component.getMethods.toIndexedSeq.filter(hasConsumerOutput)
+    val batchHandlers = handlers.filter(Reflect.isBatchHandler)
+
+    batchSubscription(component) match {
+      case Some(batch) =>
+        when(handlers.size != 1 || batchHandlers.size != 1) {
+          Invalid(
+            errorMessage(
+              component,
+              "A Consumer annotated with @Consume.Batch must have exactly one handler method, accepting a java.util.List of MessageEnvelope."))
+        } ++
+        when(batch.maxSize() < 1 || batch.maxWaitMillis() < 1) {
+          Invalid(errorMessage(component, "The `maxSize` and `maxWaitMillis` of @Consume.Batch must be greater than 0."))
+        } ++
+        when(hasTopicPublication(component) || component.hasAnnotation[ServiceStream]) {
+          Invalid(errorMessage(component, "A Consumer annotated with @Consume.Batch cannot produce messages."))
+        } ++
+        when(findParallelism(component) > 0) {
+          Invalid(errorMessage(component, "A Consumer annotated with @Consume.Batch cannot define a `parallelism`."))
+        }
+      case None =>
+        Validation(batchHandlers.map { method =>
+          errorMessage(
+            method,
+            "A handler accepting a list of messages requires the Consumer to be annotated with @Consume.Batch.")
+        })
+    }
+  }
+
   private def actionValidation(component: Class[_]): Validation = {
     // Nothing here right now
     Valid
@@ -422,7 +482,7 @@ private[javasdk] object Validations {
         if (!classLevel.ignoreUnknown() && eventType.isSealed) {
           val effectMethodsInputParams: Seq[Class[_]] = methods
             .filter(updateMethodPredicate)
-            .map(_.getParameterTypes.last) //last because it could be a view update methods with 2 params
+            .map(Reflect.subscriptionInputType)
           missingEventHandler(effectMethodsInputParams, eventType, component)
         } else {
           Valid
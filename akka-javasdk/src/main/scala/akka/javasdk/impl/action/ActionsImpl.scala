@@ -7,6 +7,7 @@ package akka.javasdk.impl.action
 import akka.Done
 import akka.NotUsed
 import akka.actor.ActorSystem
+import akka.actor.CoordinatedShutdown
 import akka.annotation.InternalApi
 import akka.javasdk.Metadata
 import akka.javasdk.Tracing
@@ -14,13 +15,17 @@ import akka.javasdk.consumer.Consumer
 import akka.javasdk.consumer.MessageContext
 import akka.javasdk.consumer.MessageEnvelope
 import akka.javasdk.impl.AbstractContext
+import akka.javasdk.impl.BlockingCalls
 import akka.javasdk.impl.ErrorHandling
 import akka.javasdk.impl.ErrorHandling.BadRequestException
 import akka.javasdk.impl.MessageCodec
 import akka.javasdk.impl.MetadataImpl
 import akka.javasdk.impl.Service
+import akka.javasdk.impl.consumer.ConsumerMetrics
 import akka.javasdk.impl.consumer.ConsumerService
+import akka.javasdk.impl.consumer.MessageBatcher
 import akka.javasdk.impl.consumer.MessageContextImpl
+import akka.javasdk.impl.consumer.SubjectPartitionedDispatcher
 import akka.javasdk.impl.telemetry.ActionCategory
 import akka.javasdk.impl.telemetry.ConsumerCategory
 import akka.javasdk.impl.telemetry.Telemetry
@@ -35,6 +40,9 @@ import akka.javasdk.timer.TimerScheduler
 import akka.runtime.sdk.spi.TimerClient
 import akka.stream.scaladsl.Source
 import io.grpc.Status
+import io.opentelemetry.api.common.AttributeKey
+import io.opentelemetry.api.common.Attributes
+import io.opentelemetry.api.metrics.ObservableLongGauge
 import io.opentelemetry.api.trace.Span
 import io.opentelemetry.api.trace.Tracer
 import kalix.protocol.action.ActionCommand
@@ -45,8 +53,14 @@ import kalix.protocol.component.Failure
 import kalix.protocol.component.MetadataEntry
 import org.slf4j.MDC
 
+import java.time.Instant
+import java.time.ZonedDateTime
+
 import scala.concurrent.ExecutionContext
 import scala.concurrent.Future
+import scala.concurrent.duration._
+import scala.util.Success
+import scala.util.Try
 import scala.util.control.NonFatal
 
 /**
@@ -55,6 +69,12 @@ import scala.util.control.NonFatal
 @InternalApi
 private[javasdk] object ActionsImpl {
 
+  // alternative subject key used by the Kafka cloud event binding
+  private val KafkaCeSubject = "ce_subject"
+
+  private val ComponentIdAttribute = AttributeKey.stringKey("component.id")
+  private val PartitionAttribute = AttributeKey.longKey("partition")
+
   private def handleUnexpectedException(
       service: TimedActionService[_],
       command: ActionCommand,
@@ -97,7 +117,8 @@ private[akka] final class ActionsImpl(
     services: Map[String, Service],
     timerClient: TimerClient,
     sdkExecutionContext: ExecutionContext,
-    tracerFactory: () => Tracer)
+    tracerFactory: () => Tracer,
+    componentExecutionContexts: Map[String, ExecutionContext] = Map.empty)
     extends Actions {
 
   import ActionsImpl._
@@ -113,6 +134,54 @@ private[akka] final class ActionsImpl(
         (s.componentId, new TraceInstrumentation(s.componentId, ConsumerCategory, tracerFactory))
     }.toMap
 
+  private[impl] val consumerMetrics: Map[String, ConsumerMetrics] =
+    services.values.collect { case s: ConsumerService[_] =>
+      (s.componentId, new ConsumerMetrics(s.componentId, Telemetry.meter))
+    }.toMap
+
+  private val subjectDispatchers: Map[String, SubjectPartitionedDispatcher] =
+    services.values.collect {
+      case s: ConsumerService[_] if s.parallelism > 0 =>
+        (s.componentId, new SubjectPartitionedDispatcher(s.parallelism))
+    }.toMap
+
+  if (subjectDispatchers.nonEmpty) registerQueueDepthGauge()
+
+  // one gauge for all partitioned consumers, closed on shutdown so that its callback is not kept registered
+  private def registerQueueDepthGauge(): Unit = {
+    val gauge: ObservableLongGauge = Telemetry.meter
+      .gaugeBuilder("akka.javasdk.consumer.partition.queue_depth")
+      .setDescription("Number of messages waiting for or being handled in a consumer partition")
+      .ofLongs()
+      .buildWithCallback { measurement =>
+        subjectDispatchers.foreach { case (componentId, dispatcher) =>
+          (0 until dispatcher.parallelism).foreach { partition =>
+            measurement.record(
+              dispatcher.queueDepth(partition),
+              Attributes.of(ComponentIdAttribute, componentId, PartitionAttribute, java.lang.Long.valueOf(partition)))
+          }
+        }
+      }
+    CoordinatedShutdown(system).addTask(CoordinatedShutdown.PhaseServiceStop, "close-consumer-queue-depth-gauge") {
+      () =>
+        gauge.close()
+        Future.successful(Done)
+    }
+  }
+
+  // messages are batched with the time they were received
+  private val batchers: Map[String, MessageBatcher[(ActionCommand, Long), ActionResponse]] =
+    services.values.collect {
+      case s: ConsumerService[_] if s.batch.isDefined =>
+        val batch = s.batch.get
+        val batcher =
+          new MessageBatcher[(ActionCommand, Long), ActionResponse](
+            batch.maxSize(),
+            batch.maxWaitMillis().millis,
+            system.scheduler)(handleConsumerBatch(s, _))
+        (s.componentId, batcher)
+    }.toMap
+
   private def effectToResponse(
       service: TimedActionService[_],
       command: ActionCommand,
@@ -141,20 +210,28 @@ private[akka] final class ActionsImpl(
       service: ConsumerService[_],
       command: ActionCommand,
       effect: Consumer.Effect,
-      messageCodec: MessageCodec): Future[ActionResponse] = {
+      messageCodec: MessageCodec,
+      metrics: ConsumerMetrics,
+      messages: Int): Future[ActionResponse] = {
     import akka.javasdk.impl.consumer.ConsumerEffectImpl._
     effect match {
       case ReplyEffect(message, metadata) =>
+        metrics.handled(if (message == Done) ConsumerMetrics.Done else ConsumerMetrics.Produced, messages)
         val response =
           component.Reply(Some(messageCodec.encodeScala(message)), metadata.flatMap(MetadataImpl.toProtocol))
         Future.successful(ActionResponse(ActionResponse.Response.Reply(response)))
       case AsyncEffect(futureEffect) =>
+        val asyncStart = System.nanoTime()
         futureEffect
-          .flatMap { effect => consumerEffectToResponse(service, command, effect, messageCodec) }
+          .flatMap { effect =>
+            metrics.asyncCompleted(asyncStart)
+            consumerEffectToResponse(service, command, effect, messageCodec, metrics, messages)
+          }
           .recover { case NonFatal(ex) =>
             handleUnexpectedExceptionInConsumer(service, command, ex)
           }
       case IgnoreEffect =>
+        metrics.handled(ConsumerMetrics.Ignored, messages)
         Future.successful(ActionResponse(ActionResponse.Response.Empty))
       case unknown =>
         throw new IllegalArgumentException(s"Unknown Action.Effect type ${unknown.getClass}")
@@ -171,8 +248,8 @@ private[akka] final class ActionsImpl(
       case Some(service: TimedActionService[_]) =>
         val span = telemetries(service.componentId).buildSpan(service, in)
 
-        span.foreach(s => MDC.put(Telemetry.TRACE_ID, s.getSpanContext.getTraceId))
-        val fut =
+        def handle(): Future[ActionResponse] = {
+          span.foreach(s => MDC.put(Telemetry.TRACE_ID, s.getSpanContext.getTraceId))
           try {
             val messageContext =
               createMessageContext(in, service.messageCodec, span, service.componentId)
@@ -190,40 +267,143 @@ private[akka] final class ActionsImpl(
           } finally {
             MDC.remove(Telemetry.TRACE_ID)
           }
+        }
+        val fut = runHandler(service.componentId, service.blockingCalls)(handle())
         fut.andThen { case _ =>
           span.foreach(_.end())
         }
 
       case Some(service: ConsumerService[_]) =>
-        val span = telemetries(service.componentId).buildSpan(service, in)
-
-        span.foreach(s => MDC.put(Telemetry.TRACE_ID, s.getSpanContext.getTraceId))
-        val fut =
-          try {
-            val messageContext =
-              createConsumerMessageContext(in, service.messageCodec, span, service.componentId)
-            val decodedPayload = service.messageCodec.decodeMessage(
-              in.payload.getOrElse(throw new IllegalArgumentException("No command payload")))
-            val effect = service
-              .createRouter()
-              .handleUnary(in.name, MessageEnvelope.of(decodedPayload, messageContext.metadata()), messageContext)
-            consumerEffectToResponse(service, in, effect, service.messageCodec)
-          } catch {
-            case NonFatal(ex) =>
-              // command handler threw an "unexpected" error
-              span.foreach(_.end())
-              Future.successful(handleUnexpectedExceptionInConsumer(service, in, ex))
-          } finally {
-            MDC.remove(Telemetry.TRACE_ID)
-          }
-        fut.andThen { case _ =>
-          span.foreach(_.end())
-        }
+        handleConsumerCommand(service, in)
       case _ =>
         Future.successful(
           ActionResponse(ActionResponse.Response.Failure(Failure(0, "Unknown service: " + in.serviceName))))
     }
 
+  private def handleConsumerCommand(service: ConsumerService[_], in: ActionCommand): Future[ActionResponse] = {
+    // received on arrival, the wait for a batch or a partition until the handler starts is recorded as queue time
+    val received = System.nanoTime()
+    consumerMetrics(service.componentId).received(eventTimeOf(in))
+    batchers.get(service.componentId) match {
+      case Some(batcher) => batcher.add(in -> received)
+      case None =>
+        subjectDispatchers.get(service.componentId) match {
+          case Some(dispatcher) =>
+            dispatcher.dispatch(subjectOf(in))(() => handleConsumerMessage(service, in, received))
+          case None => handleConsumerMessage(service, in, received)
+        }
+    }
+  }
+
+  private def handleConsumerMessage(
+      service: ConsumerService[_],
+      in: ActionCommand,
+      received: Long): Future[ActionResponse] = {
+    val metrics = consumerMetrics(service.componentId)
+    val span = telemetries(service.componentId).buildSpan(service, in)
+
+    def handle(): Future[ActionResponse] = {
+      span.foreach(s => MDC.put(Telemetry.TRACE_ID, s.getSpanContext.getTraceId))
+      try {
+        val messageContext =
+          createConsumerMessageContext(in, service.messageCodec, span, service.componentId)
+        val decodedPayload = service.messageCodec.decodeMessage(
+          in.payload.getOrElse(throw new IllegalArgumentException("No command payload")))
+        val effect = service
+          .createRouter()
+          .handleUnary(in.name, MessageEnvelope.of(decodedPayload, messageContext.metadata()), messageContext)
+        consumerEffectToResponse(service, in, effect, service.messageCodec, metrics, messages = 1)
+      } catch {
+        case NonFatal(ex) =>
+          // command handler threw an "unexpected" error
+          span.foreach(_.end())
+          Future.successful(handleUnexpectedExceptionInConsumer(service, in, ex) )
+      } finally {
+        MDC.remove(Telemetry.TRACE_ID)
+      }
+    }
+    val fut = runHandler(service.componentId, service.blockingCalls)(timeHandler(metrics, received :: Nil)(handle()))
+    fut.andThen { case result =>
+      span.foreach(_.end())
+      recordCompletion(metrics, result, messages = 1)
+    }
+  }
+
+  private def handleConsumerBatch(
+      service: ConsumerService[_],
+      receivedBatch: Seq[(ActionCommand, Long)]): Future[ActionResponse] = {
+    val metrics = consumerMetrics(service.componentId)
+    val batch = receivedBatch.map(_._1)
+    val spans = batch.map(in => telemetries(service.componentId).buildSpan(service, in))
+    val lastMessage = batch.last
+
+    def handle(): Future[ActionResponse] =
+      try {
+        val messages = batch.zip(spans).map { case (in, span) =>
+          val metadata = MetadataImpl.of(in.metadata.map(_.entries.toVector).getOrElse(Nil))
+          val decodedPayload = service.messageCodec.decodeMessage(
+            in.payload.getOrElse(throw new IllegalArgumentException("No command payload")))
+          (in.name, MessageEnvelope.of(decodedPayload, span.map(metadata.withTracing).getOrElse(metadata)))
+        }
+        val messageContext =
+          createConsumerMessageContext(lastMessage, service.messageCodec, spans.last, service.componentId)
+        val effect = service.createRouter().handleBatch(messages, messageContext)
+        consumerEffectToResponse(service, lastMessage, effect, service.messageCodec, metrics, batch.size)
+      } catch {
+        case NonFatal(ex) =>
+          // batch handler threw an "unexpected" error
+          Future.successful(handleUnexpectedExceptionInConsumer(service, lastMessage, ex) )
+      }
+    val fut =
+      runHandler(service.componentId, service.blockingCalls)(timeHandler(metrics, receivedBatch.map(_._2))(handle()))
+    fut.andThen { case result =>
+      spans.foreach(_.foreach(_.end()))
+      recordCompletion(metrics, result, batch.size)
+    }
+  }
+
+  // blocking handlers are invoked on a virtual thread and others on the dispatcher of the component, if any,
+  // an async effect they return completes on the SDK dispatcher
+  private def runHandler(componentId: String, blockingCalls: Option[BlockingCalls])(
+      handle: => Future[ActionResponse]): Future[ActionResponse] =
+    blockingCalls match {
+      case Some(calls) => calls.run(handle).flatten
+      case None =>
+        componentExecutionContexts.get(componentId) match {
+          case Some(componentExecutionContext) => Future(handle)(componentExecutionContext).flatten
+          case None                            => handle
+        }
+    }
+
+  // the handler time counts from when the handler starts, each message has waited since it was received
+  private def timeHandler(metrics: ConsumerMetrics, received: Seq[Long])(
+      handle: => Future[ActionResponse]): Future[ActionResponse] = {
+    val start = System.nanoTime()
+    received.foreach(metrics.handlerStarted(_, start))
+    handle.andThen { case _ => metrics.handlerCompleted(start) }
+  }
+
+  private def recordCompletion(metrics: ConsumerMetrics, result: Try[ActionResponse], messages: Int): Unit = {
+    val failed = result match {
+      case Success(response) => response.response.isFailure
+      case _                 => true
+    }
+    if (failed) metrics.handled(ConsumerMetrics.Failed, messages)
+  }
+
+  private def eventTimeOf(in: ActionCommand): Option[Instant] =
+    in.metadata.flatMap(_.entries.collectFirst {
+      case MetadataEntry(key, MetadataEntry.Value.StringValue(time), _) if key.equalsIgnoreCase(MetadataImpl.CeTime) =>
+        Try(ZonedDateTime.parse(time).toInstant).toOption
+    }.flatten)
+
+  private def subjectOf(in: ActionCommand): Option[String] =
+    in.metadata.flatMap(_.entries.collectFirst {
+      case MetadataEntry(key, MetadataEntry.Value.StringValue(subject), _)
+          if key.equalsIgnoreCase(MetadataImpl.CeSubject) || key.equalsIgnoreCase(KafkaCeSubject) =>
+        subject
+    })
+
   private def createMessageContext(
       in: ActionCommand,
       messageCodec: MessageCodec,
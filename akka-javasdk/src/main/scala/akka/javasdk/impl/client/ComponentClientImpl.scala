@@ -7,26 +7,56 @@ package akka.javasdk.impl.client
 import akka.annotation.InternalApi
 import akka.javasdk.Metadata
 import akka.javasdk.client.ComponentClient
+import akka.javasdk.client.EventSourcedEntitiesClient
 import akka.javasdk.client.EventSourcedEntityClient
+import akka.javasdk.client.KeyValueEntitiesClient
 import akka.javasdk.client.KeyValueEntityClient
 import akka.javasdk.client.TimedActionClient
 import akka.javasdk.client.ViewClient
 import akka.javasdk.client.WorkflowClient
+import akka.javasdk.client.WorkflowsClient
 import akka.javasdk.impl.MetadataImpl
 import akka.runtime.sdk.spi.{ ComponentClients => RuntimeComponentClients }
 
+import java.util
+
 import scala.concurrent.ExecutionContext
+import scala.jdk.CollectionConverters._
 import io.opentelemetry.api.trace.Span
 
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[javasdk] object ComponentClientImpl {
+
+  // the metadata of the message or command handled on the current thread by a component instance shared by concurrent
+  // messages, since it cannot be set on the component client of that instance
+  private val currentCallMetadata = new ThreadLocal[Metadata]
+
+  /**
+   * Runs the call with the metadata of the message or command, for the component calls made from the calling thread.
+   */
+  def withCallMetadata[T](metadata: Metadata)(call: () => T): T = {
+    currentCallMetadata.set(metadata)
+    try call()
+    finally currentCallMetadata.remove()
+  }
+}
+
 /**
  * Note: new instance per call since it includes call metadata
  *
  * INTERNAL API
+ *
+ * @param readCoalescing
+ *   shared by all instances, merges concurrent identical read-only entity calls and view queries when enabled
  */
 @InternalApi
 private[javasdk] final case class ComponentClientImpl(
     runtimeComponentClients: RuntimeComponentClients,
-    openTelemetrySpan: Option[Span])(implicit ec: ExecutionContext)
+    openTelemetrySpan: Option[Span],
+    readCoalescing: Option[SingleFlight] = None)(implicit ec: ExecutionContext)
     extends ComponentClient {
 
   // Volatile since the component client could be accessed in nested/composed futures and is mutated by the reflective action router
@@ -34,26 +64,60 @@ private[javasdk] final case class ComponentClientImpl(
     MetadataImpl.Empty.withTracing(span)
   }
 
+  private def metadata: Option[Metadata] =
+    Option(ComponentClientImpl.currentCallMetadata.get()).orElse(callMetadata)
+
   override def forTimedAction(): TimedActionClient =
-    TimedActionClientImpl(runtimeComponentClients.actionClient, callMetadata)
+    TimedActionClientImpl(runtimeComponentClients.actionClient, metadata)
 
   override def forKeyValueEntity(valueEntityId: String): KeyValueEntityClient =
     if (valueEntityId eq null) throw new NullPointerException("Key Value entity id is null")
     else if (valueEntityId.isEmpty) throw new IllegalArgumentException("Empty value entity id now allowed")
-    else new KeyValueEntityClientImpl(runtimeComponentClients.keyValueEntityClient, callMetadata, valueEntityId)
+    else new KeyValueEntityClientImpl(runtimeComponentClients.keyValueEntityClient, metadata, valueEntityId)
+
+  override def forKeyValueEntities(valueEntityIds: util.Collection[String]): KeyValueEntitiesClient =
+    new KeyValueEntitiesClientImpl(
+      runtimeComponentClients.keyValueEntityClient,
+      metadata,
+      validIds(valueEntityIds, "Key Value entity"))
 
   override def forEventSourcedEntity(eventSourcedEntityId: String): EventSourcedEntityClient =
     if (eventSourcedEntityId eq null) throw new NullPointerException("Event sourced entity id is null")
     else if (eventSourcedEntityId.isEmpty)
       throw new IllegalArgumentException("Empty event sourced entity id now allowed")
     else
-      EventSourcedEntityClientImpl(runtimeComponentClients.eventSourcedEntityClient, callMetadata, eventSourcedEntityId)
+      EventSourcedEntityClientImpl(
+        runtimeComponentClients.eventSourcedEntityClient,
+        metadata,
+        eventSourcedEntityId,
+        readCoalescing)
+
+  override def forEventSourcedEntities(eventSourcedEntityIds: util.Collection[String]): EventSourcedEntitiesClient =
+    new EventSourcedEntitiesClientImpl(
+      runtimeComponentClients.eventSourcedEntityClient,
+      metadata,
+      validIds(eventSourcedEntityIds, "Event sourced entity"))
 
   override def forWorkflow(workflowId: String): WorkflowClient =
     if (workflowId eq null) throw new NullPointerException("Workflow id is null")
     else if (workflowId.isEmpty) throw new IllegalArgumentException("Empty workflow id now allowed")
-    else WorkflowClientImpl(runtimeComponentClients.workFlowClient, callMetadata, workflowId)
+    else WorkflowClientImpl(runtimeComponentClients.workFlowClient, metadata, workflowId, readCoalescing)
+
+  override def forWorkflows(workflowIds: util.Collection[String]): WorkflowsClient =
+    new WorkflowsClientImpl(runtimeComponentClients.workFlowClient, metadata, validIds(workflowIds, "Workflow"))
+
+  override def forView(): ViewClient =
+    ViewClientImpl(runtimeComponentClients.viewClient, metadata, readCoalescing)
 
-  override def forView(): ViewClient = ViewClientImpl(runtimeComponentClients.viewClient, callMetadata)
+  private def validIds(ids: util.Collection[String], idType: String): Seq[String] =
+    if (ids eq null) throw new NullPointerException(s"$idType ids are null")
+    else {
+      val validated = ids.asScala.toVector
+      validated.foreach { id =>
+        if (id eq null) throw new NullPointerException(s"$idType id is null")
+        else if (id.isEmpty) throw new IllegalArgumentException(s"Empty $idType id not allowed")
+      }
+      validated
+    }
 
 }
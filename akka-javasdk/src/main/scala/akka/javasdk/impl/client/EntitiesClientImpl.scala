@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.client
+
+import java.util
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionStage
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+import scala.jdk.CollectionConverters._
+import scala.jdk.FutureConverters._
+import scala.util.Failure
+import scala.util.Success
+import scala.util.control.NonFatal
+
+import akka.annotation.InternalApi
+import akka.japi.function
+import akka.javasdk.Metadata
+import akka.javasdk.client.ComponentBulkMethodRef
+import akka.javasdk.client.ComponentBulkMethodRef1
+import akka.javasdk.client.EntityCallResult
+import akka.javasdk.client.EventSourcedEntitiesClient
+import akka.javasdk.client.KeyValueEntitiesClient
+import akka.javasdk.client.WorkflowsClient
+import akka.javasdk.eventsourcedentity.EventSourcedEntity
+import akka.javasdk.impl.ParallelCalls
+import akka.javasdk.keyvalueentity.KeyValueEntity
+import akka.javasdk.workflow.Workflow
+import akka.runtime.sdk.spi.ComponentType
+import akka.runtime.sdk.spi.EventSourcedEntityType
+import akka.runtime.sdk.spi.KeyValueEntityType
+import akka.runtime.sdk.spi.WorkflowType
+import akka.runtime.sdk.spi.{ EntityClient => RuntimeEntityClient }
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[impl] final case class ComponentBulkMethodRefImpl[A1, R](
+    ids: Seq[String],
+    metadataOpt: Option[Metadata],
+    createDeferred: (String, Option[Metadata], Option[A1]) => DeferredCallImpl[A1, R])(implicit
+    executionContext: ExecutionContext)
+    extends ComponentBulkMethodRef[R]
+    with ComponentBulkMethodRef1[A1, R] {
+
+  override def withMetadata(metadata: Metadata): ComponentBulkMethodRefImpl[A1, R] = {
+    val merged = metadataOpt.map[Metadata](m => m.merge(metadata)).getOrElse(metadata)
+    copy(metadataOpt = Some(merged))
+  }
+
+  override def invokeAllAsync(parallelism: Int): CompletionStage[util.List[EntityCallResult[R]]] =
+    invokeAll(None, parallelism)
+
+  override def invokeAllAsync(arg: A1, parallelism: Int): CompletionStage[util.List[EntityCallResult[R]]] = {
+    if (arg == null)
+      throw new IllegalStateException("Argument to invokeAllAsync must not be null")
+    invokeAll(Some(arg), parallelism)
+  }
+
+  private def invokeAll(maybeArg: Option[A1], parallelism: Int): CompletionStage[util.List[EntityCallResult[R]]] = {
+    if (parallelism < 1)
+      throw new IllegalArgumentException(s"parallelism must be greater than 0, was [$parallelism]")
+
+    if (ids.isEmpty) CompletableFuture.completedFuture(util.List.of[EntityCallResult[R]]())
+    else {
+      // every call completes successfully with the outcome for its id, so one failure does not stop the others
+      val calls = ids.map { id => () =>
+        val call =
+          try createDeferred(id, metadataOpt, maybeArg).invokeAsync().asScala
+          catch {
+            case NonFatal(ex) => Future.failed(ex)
+          }
+        call.transform {
+          case Success(result) => Success(new EntityCallResult[R](id, result, null))
+          case Failure(ex)     => Success(new EntityCallResult[R](id, null.asInstanceOf[R], ex))
+        }
+      }
+      ParallelCalls.run(calls, parallelism, required = calls.size).map(_.asJava).asJava
+    }
+  }
+}
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[impl] sealed abstract class EntitiesClientImpl(
+    expectedComponentSuperclass: Class[_],
+    componentType: ComponentType,
+    entityClient: RuntimeEntityClient,
+    callMetadata: Option[Metadata],
+    entityIds: Seq[String])(implicit executionContext: ExecutionContext) {
+
+  protected def createMethodRef2[A1, R](lambda: akka.japi.function.Function2[_, _, _]): ComponentBulkMethodRef1[A1, R] =
+    createMethodRefForEitherArity(lambda)
+
+  protected def createMethodRef[R](lambda: akka.japi.function.Function[_, _]): ComponentBulkMethodRef[R] =
+    createMethodRefForEitherArity[Nothing, R](lambda)
+
+  private def createMethodRefForEitherArity[A1, R](lambda: AnyRef): ComponentBulkMethodRefImpl[A1, R] = {
+    // resolved once, shared by the calls for all ids
+    val resolvedMethodRef = EntityClientImpl.resolveMethodRef(lambda, expectedComponentSuperclass)
+
+    new ComponentBulkMethodRefImpl[AnyRef, R](
+      entityIds,
+      callMetadata,
+      { (entityId, maybeMetadata, maybeArg) =>
+        EntityClientImpl.deferredCall[R](
+          componentType,
+          entityClient,
+          resolvedMethodRef,
+          entityId,
+          maybeMetadata,
+          maybeArg)
+      }).asInstanceOf[ComponentBulkMethodRefImpl[A1, R]]
+  }
+}
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[javasdk] final class KeyValueEntitiesClientImpl(
+    entityClient: RuntimeEntityClient,
+    callMetadata: Option[Metadata],
+    entityIds: Seq[String])(implicit val executionContext: ExecutionContext)
+    extends EntitiesClientImpl(classOf[KeyValueEntity[_]], KeyValueEntityType, entityClient, callMetadata, entityIds)
+    with KeyValueEntitiesClient {
+
+  override def method[T, R](methodRef: function.Function[T, KeyValueEntity.Effect[R]]): ComponentBulkMethodRef[R] =
+    createMethodRef[R](methodRef)
+
+  override def method[T, A1, R](
+      methodRef: function.Function2[T, A1, KeyValueEntity.Effect[R]]): ComponentBulkMethodRef1[A1, R] =
+    createMethodRef2(methodRef)
+}
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[javasdk] final class EventSourcedEntitiesClientImpl(
+    entityClient: RuntimeEntityClient,
+    callMetadata: Option[Metadata],
+    entityIds: Seq[String])(implicit val executionContext: ExecutionContext)
+    extends EntitiesClientImpl(
+      classOf[EventSourcedEntity[_, _]],
+      EventSourcedEntityType,
+      entityClient,
+      callMetadata,
+      entityIds)
+    with EventSourcedEntitiesClient {
+
+  override def method[T, R](
+      methodRef: function.Function[T, EventSourcedEntity.Effect[R]]): ComponentBulkMethodRef[R] =
+    createMethodRef(methodRef)
+
+  override def method[T, A1, R](
+      methodRef: function.Function2[T, A1, EventSourcedEntity.Effect[R]]): ComponentBulkMethodRef1[A1, R] =
+    createMethodRef2(methodRef)
+}
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[javasdk] final class WorkflowsClientImpl(
+    entityClient: RuntimeEntityClient,
+    callMetadata: Option[Metadata],
+    workflowIds: Seq[String])(implicit val executionContext: ExecutionContext)
+    extends EntitiesClientImpl(classOf[Workflow[_]], WorkflowType, entityClient, callMetadata, workflowIds)
+    with WorkflowsClient {
+
+  override def method[T, R](methodRef: function.Function[T, Workflow.Effect[R]]): ComponentBulkMethodRef[R] =
+    createMethodRef(methodRef)
+
+  override def method[T, A1, R](
+      methodRef: function.Function2[T, A1, Workflow.Effect[R]]): ComponentBulkMethodRef1[A1, R] =
+    createMethodRef2(methodRef)
+}
@@ -18,7 +18,6 @@ import akka.javasdk.client.KeyValueEntityClient
 import akka.javasdk.client.TimedActionClient
 import akka.javasdk.client.WorkflowClient
 import akka.javasdk.eventsourcedentity.EventSourcedEntity
-import akka.javasdk.impl.ComponentDescriptorFactory
 import akka.javasdk.impl.MetadataImpl
 import akka.javasdk.impl.MetadataImpl.toProtocol
 import akka.javasdk.impl.reflection.Reflect
@@ -42,6 +41,83 @@ import scala.util.Failure
 import scala.util.Success
 import scala.util.Try
 
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[impl] object EntityClientImpl {
+
+  def resolveMethodRef(lambda: AnyRef, expectedComponentSuperclass: Class[_]): MethodRefResolver.ResolvedMethodRef = {
+    val resolvedMethodRef = MethodRefResolver.resolve(lambda)
+    val declaringClass = resolvedMethodRef.declaringClass
+    if (!expectedComponentSuperclass.isAssignableFrom(declaringClass)) {
+      throw new IllegalArgumentException(s"$declaringClass is not a subclass of $expectedComponentSuperclass")
+    }
+    resolvedMethodRef
+  }
+
+  def deferredCall[R](
+      componentType: ComponentType,
+      entityClient: RuntimeEntityClient,
+      resolvedMethodRef: MethodRefResolver.ResolvedMethodRef,
+      entityId: String,
+      maybeMetadata: Option[Metadata],
+      maybeArg: Option[AnyRef],
+      readCoalescing: Option[SingleFlight] = None)(implicit
+      executionContext: ExecutionContext): DeferredCallImpl[AnyRef, R] = {
+    val componentId = resolvedMethodRef.componentId
+    val methodName = resolvedMethodRef.methodName
+
+    // Note: same path for 0 and 1 arg calls
+    val serializedPayload = maybeArg match {
+      case Some(arg) =>
+        // Note: not Kalix JSON encoded here, regular/normal utf8 bytes
+        JsonSupport.encodeToAkkaByteString(arg)
+      case None => ByteString.emptyByteString
+    }
+
+    DeferredCallImpl(
+      maybeArg.orNull,
+      maybeMetadata.getOrElse(Metadata.EMPTY).asInstanceOf[MetadataImpl],
+      componentType,
+      componentId,
+      methodName,
+      Some(entityId),
+      { metadata =>
+        def send() =
+          entityClient.send(
+            new EntityRequest(
+              componentId,
+              entityId,
+              methodName,
+              ContentTypes.`application/json`,
+              serializedPayload,
+              toProtocol(metadata.asInstanceOf[MetadataImpl]).getOrElse(
+                kalix.protocol.component.Metadata.defaultInstance)))
+
+        val response = readCoalescing match {
+          case Some(singleFlight) if resolvedMethodRef.readOnly =>
+            val key = SingleFlight.key(
+              componentId,
+              Some(entityId),
+              methodName,
+              serializedPayload,
+              metadata.asInstanceOf[MetadataImpl])
+            singleFlight(key)(send())
+          case _ => send()
+        }
+
+        response
+          .map { reply =>
+            // Note: not Kalix JSON encoded here, regular/normal utf8 bytes
+            val returnType = resolvedMethodRef.returnType.asInstanceOf[Class[R]]
+            JsonSupport.parseBytes[R](reply.payload.toArrayUnsafe(), returnType)
+          }
+          .asJava
+      })
+  }
+}
+
 /**
  * INTERNAL API
  */
@@ -51,7 +127,8 @@ private[impl] sealed abstract class EntityClientImpl(
     componentType: ComponentType,
     entityClient: RuntimeEntityClient,
     callMetadata: Option[Metadata],
-    entityId: String)(implicit executionContext: ExecutionContext) {
+    entityId: String,
+    readCoalescing: Option[SingleFlight])(implicit executionContext: ExecutionContext) {
 
   // commands for methods that take a state as a first parameter and then the command
   protected def createMethodRef2[A1, R](lambda: akka.japi.function.Function2[_, _, _]): ComponentMethodRef1[A1, R] =
@@ -61,13 +138,7 @@ private[impl] sealed abstract class EntityClientImpl(
     createMethodRefForEitherArity[Nothing, R](lambda)
 
   private def createMethodRefForEitherArity[A1, R](lambda: AnyRef): ComponentMethodRefImpl[A1, R] = {
-    val method = MethodRefResolver.resolveMethodRef(lambda)
-    val declaringClass = method.getDeclaringClass
-    if (!expectedComponentSuperclass.isAssignableFrom(declaringClass)) {
-      throw new IllegalArgumentException(s"$declaringClass is not a subclass of $expectedComponentSuperclass")
-    }
-    val componentId = ComponentDescriptorFactory.readComponentIdIdValue(declaringClass)
-    val methodName = method.getName.capitalize
+    val resolvedMethodRef = EntityClientImpl.resolveMethodRef(lambda, expectedComponentSuperclass)
 
     // FIXME push some of this logic into the NativeomponentMethodRef
     //       will be easier to follow to do that instead of creating a lambda here and injecting into that
@@ -75,39 +146,14 @@ private[impl] sealed abstract class EntityClientImpl(
       Some(entityId),
       callMetadata,
       { (maybeMetadata, maybeArg) =>
-        // Note: same path for 0 and 1 arg calls
-        val serializedPayload = maybeArg match {
-          case Some(arg) =>
-            // Note: not Kalix JSON encoded here, regular/normal utf8 bytes
-            JsonSupport.encodeToAkkaByteString(arg)
-          case None => ByteString.emptyByteString
-        }
-
-        DeferredCallImpl(
-          maybeArg.orNull,
-          maybeMetadata.getOrElse(Metadata.EMPTY).asInstanceOf[MetadataImpl],
+        EntityClientImpl.deferredCall[R](
           componentType,
-          componentId,
-          methodName,
-          Some(entityId),
-          { metadata =>
-            entityClient
-              .send(
-                new EntityRequest(
-                  componentId,
-                  entityId,
-                  methodName,
-                  ContentTypes.`application/json`,
-                  serializedPayload,
-                  toProtocol(metadata.asInstanceOf[MetadataImpl]).getOrElse(
-                    kalix.protocol.component.Metadata.defaultInstance)))
-              .map { reply =>
-                // Note: not Kalix JSON encoded here, regular/normal utf8 bytes
-                val returnType = Reflect.getReturnType[R](declaringClass, method)
-                JsonSupport.parseBytes[R](reply.payload.toArrayUnsafe(), returnType)
-              }
-              .asJava
-          })
+          entityClient,
+          resolvedMethodRef,
+          entityId,
+          maybeMetadata,
+          maybeArg,
+          readCoalescing)
       }).asInstanceOf[ComponentMethodRefImpl[A1, R]]
 
   }
@@ -121,7 +167,13 @@ private[javasdk] final class KeyValueEntityClientImpl(
     entityClient: RuntimeEntityClient,
     callMetadata: Option[Metadata],
     entityId: String)(implicit val executionContext: ExecutionContext)
-    extends EntityClientImpl(classOf[KeyValueEntity[_]], KeyValueEntityType, entityClient, callMetadata, entityId)
+    extends EntityClientImpl(
+      classOf[KeyValueEntity[_]],
+      KeyValueEntityType,
+      entityClient,
+      callMetadata,
+      entityId,
+      readCoalescing = None)
     with KeyValueEntityClient {
 
   override def method[T, R](methodRef: function.Function[T, KeyValueEntity.Effect[R]]): ComponentMethodRef[R] =
@@ -139,13 +191,15 @@ private[javasdk] final class KeyValueEntityClientImpl(
 private[javasdk] final case class EventSourcedEntityClientImpl(
     entityClient: RuntimeEntityClient,
     callMetadata: Option[Metadata],
-    entityId: String)(implicit val executionContext: ExecutionContext)
+    entityId: String,
+    readCoalescing: Option[SingleFlight] = None)(implicit val executionContext: ExecutionContext)
     extends EntityClientImpl(
       classOf[EventSourcedEntity[_, _]],
       EventSourcedEntityType,
       entityClient,
       callMetadata,
-      entityId)
+      entityId,
+      readCoalescing)
     with EventSourcedEntityClient {
 
   override def method[T, R](methodRef: function.Function[T, EventSourcedEntity.Effect[R]]): ComponentMethodRef[R] =
@@ -163,8 +217,9 @@ private[javasdk] final case class EventSourcedEntityClientImpl(
 private[javasdk] final case class WorkflowClientImpl(
     entityClient: RuntimeEntityClient,
     callMetadata: Option[Metadata],
-    entityId: String)(implicit val executionContext: ExecutionContext)
-    extends EntityClientImpl(classOf[Workflow[_]], WorkflowType, entityClient, callMetadata, entityId)
+    entityId: String,
+    readCoalescing: Option[SingleFlight] = None)(implicit val executionContext: ExecutionContext)
+    extends EntityClientImpl(classOf[Workflow[_]], WorkflowType, entityClient, callMetadata, entityId, readCoalescing)
     with WorkflowClient {
 
   override def method[T, R](methodRef: function.Function[T, Workflow.Effect[R]]): ComponentMethodRef[R] =
@@ -190,14 +245,14 @@ private[javasdk] final case class TimedActionClientImpl(
     createMethodRefForEitherArity(methodRef)
 
   private def createMethodRefForEitherArity[A1, R](lambda: AnyRef): ComponentMethodRefImpl[A1, R] = {
-    val method = MethodRefResolver.resolveMethodRef(lambda)
-    val declaringClass = method.getDeclaringClass
+    val resolvedMethodRef = MethodRefResolver.resolve(lambda)
+    val declaringClass = resolvedMethodRef.declaringClass
     if (!Reflect.isAction(declaringClass))
       throw new IllegalArgumentException(
         "Use dedicated builder for calling " + declaringClass.getSuperclass.getSimpleName
-        + " component method " + declaringClass.getSimpleName + "::" + method.getName + ". This builder is meant for Action component calls.")
-    val componentId = ComponentDescriptorFactory.readComponentIdIdValue(declaringClass)
-    val methodName = method.getName.capitalize
+        + " component method " + declaringClass.getSimpleName + "::" + resolvedMethodRef.method.getName + ". This builder is meant for Action component calls.")
+    val componentId = resolvedMethodRef.componentId
+    val methodName = resolvedMethodRef.methodName
 
     new ComponentMethodRefImpl[AnyRef, R](
       None,
@@ -231,7 +286,7 @@ private[javasdk] final case class TimedActionClientImpl(
               .transform {
                 case Success(reply) =>
                   // Note: not Kalix JSON encoded here, regular/normal utf8 bytes
-                  val returnType = Reflect.getReturnType(declaringClass, method)
+                  val returnType = resolvedMethodRef.returnType
                   if (reply.payload.isEmpty) Success(null.asInstanceOf[R])
                   else Try(JsonSupport.parseBytes[R](reply.payload.toArrayUnsafe(), returnType.asInstanceOf[Class[R]]))
                 case Failure(ex) => Failure(ex)
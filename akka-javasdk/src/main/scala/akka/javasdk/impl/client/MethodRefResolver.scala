@@ -6,9 +6,41 @@ package akka.javasdk.impl.client
 
 import java.lang.invoke.SerializedLambda
 import java.lang.reflect.Method
+import java.util.concurrent.ConcurrentHashMap
+
+import akka.javasdk.eventsourcedentity.EventSourcedEntity
+import akka.javasdk.impl.ComponentDescriptorFactory
+import akka.javasdk.impl.reflection.Reflect
+import akka.javasdk.workflow.Workflow
 
 private[impl] object MethodRefResolver {
 
+  /**
+   * A resolved method ref, with the properties needed to call it computed on first use.
+   */
+  final class ResolvedMethodRef(val method: Method) {
+    def declaringClass: Class[_] = method.getDeclaringClass
+    lazy val componentId: String = ComponentDescriptorFactory.readComponentIdIdValue(declaringClass)
+    lazy val methodName: String = method.getName.capitalize
+    lazy val returnType: Class[_] = Reflect.getReturnType(declaringClass, method)
+    lazy val readOnly: Boolean =
+      method.getReturnType == classOf[EventSourcedEntity.ReadOnlyEffect[_]] ||
+      method.getReturnType == classOf[Workflow.ReadOnlyEffect[_]]
+  }
+
+  // a lambda class is generated once per call site and always refers to the same method
+  private val resolvedByLambdaClass = new ConcurrentHashMap[Class[_], ResolvedMethodRef]()
+
+  /**
+   * Resolve the method ref for a lambda, only the first call for a given lambda class does the reflective lookup.
+   */
+  def resolve(lambda: Any): ResolvedMethodRef = {
+    val lambdaType = lambda.getClass
+    val resolved = resolvedByLambdaClass.get(lambdaType)
+    if (resolved ne null) resolved
+    else resolvedByLambdaClass.computeIfAbsent(lambdaType, _ => new ResolvedMethodRef(resolveMethodRef(lambda)))
+  }
+
   /**
    * Resolve the method ref for a lambda.
    */
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.client
+
+import java.util.concurrent.ConcurrentHashMap
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+import scala.concurrent.Promise
+import scala.util.control.NonFatal
+
+import akka.annotation.InternalApi
+import akka.javasdk.impl.MetadataImpl
+import akka.javasdk.impl.telemetry.Telemetry
+import akka.util.ByteString
+import kalix.protocol.component.MetadataEntry
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[impl] object SingleFlight {
+
+  /**
+   * Identifies identical calls, the tracing headers differ for every call and are not part of the key.
+   */
+  final case class Key(
+      componentId: String,
+      id: Option[String],
+      methodName: String,
+      payload: ByteString,
+      metadata: Seq[MetadataEntry])
+
+  def key(
+      componentId: String,
+      id: Option[String],
+      methodName: String,
+      payload: ByteString,
+      metadata: MetadataImpl): Key = {
+    val withoutTracing =
+      metadata.entries.filterNot(entry =>
+        entry.key == Telemetry.TRACE_PARENT_KEY || entry.key == Telemetry.TRACE_STATE_KEY)
+    Key(componentId, id, methodName, payload, withoutTracing)
+  }
+}
+
+/**
+ * INTERNAL API
+ *
+ * Merges concurrent identical read-only calls into one in-flight call, all callers get the reply of that call.
+ */
+@InternalApi
+private[impl] final class SingleFlight {
+  import SingleFlight._
+
+  private val inFlight = new ConcurrentHashMap[Key, Future[Any]]()
+
+  def apply[T](key: Key)(call: => Future[T]): Future[T] = {
+    val promise = Promise[Any]()
+    val existing = inFlight.putIfAbsent(key, promise.future)
+    if (existing ne null) existing.asInstanceOf[Future[T]]
+    else {
+      // removed as soon as completed, later calls are never served a previous reply
+      promise.future.onComplete(_ => inFlight.remove(key, promise.future))(ExecutionContext.parasitic)
+      promise.completeWith(
+        try call
+        catch {
+          case NonFatal(ex) => Future.failed(ex)
+        })
+      promise.future.asInstanceOf[Future[T]]
+    }
+  }
+
+  def inFlightCalls: Int = inFlight.size()
+}
@@ -15,7 +15,6 @@ import akka.javasdk.client.ComponentStreamMethodRef
 import akka.javasdk.client.ComponentStreamMethodRef1
 import akka.javasdk.client.NoEntryFoundException
 import akka.javasdk.client.ViewClient
-import akka.javasdk.impl.ComponentDescriptorFactory
 import akka.javasdk.impl.MetadataImpl
 import akka.javasdk.impl.MetadataImpl.toProtocol
 import akka.javasdk.impl.reflection.Reflect
@@ -28,6 +27,7 @@ import akka.util.ByteString
 import java.lang.reflect.Method
 import java.lang.reflect.ParameterizedType
 import java.util.Optional
+import java.util.concurrent.ConcurrentHashMap
 import scala.concurrent.ExecutionContext
 import scala.jdk.FutureConverters.FutureOps
 
@@ -59,13 +59,24 @@ private[javasdk] object ViewClientImpl {
       methodName: String,
       declaringClass: Class[_],
       queryReturnType: Class[_])
+
+  // validated once per lambda class, see MethodRefResolver.resolve
+  private val viewMethodPropertiesByLambdaClass = new ConcurrentHashMap[Class[_], ViewMethodProperties]()
+
   private def validateAndExtractViewMethodProperties[R](lambda: AnyRef): ViewMethodProperties = {
-    val method = MethodRefResolver.resolveMethodRef(lambda)
+    val properties = viewMethodPropertiesByLambdaClass.get(lambda.getClass)
+    if (properties ne null) properties
+    else viewMethodPropertiesByLambdaClass.computeIfAbsent(lambda.getClass, _ => extractViewMethodProperties(lambda))
+  }
+
+  private def extractViewMethodProperties(lambda: AnyRef): ViewMethodProperties = {
+    val resolvedMethodRef = MethodRefResolver.resolve(lambda)
+    val method = resolvedMethodRef.method
     ViewCallValidator.validate(method)
     // extract view id
-    val declaringClass = method.getDeclaringClass
-    val componentId = ComponentDescriptorFactory.readComponentIdIdValue(declaringClass)
-    val methodName = method.getName.capitalize
+    val declaringClass = resolvedMethodRef.declaringClass
+    val componentId = resolvedMethodRef.componentId
+    val methodName = resolvedMethodRef.methodName
     val queryReturnType = getViewQueryReturnType(method)
     ViewMethodProperties(componentId, method, methodName, declaringClass, queryReturnType)
   }
@@ -110,8 +121,10 @@ private[javasdk] object ViewClientImpl {
  * INTERNAL API
  */
 @InternalApi
-private[javasdk] final case class ViewClientImpl(viewClient: RuntimeViewClient, callMetadata: Option[Metadata])(implicit
-    val executionContext: ExecutionContext)
+private[javasdk] final case class ViewClientImpl(
+    viewClient: RuntimeViewClient,
+    callMetadata: Option[Metadata],
+    readCoalescing: Option[SingleFlight] = None)(implicit val executionContext: ExecutionContext)
     extends ViewClient {
   import ViewClientImpl._
 
@@ -140,8 +153,8 @@ private[javasdk] final case class ViewClientImpl(viewClient: RuntimeViewClient,
           viewMethodProperties.methodName,
           None,
           { metadata =>
-            viewClient
-              .query(
+            def query() =
+              viewClient.query(
                 new ViewRequest(
                   viewMethodProperties.componentId,
                   viewMethodProperties.methodName,
@@ -149,6 +162,20 @@ private[javasdk] final case class ViewClientImpl(viewClient: RuntimeViewClient,
                   serializedPayload,
                   toProtocol(metadata.asInstanceOf[MetadataImpl]).getOrElse(
                     kalix.protocol.component.Metadata.defaultInstance)))
+
+            val response = readCoalescing match {
+              case Some(singleFlight) =>
+                val key = SingleFlight.key(
+                  viewMethodProperties.componentId,
+                  None,
+                  viewMethodProperties.methodName,
+                  serializedPayload,
+                  metadata.asInstanceOf[MetadataImpl])
+                singleFlight(key)(query())
+              case None => query()
+            }
+
+            response
               .map { result =>
                 val deserializedReWrapped =
                   if (result.payload.isEmpty) {
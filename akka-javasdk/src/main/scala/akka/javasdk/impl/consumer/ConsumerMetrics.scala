@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.consumer
+
+import java.time.Instant
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.LongAdder
+
+import akka.annotation.InternalApi
+import com.fasterxml.jackson.databind.node.JsonNodeFactory
+import com.fasterxml.jackson.databind.node.ObjectNode
+import io.opentelemetry.api.common.AttributeKey
+import io.opentelemetry.api.common.Attributes
+import io.opentelemetry.api.metrics.Meter
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[impl] object ConsumerMetrics {
+
+  sealed abstract class Outcome(val name: String)
+  case object Done extends Outcome("done")
+  case object Produced extends Outcome("produced")
+  case object Ignored extends Outcome("ignored")
+  case object Failed extends Outcome("failed")
+
+  val Outcomes: Seq[Outcome] = Seq(Done, Produced, Ignored, Failed)
+
+  private val ComponentIdAttribute = AttributeKey.stringKey("component.id")
+  private val OutcomeAttribute = AttributeKey.stringKey("outcome")
+
+  private val NoLag = -1L
+
+  /** Count, total and max of durations, for the snapshot. */
+  private final class LatencyStats {
+    private val count = new LongAdder
+    private val totalNanos = new LongAdder
+    private val maxNanos = new AtomicLong(0)
+
+    def record(durationNanos: Long): Unit = {
+      count.increment()
+      totalNanos.add(durationNanos)
+      maxNanos.accumulateAndGet(durationNanos, (a, b) => Math.max(a, b))
+    }
+
+    def writeTo(node: ObjectNode): Unit = {
+      val calls = count.sum()
+      node.put("count", calls)
+      val meanNanos = if (calls == 0) 0.0 else totalNanos.sum().toDouble / calls
+      node.put("mean", meanNanos / TimeUnit.MILLISECONDS.toNanos(1))
+      node.put("max", TimeUnit.NANOSECONDS.toMillis(maxNanos.get()))
+    }
+  }
+
+  private def seconds(durationNanos: Long): Double = durationNanos.toDouble / TimeUnit.SECONDS.toNanos(1)
+}
+
+/**
+ * INTERNAL API
+ *
+ * Throughput, latency and event-time lag of a consumer. Everything is exported as OpenTelemetry metrics and also kept
+ * locally so that a snapshot can be served from the consumer metrics endpoint.
+ */
+@InternalApi
+private[impl] final class ConsumerMetrics(
+    val componentId: String,
+    meter: Meter,
+    currentTimeMillis: () => Long = () => System.currentTimeMillis()) {
+  import ConsumerMetrics._
+
+  private val outcomeCounts: Map[Outcome, LongAdder] = Outcomes.map(_ -> new LongAdder).toMap
+  private val lagMillis = new AtomicLong(NoLag)
+  private val handlerLatency = new LatencyStats
+  private val queueLatency = new LatencyStats
+
+  // messages received in the current second, and in the second before it
+  private val currentSecond = new AtomicLong(currentTimeMillis() / 1000)
+  private val currentSecondCount = new LongAdder
+  @volatile private var previousSecondCount = 0L
+
+  private val attributes = Attributes.of(ComponentIdAttribute, componentId)
+  private val outcomeAttributes: Map[Outcome, Attributes] =
+    Outcomes.map { outcome =>
+      outcome -> Attributes.of(ComponentIdAttribute, componentId, OutcomeAttribute, outcome.name)
+    }.toMap
+
+  private val messageCounter = meter
+    .counterBuilder("akka.javasdk.consumer.messages")
+    .setDescription("Number of messages handled by a consumer, by outcome")
+    .build()
+  private val handlerDuration = meter
+    .histogramBuilder("akka.javasdk.consumer.handler.duration")
+    .setDescription("Time from the start of the handler until its handling completed")
+    .setUnit("s")
+    .build()
+  private val queueDuration = meter
+    .histogramBuilder("akka.javasdk.consumer.queue.duration")
+    .setDescription("Time from receiving a message until its handler started, waiting for a partition or a batch")
+    .setUnit("s")
+    .build()
+  private val asyncDuration = meter
+    .histogramBuilder("akka.javasdk.consumer.async.duration")
+    .setDescription("Time for the async effect of a consumer handler to complete")
+    .setUnit("s")
+    .build()
+  meter
+    .gaugeBuilder("akka.javasdk.consumer.lag")
+    .setDescription("Time between the event time of the last received message and when it was received")
+    .setUnit("s")
+    .buildWithCallback { measurement =>
+      val lag = lagMillis.get()
+      if (lag != NoLag) measurement.record(lag.toDouble / 1000, attributes)
+    }
+
+  /**
+   * A message was received, `eventTime` is the CloudEvent time of the message, if any.
+   */
+  def received(eventTime: Option[Instant]): Unit = {
+    val now = currentTimeMillis()
+    eventTime.foreach(time => lagMillis.set(Math.max(0L, now - time.toEpochMilli)))
+
+    val second = now / 1000
+    val current = currentSecond.get()
+    if (second != current && currentSecond.compareAndSet(current, second)) {
+      val count = currentSecondCount.sumThenReset()
+      previousSecondCount = if (second == current + 1) count else 0L
+    }
+    currentSecondCount.increment()
+  }
+
+  def handled(outcome: Outcome, messages: Int = 1): Unit = {
+    messageCounter.add(messages, outcomeAttributes(outcome))
+    outcomeCounts(outcome).add(messages)
+  }
+
+  /**
+   * The handler of a message received at `receivedNanos` started at `startNanos`.
+   */
+  def handlerStarted(receivedNanos: Long, startNanos: Long): Unit = {
+    val durationNanos = startNanos - receivedNanos
+    queueDuration.record(seconds(durationNanos), attributes)
+    queueLatency.record(durationNanos)
+  }
+
+  def handlerCompleted(startNanos: Long): Unit = {
+    val durationNanos = System.nanoTime() - startNanos
+    handlerDuration.record(seconds(durationNanos), attributes)
+    handlerLatency.record(durationNanos)
+  }
+
+  def asyncCompleted(startNanos: Long): Unit =
+    asyncDuration.record(seconds(System.nanoTime() - startNanos), attributes)
+
+  def count(outcome: Outcome): Long = outcomeCounts(outcome).sum()
+
+  /**
+   * Messages received during the last full second.
+   */
+  def messagesPerSecond: Long = {
+    val second = currentTimeMillis() / 1000
+    val current = currentSecond.get()
+    if (second == current) previousSecondCount
+    else if (second == current + 1) currentSecondCount.sum()
+    else 0L
+  }
+
+  def lag: Option[Long] = Option(lagMillis.get()).filter(_ != NoLag)
+
+  def snapshot(): ObjectNode = {
+    val node = JsonNodeFactory.instance.objectNode()
+    node.put("componentId", componentId)
+    node.put("messagesPerSecond", messagesPerSecond)
+    Outcomes.foreach(outcome => node.put(outcome.name, count(outcome)))
+
+    handlerLatency.writeTo(node.putObject("handlerLatencyMillis"))
+    queueLatency.writeTo(node.putObject("queueLatencyMillis"))
+
+    lag match {
+      case Some(lagMillis) => node.put("lagMillis", lagMillis)
+      case None            => node.putNull("lagMillis")
+    }
+    node
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.consumer
+
+import akka.annotation.InternalApi
+import akka.http.javadsl.model.HttpResponse
+import akka.http.scaladsl.model.HttpMethods
+import akka.javasdk.http.HttpResponses
+import akka.runtime.sdk.spi.ACL
+import akka.runtime.sdk.spi.ComponentOptions
+import akka.runtime.sdk.spi.HttpEndpointDescriptor
+import akka.runtime.sdk.spi.HttpEndpointMethodDescriptor
+import akka.runtime.sdk.spi.Internet
+import akka.runtime.sdk.spi.MethodOptions
+import akka.runtime.sdk.spi.ServiceNamePattern
+import com.fasterxml.jackson.databind.node.JsonNodeFactory
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[impl] object ConsumerMetricsEndpoint {
+
+  def descriptor(path: String, consumers: Seq[ConsumerMetrics]): HttpEndpointDescriptor = {
+    val endpoint = new ConsumerMetricsEndpoint(consumers)
+    new HttpEndpointDescriptor(
+      mainPath = None,
+      instanceFactory = _ => endpoint,
+      methods = Vector(
+        new HttpEndpointMethodDescriptor(
+          httpMethod = HttpMethods.GET,
+          pathExpression = path,
+          userMethod = classOf[ConsumerMetricsEndpoint].getMethod("metrics"),
+          methodOptions = new MethodOptions(None, None))),
+      componentOptions = new ComponentOptions(Some(InternalOnly), None))
+  }
+
+  // other services of the project may read the metrics, the internet may not
+  private val InternalOnly =
+    new ACL(allow = List(new ServiceNamePattern("*")), deny = List(Internet), denyHttpCode = None)
+}
+
+/**
+ * INTERNAL API
+ *
+ * Serves a snapshot of the metrics of all consumers of the service, enabled with
+ * `akka.javasdk.consumer.metrics-endpoint.enabled`.
+ */
+@InternalApi
+private[impl] final class ConsumerMetricsEndpoint(consumers: Seq[ConsumerMetrics]) {
+
+  def metrics(): HttpResponse = {
+    val node = JsonNodeFactory.instance.objectNode()
+    val consumersNode = node.putArray("consumers")
+    consumers.sortBy(_.componentId).foreach(consumer => consumersNode.add(consumer.snapshot()))
+    HttpResponses.ok(node)
+  }
+}
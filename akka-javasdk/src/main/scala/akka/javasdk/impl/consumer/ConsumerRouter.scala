@@ -10,6 +10,7 @@ import akka.annotation.InternalApi
 import akka.javasdk.consumer.Consumer
 import akka.javasdk.consumer.MessageContext
 import akka.javasdk.consumer.MessageEnvelope
+import akka.javasdk.impl.client.ComponentClientImpl
 
 /**
  * INTERNAL API
@@ -23,7 +24,7 @@ private[impl] object ConsumerRouter {
  * INTERNAL API
  */
 @InternalApi
-private[impl] abstract class ConsumerRouter[A <: Consumer](protected val consumer: A) {
+private[impl] abstract class ConsumerRouter[A <: Consumer](protected val consumer: A, sharedInstance: Boolean) {
 
   /**
    * Handle a unary call.
@@ -54,16 +55,42 @@ private[impl] abstract class ConsumerRouter[A <: Consumer](protected val consume
    */
   def handleUnary(commandName: String, message: MessageEnvelope[Any]): Consumer.Effect
 
+  /**
+   * Handle a batch of messages with a single call to the batch handler of the consumer.
+   *
+   * @param messages
+   *   The command names and message envelopes of the messages, in the order they were received.
+   * @param context
+   *   The message context of the last message in the batch.
+   * @return
+   *   The effect for the whole batch.
+   */
+  final def handleBatch(messages: Seq[(String, MessageEnvelope[Any])], context: MessageContext): Consumer.Effect =
+    callWithContext(context) { () =>
+      handleBatch(messages)
+    }
+
+  def handleBatch(messages: Seq[(String, MessageEnvelope[Any])]): Consumer.Effect
+
   //TODO rethink this part
   private def callWithContext[T](context: MessageContext)(func: () => T) = {
-    // only set, never cleared, to allow access from other threads in async callbacks in the consumer
-    // the same handler and consumer instance is expected to only ever be invoked for a single message
-    consumer._internalSetMessageContext(Optional.of(context))
+    if (sharedInstance) {
+      // a shared instance handles several messages concurrently, the context is only visible to the calling thread
+      Consumer._internalSetCurrentMessageContext(Optional.of(context))
+    } else {
+      // only set, never cleared, to allow access from other threads in async callbacks in the consumer
+      // the same handler and consumer instance is expected to only ever be invoked for a single message
+      consumer._internalSetMessageContext(Optional.of(context))
+    }
     try {
-      func()
+      // a shared instance has no per message component client, the calls from this thread carry the metadata
+      if (sharedInstance) ComponentClientImpl.withCallMetadata(context.metadata())(func)
+      else func()
     } catch {
       case HandlerNotFound(name) =>
         throw new RuntimeException(s"No call handler found for call $name on ${consumer.getClass.getName}")
+    } finally {
+      if (sharedInstance) Consumer._internalSetCurrentMessageContext(Optional.empty())
     }
   }
 
@@ -7,10 +7,12 @@ package akka.javasdk.impl.consumer
 import akka.annotation.InternalApi
 import akka.javasdk.Metadata
 import akka.javasdk.Tracing
+import akka.javasdk.annotations.Consume
 import akka.javasdk.consumer.Consumer
 import akka.javasdk.consumer.MessageContext
 import akka.javasdk.consumer.MessageEnvelope
 import akka.javasdk.impl.AbstractContext
+import akka.javasdk.impl.BlockingCalls
 import akka.javasdk.impl.ComponentDescriptorFactory
 import akka.javasdk.impl.JsonMessageCodec
 import akka.javasdk.impl.MessageCodec
@@ -42,11 +44,28 @@ private[impl] class ConsumerService[A <: Consumer](
 
   lazy val log: Logger = LoggerFactory.getLogger(consumerClass)
 
+  val parallelism: Int = ComponentDescriptorFactory.findParallelism(consumerClass)
+
+  val batch: Option[Consume.Batch] = ComponentDescriptorFactory.batchSubscription(consumerClass)
+
+  val sharedInstance: Boolean = ComponentDescriptorFactory.hasSharedInstance(consumerClass)
+
+  val blockingCalls: Option[BlockingCalls] =
+    ComponentDescriptorFactory.blockingMaxConcurrency(consumerClass).map(new BlockingCalls(_))
+
+  // created on first use, since dependencies are not available until the service has started
+  private lazy val sharedRouter: ConsumerRouter[A] = newRouter()
+
   def createRouter(): ConsumerRouter[A] =
+    if (sharedInstance) sharedRouter
+    else newRouter()
+
+  private def newRouter(): ConsumerRouter[A] =
     new ReflectiveConsumerRouter[A](
       factory(),
       componentDescriptor.commandHandlers,
-      ComponentDescriptorFactory.findIgnore(consumerClass))
+      ComponentDescriptorFactory.findIgnore(consumerClass),
+      sharedInstance)
 
 }
 
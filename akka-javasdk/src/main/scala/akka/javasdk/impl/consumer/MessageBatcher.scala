@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.consumer
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+import scala.concurrent.Promise
+import scala.concurrent.duration.FiniteDuration
+import scala.util.control.NonFatal
+
+import akka.actor.Cancellable
+import akka.actor.Scheduler
+import akka.annotation.InternalApi
+
+/**
+ * INTERNAL API
+ *
+ * Collects messages into batches that are handled once `maxSize` messages have been added, or `maxWait` after the
+ * first message of the batch was added. Batches are handled one at a time, in the order they were collected, and the
+ * outcome of handling a batch completes the result of every message in it.
+ *
+ * A batch only fills with messages added while it is collected, so a caller that waits for the result of each message
+ * before adding the next one gets batches of one message, each handled after `maxWait`.
+ */
+@InternalApi
+private[impl] final class MessageBatcher[In, Out](maxSize: Int, maxWait: FiniteDuration, scheduler: Scheduler)(
+    handleBatch: Seq[In] => Future[Out])(implicit ec: ExecutionContext) {
+  require(maxSize > 0, s"maxSize must be greater than 0, was [$maxSize]")
+
+  // guarded by this
+  private var buffer = Vector.empty[(In, Promise[Out])]
+  private var scheduledFlush: Option[Cancellable] = None
+  private var previousBatch: Future[Any] = Future.unit
+
+  def add(message: In): Future[Out] = {
+    val promise = Promise[Out]()
+    synchronized {
+      buffer :+= (message -> promise)
+      if (buffer.size >= maxSize) flush()
+      else if (scheduledFlush.isEmpty) scheduledFlush = Some(scheduler.scheduleOnce(maxWait)(flushIncomplete()))
+    }
+    promise.future
+  }
+
+  private def flushIncomplete(): Unit =
+    synchronized {
+      flush()
+    }
+
+  // must be called while holding the lock
+  private def flush(): Unit = {
+    scheduledFlush.foreach(_.cancel())
+    scheduledFlush = None
+    if (buffer.nonEmpty) {
+      val batch = buffer
+      buffer = Vector.empty
+      previousBatch = previousBatch.transformWith { _ =>
+        val result =
+          try handleBatch(batch.map(_._1))
+          catch {
+            case NonFatal(ex) => Future.failed(ex)
+          }
+        result.onComplete(res => batch.foreach { case (_, promise) => promise.complete(res) })(
+          ExecutionContext.parasitic)
+        result
+      }
+    }
+  }
+}
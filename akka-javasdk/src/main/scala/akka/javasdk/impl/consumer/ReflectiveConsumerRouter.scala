@@ -14,6 +14,8 @@ import akka.javasdk.impl.InvocationContext
 import akka.javasdk.impl.reflection.Reflect
 import com.google.protobuf.any.{ Any => ScalaPbAny }
 
+import scala.jdk.CollectionConverters._
+
 /**
  * INTERNAL API
  */
@@ -21,8 +23,9 @@ import com.google.protobuf.any.{ Any => ScalaPbAny }
 private[impl] class ReflectiveConsumerRouter[A <: Consumer](
     consumer: A,
     commandHandlers: Map[String, CommandHandler],
-    ignoreUnknown: Boolean)
-    extends ConsumerRouter[A](consumer) {
+    ignoreUnknown: Boolean,
+    sharedInstance: Boolean)
+    extends ConsumerRouter[A](consumer, sharedInstance) {
 
   private def commandHandlerLookup(commandName: String) =
     commandHandlers.getOrElse(
@@ -42,10 +45,13 @@ private[impl] class ReflectiveConsumerRouter[A <: Consumer](
     val invocationContext =
       InvocationContext(scalaPbAnyCommand, commandHandler.requestMessageDescriptor, message.metadata())
 
-    // lookup ComponentClient
-    val componentClients = Reflect.lookupComponentClientFields(consumer)
+    // lookup ComponentClient, not for shared instances where concurrent messages would overwrite the metadata,
+    // those get the metadata for the calling thread from the ConsumerRouter
+    if (!sharedInstance) {
+      val componentClients = Reflect.lookupComponentClientFields(consumer)
 
-    componentClients.foreach(_.callMetadata = Some(message.metadata()))
+      componentClients.foreach(_.callMetadata = Some(message.metadata()))
+    }
 
     val methodInvoker = commandHandler.lookupInvoker(inputTypeUrl)
     methodInvoker match {
@@ -66,4 +72,35 @@ private[impl] class ReflectiveConsumerRouter[A <: Consumer](
           s"Couldn't find any method with input type [$inputTypeUrl] in Consumer [$consumer].")
     }
   }
+
+  override def handleBatch(messages: Seq[(String, MessageEnvelope[Any])]): Consumer.Effect = {
+    // unknown messages are left out of the batch when ignored
+    val decoded = messages.flatMap { case (commandName, message) =>
+      val commandHandler = commandHandlerLookup(commandName)
+      val scalaPbAnyCommand = message.payload().asInstanceOf[ScalaPbAny]
+      val inputTypeUrl = AnySupport.replaceLegacyJsonPrefix(scalaPbAnyCommand.typeUrl)
+
+      commandHandler.lookupInvoker(inputTypeUrl) match {
+        case Some(invoker) =>
+          val invocationContext =
+            InvocationContext(scalaPbAnyCommand, commandHandler.requestMessageDescriptor, message.metadata())
+          val payload = invoker.parameterExtractors.head.extract(invocationContext)
+          Some(invoker -> MessageEnvelope.of(payload, message.metadata()))
+        case None if ignoreUnknown => None
+        case None =>
+          throw new NoSuchElementException(
+            s"Couldn't find any method with input type [$inputTypeUrl] in Consumer [$consumer].")
+      }
+    }
+
+    if (decoded.isEmpty) ConsumerEffectImpl.Builder.ignore()
+    else {
+      val (invoker, lastEnvelope) = decoded.last
+      if (!sharedInstance)
+        Reflect.lookupComponentClientFields(consumer).foreach(_.callMetadata = Some(lastEnvelope.metadata()))
+      invoker
+        .invokeDirectly(consumer, decoded.map(_._2).asJava)
+        .asInstanceOf[Consumer.Effect]
+    }
+  }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.consumer
+
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+import scala.concurrent.Promise
+import scala.util.control.NonFatal
+
+import akka.annotation.InternalApi
+
+/**
+ * INTERNAL API
+ *
+ * Dispatches message handling over a fixed number of partitions selected by the message subject. Messages in the same
+ * partition are handled one after the other, in the order they were dispatched, while different partitions are handled
+ * concurrently. The number of messages handled at the same time is therefore bounded by the number of partitions, while
+ * the messages waiting for their partition are queued without a bound. Messages with the same subject are never handled
+ * concurrently or out of order.
+ *
+ * Messages without a subject have no ordering requirement and are spread over the partitions round-robin.
+ */
+@InternalApi
+private[impl] final class SubjectPartitionedDispatcher(val parallelism: Int) {
+  require(parallelism > 0, s"parallelism must be greater than 0, was [$parallelism]")
+
+  private val tails = Array.fill(parallelism)(new AtomicReference[Future[Any]](Future.unit))
+  private val depths = Array.fill(parallelism)(new AtomicInteger(0))
+  private val roundRobin = new AtomicInteger(0)
+
+  def partitionFor(subject: Option[String]): Int =
+    subject match {
+      case Some(s) => Math.floorMod(s.hashCode, parallelism)
+      case None    => Math.floorMod(roundRobin.getAndIncrement(), parallelism)
+    }
+
+  /**
+   * The number of messages waiting for, or being handled in, the given partition.
+   */
+  def queueDepth(partition: Int): Int = depths(partition).get()
+
+  /**
+   * Run `handle` once all messages previously dispatched to the same partition have been handled.
+   */
+  def dispatch[T](subject: Option[String])(handle: () => Future[T])(implicit ec: ExecutionContext): Future[T] = {
+    val partition = partitionFor(subject)
+    val depth = depths(partition)
+    depth.incrementAndGet()
+
+    val promise = Promise[T]()
+    val previous = tails(partition).getAndSet(promise.future)
+    previous.onComplete { _ =>
+      val result =
+        try handle()
+        catch {
+          case NonFatal(ex) => Future.failed(ex)
+        }
+      result.onComplete { res =>
+        depth.decrementAndGet()
+        promise.complete(res)
+      }(ExecutionContext.parasitic)
+    }
+    promise.future
+  }
+}
@@ -24,6 +24,7 @@ import akka.javasdk.eventsourcedentity.EventSourcedEntityContext
 import akka.javasdk.impl.AbstractContext
 import akka.javasdk.impl.ActivatableContext
 import akka.javasdk.impl.AnySupport
+import akka.javasdk.impl.ComponentDispatchers.withDispatcher
 import akka.javasdk.impl.Settings
 import akka.javasdk.impl.ErrorHandling
 import akka.javasdk.impl.JsonMessageCodec
@@ -82,7 +83,8 @@ private[impl] final class EventSourcedEntitiesImpl(
     _services: Map[String, EventSourcedEntityService[_, _, _]],
     configuration: Settings,
     sdkDispatcherName: String,
-    tracerFactory: () => Tracer)
+    tracerFactory: () => Tracer,
+    componentDispatchers: Map[String, String] = Map.empty)
     extends EventSourcedEntities {
   import akka.javasdk.impl.EntityExceptions._
 
@@ -116,7 +118,7 @@ private[impl] final class EventSourcedEntitiesImpl(
     in.prefixAndTail(1)
       .flatMapConcat {
         case (Seq(EventSourcedStreamIn(InInit(init), _)), source) =>
-          source.via(runEntity(init))
+          source.via(withDispatcher(runEntity(init), componentDispatchers.get(init.serviceName)))
         case (Seq(), _) =>
           // if error during recovery in runtime the stream will be completed before init
           log.error("Event Sourced Entity stream closed before init.")
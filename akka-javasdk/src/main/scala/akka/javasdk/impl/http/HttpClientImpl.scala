@@ -4,9 +4,9 @@
 
 package akka.javasdk.impl.http
 
+import akka.NotUsed
 import akka.actor.typed.ActorSystem
 import akka.annotation.InternalApi
-import akka.http.javadsl.Http
 import akka.http.javadsl.model.ContentType
 import akka.http.javadsl.model.ContentTypes
 import akka.http.javadsl.model.HttpCharset
@@ -17,52 +17,107 @@ import akka.http.javadsl.model.HttpMethods
 import akka.http.javadsl.model.HttpRequest
 import akka.http.javadsl.model.HttpResponse
 import akka.http.javadsl.model.headers.HttpCredentials
+import akka.http.scaladsl.model.EntityStreamSizeException
+import akka.http.scaladsl.model.{ RequestEntity => ScalaRequestEntity }
 import akka.javasdk.JsonSupport
 import akka.javasdk.http.HttpClient
 import akka.javasdk.http.RequestBuilder
+import akka.javasdk.http.ResponseTooLargeException
+import akka.javasdk.http.StreamedResponse
 import akka.javasdk.http.StrictResponse
 import akka.stream.Materializer
 import akka.stream.SystemMaterializer
+import akka.stream.javadsl.JsonFraming
 import akka.util.ByteString
 import com.fasterxml.jackson.core.JsonProcessingException
+import com.typesafe.config.Config
 import java.io.IOException
 import java.nio.charset.StandardCharsets
 import java.time.Duration
 import java.lang.{ Iterable => JIterable }
 import java.nio.charset.Charset
+import java.util.concurrent.CompletableFuture
 import java.util.concurrent.CompletionStage
 import java.util.function.Function
 
+import scala.concurrent.ExecutionContext
 import scala.concurrent.duration.DurationInt
 import scala.concurrent.duration.FiniteDuration
 import scala.jdk.CollectionConverters.SeqHasAsJava
 import scala.jdk.DurationConverters.JavaDurationOps
+import scala.jdk.FutureConverters._
 
 import akka.http.javadsl.model.StatusCodes
 
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[akka] object HttpClientImpl {
+
+  /**
+   * The maximum sizes in bytes of the request and response bodies, of responses read into memory and of streamed
+   * responses.
+   */
+  final case class SizeLimits(maxRequestSize: Long, maxResponseSize: Long, maxStreamedResponseSize: Long)
+
+  object SizeLimits {
+    def apply(config: Config): SizeLimits =
+      SizeLimits(
+        config.getBytes("akka.javasdk.http-client.max-request-size"),
+        config.getBytes("akka.javasdk.http-client.max-response-size"),
+        bytesOrInfinite(config, "akka.javasdk.http-client.max-streamed-response-size"))
+
+    def bytesOrInfinite(config: Config, path: String): Long =
+      if (config.getString(path) == "infinite") Long.MaxValue
+      else config.getBytes(path)
+  }
+}
+
 /**
  * INTERNAL API
  */
 @InternalApi
 private[akka] final class HttpClientImpl(
-    http: Http,
+    sender: HttpSender,
     baseUrl: String,
     materializer: Materializer,
     timeout: FiniteDuration,
+    sizeLimits: HttpClientImpl.SizeLimits,
     defaultHeaders: Seq[HttpHeader])
     extends HttpClient {
 
-  def this(system: ActorSystem[_], baseUrl: String, defaultHeaders: Seq[HttpHeader]) =
+  def this(
+      system: ActorSystem[_],
+      sender: HttpSender,
+      baseUrl: String,
+      sizeLimits: HttpClientImpl.SizeLimits,
+      defaultHeaders: Seq[HttpHeader]) =
     this(
-      Http(system),
+      sender,
       baseUrl,
       SystemMaterializer.get(system).materializer,
       // 10s higher than configured timeout, so configured timeout always win
       system.settings.config.getDuration("akka.http.server.request-timeout").toScala + 10.seconds,
+      sizeLimits,
+      defaultHeaders)
+
+  def this(system: ActorSystem[_], baseUrl: String, defaultHeaders: Seq[HttpHeader]) =
+    this(
+      system,
+      new HttpSender(system, baseUrl),
+      baseUrl,
+      HttpClientImpl.SizeLimits(system.settings.config),
       defaultHeaders)
 
   def this(system: ActorSystem[_], baseUrl: String) = this(system, baseUrl, Seq.empty)
 
+  /**
+   * A client sharing the connection setup of this client, with more default headers.
+   */
+  def withAdditionalHeaders(headers: Seq[HttpHeader]): HttpClientImpl =
+    new HttpClientImpl(sender, baseUrl, materializer, timeout, sizeLimits, headers ++ defaultHeaders)
+
   override def GET(uri: String): RequestBuilder[ByteString] = forMethod(uri, HttpMethods.GET)
 
   override def POST(uri: String): RequestBuilder[ByteString] = forMethod(uri, HttpMethods.POST)
@@ -76,9 +131,10 @@ private[akka] final class HttpClientImpl(
   private def forMethod(uri: String, method: HttpMethod) = {
     val req = HttpRequest.create(baseUrl + uri).withMethod(method)
     new RequestBuilderImpl[ByteString](
-      http,
+      sender,
       materializer,
       timeout,
+      sizeLimits,
       req.withHeaders(defaultHeaders.asJava),
       new StrictResponse[ByteString](_, _))
   }
@@ -89,11 +145,14 @@ private[akka] final class HttpClientImpl(
  */
 @InternalApi
 private[akka] final case class RequestBuilderImpl[R](
-    http: Http,
+    sender: HttpSender,
     materializer: Materializer,
     timeout: FiniteDuration,
+    sizeLimits: HttpClientImpl.SizeLimits,
     request: HttpRequest,
-    bodyParser: (HttpResponse, ByteString) => StrictResponse[R])
+    bodyParser: (HttpResponse, ByteString) => StrictResponse[R],
+    retries: Option[HttpSender.RetrySettings] = None,
+    hedgingPercentile: Option[Double] = None)
     extends RequestBuilder[R] {
 
   override def withRequest(request: HttpRequest): RequestBuilder[R] = copy(request = request)
@@ -108,8 +167,61 @@ private[akka] final case class RequestBuilderImpl[R](
   override def addCredentials(credentials: HttpCredentials): RequestBuilder[R] = withRequest(
     request.addCredentials(credentials))
 
-  override def withTimeout(timeout: Duration) =
-    new RequestBuilderImpl[R](http, materializer, timeout.toScala, request, bodyParser)
+  override def withTimeout(timeout: Duration): RequestBuilder[R] = copy(timeout = timeout.toScala)
+
+  override def withRetries(maxRetries: Int, minBackoff: Duration, maxBackoff: Duration): RequestBuilder[R] =
+    copy(retries = Some(HttpSender.RetrySettings(maxRetries, minBackoff.toScala, maxBackoff.toScala)))
+
+  override def withHedging(latencyPercentile: Double): RequestBuilder[R] = {
+    if (latencyPercentile <= 0.0 || latencyPercentile >= 1.0)
+      throw new IllegalArgumentException(s"latencyPercentile must be between 0 and 1, was [$latencyPercentile]")
+    copy(hedgingPercentile = Some(latencyPercentile))
+  }
+
+  override def withMaxResponseSize(maxBytes: Long): RequestBuilder[R] = {
+    if (maxBytes <= 0) throw new IllegalArgumentException(s"maxBytes must be greater than 0, was [$maxBytes]")
+    copy(sizeLimits = sizeLimits.copy(maxResponseSize = maxBytes, maxStreamedResponseSize = maxBytes))
+  }
+
+  private def send(): CompletionStage[HttpResponse] = {
+    val contentLength = request.entity.getContentLengthOption
+    if (contentLength.isPresent && contentLength.getAsLong > sizeLimits.maxRequestSize)
+      CompletableFuture.failedFuture(requestTooLarge(s" of [${contentLength.getAsLong}] bytes"))
+    else {
+      // a streamed body fails the request once more than the maximum has been sent
+      val limitedRequest = request.entity match {
+        case entity: ScalaRequestEntity if !entity.isKnownEmpty && !entity.isStrict =>
+          request.withEntity(entity.withSizeLimit(sizeLimits.maxRequestSize))
+        case _ => request
+      }
+      sender(limitedRequest, retries, hedgingPercentile).asScala
+        .recover { case _: EntityStreamSizeException => throw requestTooLarge("") }(ExecutionContext.parasitic)
+        .asJava
+    }
+  }
+
+  private def requestTooLarge(size: String): IllegalArgumentException =
+    new IllegalArgumentException(
+      s"Request body for [${request.getUri}]$size is larger than the maximum request size of " +
+      s"[${sizeLimits.maxRequestSize}] bytes")
+
+  // the size limit is enforced while the body arrives, it is not needed to wait for all of it to fail
+  private def limitedBody(response: HttpResponse, maxSize: Long): HttpEntity =
+    response.entity.withSizeLimit(maxSize)
+
+  private def toStrict(response: HttpResponse): CompletionStage[HttpEntity.Strict] =
+    limitedBody(response, sizeLimits.maxResponseSize)
+      .toStrict(timeout.toMillis, materializer)
+      .asScala
+      .recover { case ex: EntityStreamSizeException => throw responseTooLarge(ex) }(ExecutionContext.parasitic)
+      .asJava
+
+  private def responseTooLarge(ex: EntityStreamSizeException): ResponseTooLargeException = {
+    val actualSize = ex.actualSize.fold("")(size => s" of [$size] bytes")
+    new ResponseTooLargeException(
+      s"Response for [${request.getUri}]$actualSize is larger than the maximum response size of [${ex.limit}] bytes",
+      ex.limit)
+  }
 
   override def modifyRequest(adapter: Function[HttpRequest, HttpRequest]): RequestBuilder[R] = withRequest(
     adapter.apply(request))
@@ -142,17 +254,47 @@ private[akka] final case class RequestBuilderImpl[R](
     withRequest(requestWithBody)
   }
 
-  override def invokeAsync: CompletionStage[StrictResponse[R]] = http
-    .singleRequest(request)
-    .thenCompose((response: HttpResponse) =>
-      response.entity
-        .toStrict(timeout.toMillis, materializer)
-        .thenApply((entity: HttpEntity.Strict) => bodyParser.apply(response, entity.getData)))
+  override def invokeAsync: CompletionStage[StrictResponse[R]] =
+    send()
+      .thenCompose((response: HttpResponse) =>
+        toStrict(response)
+          .thenApply((entity: HttpEntity.Strict) => bodyParser.apply(response, entity.getData)))
+
+  override def invokeStreamAsync(): CompletionStage[StreamedResponse[ByteString]] =
+    send()
+      .thenApply { (response: HttpResponse) =>
+        val body = limitedBody(response, sizeLimits.maxStreamedResponseSize).getDataBytes
+          .mapError { case ex: EntityStreamSizeException => responseTooLarge(ex) }
+          .mapMaterializedValue[NotUsed](_ => NotUsed)
+        new StreamedResponse[ByteString](response, body)
+      }
+
+  override def invokeStreamAsync[T](elementType: Class[T]): CompletionStage[StreamedResponse[T]] =
+    send()
+      .thenCompose[StreamedResponse[T]] { (response: HttpResponse) =>
+        if (response.status.isFailure)
+          toStrict(response)
+            .thenApply[StreamedResponse[T]] { (entity: HttpEntity.Strict) =>
+              throw new RuntimeException(
+                "HTTP request for [" + request.getUri + "] failed with HTTP status " + response.status + ": " +
+                entity.getData.utf8String)
+            }
+        else {
+          val elements = limitedBody(response, sizeLimits.maxStreamedResponseSize).getDataBytes
+            .mapError { case ex: EntityStreamSizeException => responseTooLarge(ex) }
+            .via(JsonObjectElements.validate)
+            .via(JsonFraming.objectScanner(RequestBuilder.MAX_STREAMED_ELEMENT_BYTES))
+            .map(bytes => JsonSupport.parseBytes(bytes.toArrayUnsafe(), elementType))
+            .mapMaterializedValue[NotUsed](_ => NotUsed)
+          CompletableFuture.completedFuture(new StreamedResponse[T](response, elements))
+        }
+      }
 
   override def responseBodyAs[T](`type`: Class[T]) = new RequestBuilderImpl[T](
-    http,
+    sender,
     materializer,
     timeout,
+    sizeLimits,
     request,
     { (res: HttpResponse, bytes: ByteString) =>
       try if (res.status.isFailure) {
@@ -183,13 +325,11 @@ private[akka] final case class RequestBuilderImpl[R](
         case e: IOException =>
           throw new RuntimeException(e)
       }
-    })
+    },
+    retries,
+    hedgingPercentile)
 
   override def parseResponseBody[T](parse: Function[Array[Byte], T]) =
-    new RequestBuilderImpl[T](
-      http,
-      materializer,
-      timeout,
-      request,
-      (res: HttpResponse, bytes: ByteString) => new StrictResponse[T](res, parse.apply(bytes.toArray)))
+    copy[T](bodyParser =
+      (res: HttpResponse, bytes: ByteString) => new StrictResponse[T](res, parse.apply(bytes.toArrayUnsafe())))
 }
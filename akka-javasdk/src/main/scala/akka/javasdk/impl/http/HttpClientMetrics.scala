@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.http
+
+import java.util.concurrent.TimeUnit
+
+import scala.concurrent.duration.DurationLong
+import scala.concurrent.duration.FiniteDuration
+
+import akka.annotation.InternalApi
+import io.opentelemetry.api.common.AttributeKey
+import io.opentelemetry.api.common.Attributes
+import io.opentelemetry.api.metrics.Meter
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[http] object HttpClientMetrics {
+
+  sealed abstract class Attempt(val name: String)
+  case object First extends Attempt("first")
+  case object Retry extends Attempt("retry")
+  case object Hedge extends Attempt("hedge")
+
+  private val TargetAttribute = AttributeKey.stringKey("target")
+  private val AttemptAttribute = AttributeKey.stringKey("attempt")
+
+  // the latency percentiles used for hedging are computed over this many of the most recent requests
+  private val LatencyWindow = 256
+  private val MinLatencySamples = 20
+}
+
+/**
+ * INTERNAL API
+ *
+ * Attempts, hedges and latency of the requests of the HTTP clients for one target, a service or a host.
+ */
+@InternalApi
+private[http] final class HttpClientMetrics(target: String, meter: Meter) {
+  import HttpClientMetrics._
+
+  private val attributes = Attributes.of(TargetAttribute, target)
+
+  private val attempts = meter
+    .counterBuilder("akka.javasdk.http_client.attempts")
+    .setDescription("Number of attempts to send a request, the first attempt, retries and hedged attempts")
+    .build()
+  private val hedgesWon = meter
+    .counterBuilder("akka.javasdk.http_client.hedges_won")
+    .setDescription("Number of hedged attempts that got a response before the attempt they hedged")
+    .build()
+  private val duration = meter
+    .histogramBuilder("akka.javasdk.http_client.attempt.duration")
+    .setDescription(
+      "Time from sending an attempt until its response headers arrived, including the wait for a pooled connection")
+    .setUnit("s")
+    .build()
+
+  // guarded by this
+  private val recentLatencies = new Array[Long](LatencyWindow)
+  private var recorded = 0L
+
+  def attempted(attempt: Attempt): Unit =
+    attempts.add(1, Attributes.of(TargetAttribute, target, AttemptAttribute, attempt.name))
+
+  def hedgeWon(): Unit =
+    hedgesWon.add(1, attributes)
+
+  def responded(startNanos: Long): Unit = {
+    val latencyNanos = System.nanoTime() - startNanos
+    duration.record(latencyNanos.toDouble / TimeUnit.SECONDS.toNanos(1), attributes)
+    synchronized {
+      recentLatencies((recorded % LatencyWindow).toInt) = latencyNanos
+      recorded += 1
+    }
+  }
+
+  /**
+   * @return
+   *   the latency at the given percentile, between 0 and 1, of the most recent responses, None until enough responses
+   *   have been recorded
+   */
+  def latencyPercentile(percentile: Double): Option[FiniteDuration] = {
+    val latencies = synchronized {
+      if (recorded < MinLatencySamples) Array.emptyLongArray
+      else recentLatencies.take(math.min(recorded, LatencyWindow.toLong).toInt)
+    }
+    if (latencies.isEmpty) None
+    else {
+      java.util.Arrays.sort(latencies)
+      val index = math.min(latencies.length - 1, math.ceil(percentile * latencies.length).toInt - 1).max(0)
+      Some(latencies(index).nanos)
+    }
+  }
+}
@@ -4,11 +4,19 @@
 
 package akka.javasdk.impl.http
 
+import java.util.concurrent.CompletionStage
+import java.util.concurrent.ConcurrentHashMap
+
 import akka.actor.typed.ActorSystem
 import akka.annotation.InternalApi
 import akka.discovery.Discovery
+import akka.http.javadsl.Http
 import akka.http.javadsl.model.HttpHeader
+import akka.http.javadsl.model.HttpRequest
+import akka.http.javadsl.model.HttpResponse
+import akka.http.javadsl.model.Uri
 import akka.http.javadsl.model.headers.RawHeader
+import akka.http.javadsl.settings.ConnectionPoolSettings
 import akka.javasdk.http.HttpClient
 import akka.javasdk.http.HttpClientProvider
 import akka.javasdk.impl.Settings
@@ -16,22 +24,167 @@ import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator
 import io.opentelemetry.context.{ Context => OtelContext }
 import org.slf4j.LoggerFactory
 
-import scala.concurrent.Await
+import scala.concurrent.Future
 import scala.concurrent.duration.DurationInt
+import scala.jdk.FutureConverters.FutureOps
 import scala.util.control.NonFatal
 
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[akka] object HttpClientProviderImpl {
+
+  // protects against unbounded growth when clients are requested for ever changing urls, also bounds the senders
+  private[http] val MaxCachedClients = 1000
+
+  private final case class CachedAddress(address: Future[(String, Int)], resolvedAtNanos: Long)
+
+  private def isServiceName(name: String): Boolean =
+    !name.contains('.') && !name.contains(':') && name != "localhost"
+
+  // the requests of a client are sent with the connection pool settings of its target, if any
+  private def singleRequest(
+      system: ActorSystem[_]): Option[ConnectionPoolSettings] => HttpRequest => CompletionStage[HttpResponse] = {
+    val http = Http(system)
+    poolSettings =>
+      poolSettings.fold(HttpSender.singleRequest(http))(HttpSender.singleRequest(http, _, system.classicSystem.log))
+  }
+
+  /**
+   * The clients by name, the senders by target and the addresses of services found in dev mode, shared by the
+   * providers of all trace contexts.
+   */
+  final class SharedClients(
+      system: ActorSystem[_],
+      remoteIdentificationHeader: Option[RawHeader],
+      settings: Settings,
+      sendWith: Option[ConnectionPoolSettings] => HttpRequest => CompletionStage[HttpResponse]) {
+
+    def this(system: ActorSystem[_], remoteIdentificationHeader: Option[RawHeader], settings: Settings) =
+      this(system, remoteIdentificationHeader, settings, singleRequest(system))
+
+    private val log = LoggerFactory.getLogger(classOf[HttpClientProvider])
+    private val clients = new ConcurrentHashMap[String, HttpClientImpl]()
+    // by whether the target is a service and the target, the clients of urls with the same host share a sender
+    private val senders = new ConcurrentHashMap[(Boolean, String), HttpSender]()
+    private val addresses = new ConcurrentHashMap[String, CachedAddress]()
+    private val discoveryCacheTtlNanos = settings.httpClientDiscoveryCacheTtl.toNanos
+
+    def clientFor(name: String): HttpClientImpl = {
+      val client = clients.get(name)
+      if (client ne null) client
+      else if (clients.size() >= MaxCachedClients) createClient(name)
+      else clients.computeIfAbsent(name, _ => createClient(name))
+    }
+
+    private def createClient(name: String): HttpClientImpl = {
+      val nameIsService = isServiceName(name)
+      val baseUrl =
+        if (nameIsService) {
+          // production, request to other service, service mesh manages TLS,
+          // in dev mode the address of the service is looked up for each request
+          s"http://$name"
+        } else {
+          // if it isn't a service, we expect it is arbitrary http or https server including the protocol part
+          if (!name.startsWith("http://") && !name.startsWith("https://"))
+            throw new IllegalArgumentException(
+              s"httpClientFor accepts an akka service name or an arbitrary http server prefixed by http:// or https://, got [$name]")
+          name
+        }
+
+      val target = if (nameIsService) name else Uri.create(name).host.address
+      val sender = senderFor(nameIsService, target)
+
+      val sizeLimits = HttpClientImpl.SizeLimits(
+        maxRequestSize = settings.httpClientMaxRequestSize,
+        maxResponseSize = settings.httpClientMaxResponseSizes.getOrElse(target, settings.httpClientMaxResponseSize),
+        maxStreamedResponseSize = settings.httpClientMaxStreamedResponseSize)
+
+      if (nameIsService)
+        // cross service request, include auth
+        new HttpClientImpl(system, sender, baseUrl, sizeLimits, remoteIdentificationHeader.toSeq)
+      else
+        // arbitrary http request
+        new HttpClientImpl(system, sender, baseUrl, sizeLimits, Seq.empty)
+    }
+
+    // one sender per target, so that the metrics and the latency window used for hedging cover all its requests
+    private def senderFor(nameIsService: Boolean, target: String): HttpSender = {
+      val key = (nameIsService, target)
+      val sender = senders.get(key)
+      if (sender ne null) sender
+      else if (senders.size() >= MaxCachedClients) createSender(nameIsService, target)
+      else senders.computeIfAbsent(key, _ => createSender(nameIsService, target))
+    }
+
+    private def createSender(nameIsService: Boolean, target: String): HttpSender = {
+      val send = sendWith(settings.httpClientConnectionPools.get(target).map { poolConfig =>
+        ConnectionPoolSettings.create(
+          poolConfig.atPath("akka.http.host-connection-pool").withFallback(system.settings.config))
+      })
+      val targetSend =
+        if (nameIsService && settings.devModeSettings.isDefined) sendToLocalService(target, send) else send
+      new HttpSender(system, targetSend, target)
+    }
+
+    // dev mode, other service name, use Akka discovery to find it, the runtime has set up a mechanism
+    // that finds locally running services
+    private def sendToLocalService(
+        name: String,
+        send: HttpRequest => CompletionStage[HttpResponse]): HttpRequest => CompletionStage[HttpResponse] = {
+      request =>
+        lookup(name).asJava.thenCompose[HttpResponse] { (address: (String, Int)) =>
+          val (host, port) = address
+          send(request.withUri(request.getUri.host(host).port(port)))
+        }
+    }
+
+    private def lookup(name: String): Future[(String, Int)] = {
+      val now = System.nanoTime()
+      val cached = addresses.get(name)
+      val cachedIsValid = (cached ne null) && now - cached.resolvedAtNanos < discoveryCacheTtlNanos &&
+        !cached.address.value.exists(_.isFailure)
+      if (cachedIsValid) cached.address
+      else {
+        val address = Discovery(system).discovery
+          .lookup(name, 5.seconds)
+          .map { result =>
+            val address = result.addresses.head
+            // port is always set
+            val port = address.port.get
+            log.debug("Local service resolution found service [{}] at [{}:{}]", name, address.host, port)
+            // always http because local
+            (address.host, port)
+          }(system.executionContext)
+          .recover { case NonFatal(ex) =>
+            throw new RuntimeException(
+              s"Failed to look up service [$name] in dev-mode, make sure that it is also running " +
+              "with a separate port and service name correctly defined in its application.conf under 'akka.javasdk.dev-mode.service-name'",
+              ex)
+          }(system.executionContext)
+        addresses.put(name, CachedAddress(address, now))
+        address
+      }
+    }
+  }
+}
+
 /**
  * INTERNAL API
  */
 @InternalApi
 private[akka] final class HttpClientProviderImpl(
-    system: ActorSystem[_],
     traceContext: Option[OtelContext],
-    remoteIdentificationHeader: Option[RawHeader],
-    settings: Settings)
+    clients: HttpClientProviderImpl.SharedClients)
     extends HttpClientProvider {
 
-  private val log = LoggerFactory.getLogger(classOf[HttpClientProvider])
+  def this(
+      system: ActorSystem[_],
+      traceContext: Option[OtelContext],
+      remoteIdentificationHeader: Option[RawHeader],
+      settings: Settings) =
+    this(traceContext, new HttpClientProviderImpl.SharedClients(system, remoteIdentificationHeader, settings))
 
   private val otelTraceHeaders: Vector[HttpHeader] = {
     val builder = Vector.newBuilder[HttpHeader]
@@ -48,58 +201,14 @@ private[akka] final class HttpClientProviderImpl(
     builder.result()
   }
 
-  private def isServiceName(name: String): Boolean =
-    !name.contains('.') && !name.contains(':') && name != "localhost"
-
   override def httpClientFor(name: String): HttpClient = {
-    val nameIsService = isServiceName(name)
-    val baseUrl =
-      if (nameIsService) {
-        if (settings.devModeSettings.isDefined) {
-          // dev mode, other service name, use Akka discovery to find it
-          // the runtime has set up a mechanism that finds locally running
-          // services. Since in dev mode blocking is probably fine for now.
-          try {
-            val result = Await.result(Discovery(system).discovery.lookup(name, 5.seconds), 5.seconds)
-            val address = result.addresses.head
-            // port is always set
-            val port = address.port.get
-            log.debug("Local service resolution found service [{}] at [{}:{}]", name, address.host, port)
-            // always http because local
-            s"http://${address.host}:$port"
-          } catch {
-            case NonFatal(ex) =>
-              throw new RuntimeException(
-                s"Failed to look up service [$name] in dev-mode, make sure that it is also running " +
-                "with a separate port and service name correctly defined in its application.conf under 'akka.javasdk.dev-mode.service-name'",
-                ex)
-          }
-        } else {
-          // production, request to other service, service mesh manages TLS
-          s"http://$name"
-        }
-      } else {
-        // if it isn't a service, we expect it is arbitrary http or https server including the protocol part
-        if (!name.startsWith("http://") && !name.startsWith("https://"))
-          throw new IllegalArgumentException(
-            s"httpClientFor accepts an akka service name or an arbitrary http server prefixed by http:// or https://, got [$name]")
-        name
-      }
-
-    // FIXME fail fast on too large request
-    // .filter(ExchangeFilterFunctions.limitResponseSize(MaxCrossServiceResponseContentLength))
-
-    val defaultHeaders =
-      if (nameIsService)
-        // cross service request, include auth
-        otelTraceHeaders ++ remoteIdentificationHeader
-      else
-        // arbitrary http request
-        otelTraceHeaders
-    new HttpClientImpl(system, baseUrl, defaultHeaders)
+    // clients are cached per name, only the trace headers differ between the providers
+    val client = clients.clientFor(name)
+    if (otelTraceHeaders.isEmpty) client
+    else client.withAdditionalHeaders(otelTraceHeaders)
   }
 
   def withTraceContext(traceContext: OtelContext): HttpClientProvider =
-    new HttpClientProviderImpl(system, Some(traceContext), remoteIdentificationHeader, settings)
+    new HttpClientProviderImpl(Some(traceContext), clients)
 
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.http
+
+import java.io.ByteArrayOutputStream
+import java.security.MessageDigest
+import java.util.Base64
+import java.util.function.Supplier
+import java.util.zip.DeflaterOutputStream
+import java.util.zip.GZIPOutputStream
+
+import akka.annotation.InternalApi
+import akka.http.javadsl.{ model => jmodel }
+import akka.http.scaladsl.model.HttpEntity
+import akka.http.scaladsl.model.HttpHeader
+import akka.http.scaladsl.model.HttpMethods
+import akka.http.scaladsl.model.HttpRequest
+import akka.http.scaladsl.model.HttpResponse
+import akka.http.scaladsl.model.StatusCodes
+import akka.http.scaladsl.model.headers.ETag
+import akka.http.scaladsl.model.headers.EntityTag
+import akka.http.scaladsl.model.headers.HttpEncoding
+import akka.http.scaladsl.model.headers.HttpEncodingRange
+import akka.http.scaladsl.model.headers.HttpEncodings
+import akka.http.scaladsl.model.headers.RawHeader
+import akka.http.scaladsl.model.headers.`Accept-Encoding`
+import akka.http.scaladsl.model.headers.`Content-Encoding`
+import akka.http.scaladsl.model.headers.`If-None-Match`
+import akka.stream.scaladsl.Compression
+import akka.util.ByteString
+
+/**
+ * INTERNAL API
+ *
+ * Conditional responses and response compression for the HTTP endpoints, based on the headers of the request.
+ */
+@InternalApi
+private[akka] object HttpResponseEncoding {
+
+  private val ConditionalMethods = Set(HttpMethods.GET, HttpMethods.HEAD)
+  private val SupportedEncodings = Seq(HttpEncodings.gzip, HttpEncodings.deflate)
+  private val VaryAcceptEncoding = RawHeader("Vary", "Accept-Encoding")
+
+  def conditional(request: jmodel.HttpRequest, etag: String, response: Supplier[jmodel.HttpResponse]): HttpResponse = {
+    // weak, the same tag is valid for every content encoding of the response
+    val tag = EntityTag(etag, weak = true)
+    if (notModified(request.asInstanceOf[HttpRequest], tag)) notModifiedResponse(tag, Nil)
+    else withETag(response.get().asInstanceOf[HttpResponse], tag)
+  }
+
+  def conditional(request: jmodel.HttpRequest, response: jmodel.HttpResponse): HttpResponse = {
+    val res = response.asInstanceOf[HttpResponse]
+    res.entity match {
+      case strict: HttpEntity.Strict if res.status == StatusCodes.OK =>
+        val tag = EntityTag(hash(strict.data), weak = true)
+        if (notModified(request.asInstanceOf[HttpRequest], tag)) notModifiedResponse(tag, res.headers)
+        else withETag(res, tag)
+      case _ => res
+    }
+  }
+
+  def compressed(request: jmodel.HttpRequest, response: jmodel.HttpResponse, minSize: Int): HttpResponse = {
+    val res = response.asInstanceOf[HttpResponse]
+    if (res.entity.isKnownEmpty || res.header[`Content-Encoding`].isDefined) res
+    else {
+      val varying = res.addHeader(VaryAcceptEncoding)
+      (negotiate(request.asInstanceOf[HttpRequest]), res.entity) match {
+        case (Some(encoding), strict: HttpEntity.Strict) if strict.data.size >= minSize =>
+          varying
+            .withEntity(HttpEntity(strict.contentType, compress(strict.data, encoding)))
+            .addHeader(`Content-Encoding`(encoding))
+        case (Some(encoding), streamed) if !streamed.isStrict =>
+          // compression flows flush after each element, so that streamed elements are not held back
+          val flow = if (encoding == HttpEncodings.gzip) Compression.gzip else Compression.deflate
+          varying.withEntity(streamed.transformDataBytes(flow)).addHeader(`Content-Encoding`(encoding))
+        case _ => varying
+      }
+    }
+  }
+
+  private def notModified(request: HttpRequest, tag: EntityTag): Boolean =
+    ConditionalMethods(request.method) &&
+    request.header[`If-None-Match`].exists { ifNoneMatch =>
+      EntityTag.matchesRange(tag, ifNoneMatch.m, weakComparison = true)
+    }
+
+  private def notModifiedResponse(tag: EntityTag, headers: Seq[HttpHeader]): HttpResponse =
+    HttpResponse(StatusCodes.NotModified, ETag(tag) +: headers.filterNot(_.is("etag")))
+
+  private def withETag(response: HttpResponse, tag: EntityTag): HttpResponse =
+    if (response.status.isSuccess) response.removeHeader("etag").addHeader(ETag(tag)) else response
+
+  private def hash(data: ByteString): String = {
+    val digest = MessageDigest.getInstance("SHA-256")
+    data.asByteBuffers.foreach(buffer => digest.update(buffer))
+    Base64.getUrlEncoder.withoutPadding.encodeToString(digest.digest().take(16))
+  }
+
+  // the first supported encoding the client accepts, an explicit range for an encoding overrides the wildcard
+  private def negotiate(request: HttpRequest): Option[HttpEncoding] =
+    request.header[`Accept-Encoding`].flatMap { accept =>
+      def qValue(encoding: HttpEncoding): Float =
+        accept.encodings
+          .collectFirst { case HttpEncodingRange.One(`encoding`, q) => q }
+          .orElse(accept.encodings.find(_.matches(encoding)).map(_.qValue))
+          .getOrElse(0f)
+      SupportedEncodings.find(qValue(_) > 0f)
+    }
+
+  private def compress(data: ByteString, encoding: HttpEncoding): ByteString = {
+    val bytes = new ByteArrayOutputStream(data.size / 2)
+    val out = if (encoding == HttpEncodings.gzip) new GZIPOutputStream(bytes) else new DeflaterOutputStream(bytes)
+    try out.write(data.toArrayUnsafe())
+    finally out.close()
+    ByteString.fromArrayUnsafe(bytes.toByteArray)
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.http
+
+import java.util.concurrent.CompletionStage
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+import scala.concurrent.Promise
+import scala.concurrent.duration.DurationLong
+import scala.concurrent.duration.FiniteDuration
+import scala.jdk.FutureConverters._
+import scala.util.Failure
+import scala.util.Success
+import scala.util.Try
+
+import akka.actor.typed.ActorSystem
+import akka.annotation.InternalApi
+import akka.event.LoggingAdapter
+import akka.http.javadsl.Http
+import akka.http.javadsl.model.HttpRequest
+import akka.http.javadsl.model.HttpResponse
+import akka.http.javadsl.settings.ConnectionPoolSettings
+import akka.javasdk.impl.telemetry.Telemetry
+import akka.pattern.after
+import akka.stream.Materializer
+import akka.stream.SystemMaterializer
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[akka] object HttpSender {
+
+  final case class RetrySettings(maxRetries: Int, minBackoff: FiniteDuration, maxBackoff: FiniteDuration) {
+    require(maxRetries >= 0, s"maxRetries must not be negative, was [$maxRetries]")
+    require(minBackoff <= maxBackoff, s"minBackoff [$minBackoff] must not be greater than maxBackoff [$maxBackoff]")
+
+    /**
+     * Exponential backoff, with up to 20% of random jitter so that clients do not retry in lockstep, at most
+     * `maxBackoff`.
+     */
+    def backoff(retry: Int): FiniteDuration = {
+      val exponential = minBackoff.toNanos * math.pow(2, retry)
+      val jittered = exponential * (1.0 + ThreadLocalRandom.current().nextDouble() * 0.2)
+      math.min(maxBackoff.toNanos.toDouble, jittered).toLong.nanos
+    }
+  }
+
+  private val RetriableStatuses = Set(502, 503, 504)
+
+  def singleRequest(http: Http): HttpRequest => CompletionStage[HttpResponse] =
+    request => http.singleRequest(request)
+
+  def singleRequest(
+      http: Http,
+      poolSettings: ConnectionPoolSettings,
+      log: LoggingAdapter): HttpRequest => CompletionStage[HttpResponse] =
+    request => http.singleRequest(request, http.defaultClientHttpsContext, poolSettings, log)
+}
+
+/**
+ * INTERNAL API
+ *
+ * Sends the requests of the HTTP clients for one target, with optional retries and hedging.
+ */
+@InternalApi
+private[akka] final class HttpSender(
+    system: ActorSystem[_],
+    send: HttpRequest => CompletionStage[HttpResponse],
+    target: String) {
+  import HttpSender._
+
+  private implicit val ec: ExecutionContext = system.executionContext
+  private val materializer: Materializer = SystemMaterializer.get(system).materializer
+  private val metrics = new HttpClientMetrics(target, Telemetry.meter)
+
+  def this(system: ActorSystem[_], target: String) =
+    this(system, HttpSender.singleRequest(Http(system)), target)
+
+  /**
+   * Only requests with an idempotent method and a strict entity, that can be sent again as is, are retried or hedged.
+   */
+  def apply(
+      request: HttpRequest,
+      retries: Option[RetrySettings],
+      hedgingPercentile: Option[Double]): CompletionStage[HttpResponse] = {
+    val repeatable = request.method.isIdempotent && request.entity.isStrict
+    if (!repeatable) attempt(request, HttpClientMetrics.First).asJava
+    else {
+      val hedgeAfter = hedgingPercentile.flatMap(metrics.latencyPercentile)
+      def loop(retry: Int): Future[HttpResponse] =
+        hedged(request, if (retry == 0) HttpClientMetrics.First else HttpClientMetrics.Retry, hedgeAfter)
+          .transformWith { outcome =>
+            retries match {
+              case Some(settings) if retry < settings.maxRetries && retriable(outcome) =>
+                outcome.foreach(_.discardEntityBytes(materializer))
+                after(settings.backoff(retry), system.classicSystem.scheduler)(loop(retry + 1))
+              case _ =>
+                Future.fromTry(outcome)
+            }
+          }
+      loop(0).asJava
+    }
+  }
+
+  private def retriable(outcome: Try[HttpResponse]): Boolean = outcome match {
+    case Success(response) => RetriableStatuses(response.status.intValue)
+    case Failure(_)        => true
+  }
+
+  private def attempt(request: HttpRequest, attempt: HttpClientMetrics.Attempt): Future[HttpResponse] = {
+    metrics.attempted(attempt)
+    val startNanos = System.nanoTime()
+    val response = send(request).asScala
+    response.foreach(_ => metrics.responded(startNanos))(ExecutionContext.parasitic)
+    response
+  }
+
+  // send a second copy of the request if the first one did not get a response in time, the first response wins,
+  // a failure only when no other attempt is still outstanding
+  private def hedged(
+      request: HttpRequest,
+      first: HttpClientMetrics.Attempt,
+      hedgeAfter: Option[FiniteDuration]): Future[HttpResponse] =
+    hedgeAfter match {
+      case None => attempt(request, first)
+      case Some(delay) =>
+        val result = Promise[HttpResponse]()
+        // attempts without an outcome yet, no more attempts are started once it has dropped to 0
+        val outstanding = new AtomicInteger(1)
+        def complete(outcome: Try[HttpResponse]): Boolean = outcome match {
+          case Success(response) =>
+            val won = result.trySuccess(response)
+            // the entity of a response that lost must be discarded to release its connection
+            if (!won) response.discardEntityBytes(materializer)
+            outstanding.decrementAndGet()
+            won
+          case Failure(_) =>
+            outstanding.decrementAndGet() == 0 && result.tryComplete(outcome)
+        }
+        val hedge = system.classicSystem.scheduler.scheduleOnce(delay) {
+          if (!result.isCompleted && outstanding.getAndUpdate(n => if (n == 0) 0 else n + 1) > 0)
+            attempt(request, HttpClientMetrics.Hedge).onComplete { outcome =>
+              if (complete(outcome) && outcome.isSuccess) metrics.hedgeWon()
+            }
+        }
+        attempt(request, first).onComplete { outcome =>
+          complete(outcome)
+          if (result.isCompleted) hedge.cancel()
+        }
+        result.future
+    }
+}
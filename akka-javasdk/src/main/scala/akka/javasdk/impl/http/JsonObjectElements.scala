@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.http
+
+import akka.NotUsed
+import akka.annotation.InternalApi
+import akka.stream.scaladsl.Flow
+import akka.stream.scaladsl.Framing.FramingException
+import akka.util.ByteString
+
+/**
+ * INTERNAL API
+ *
+ * Fails a JSON array or newline delimited JSON body with an element that is not an object, which the object scanner
+ * of the JSON framing would otherwise skip without a trace.
+ */
+@InternalApi
+private[http] object JsonObjectElements {
+
+  def validate: Flow[ByteString, ByteString, NotUsed] =
+    Flow[ByteString].statefulMap(() => new Scanner)(
+      { (scanner, bytes) =>
+        scanner.scan(bytes)
+        (scanner, bytes)
+      },
+      _ => None)
+
+  // tracks the nesting of the body, only the characters at the level of the elements are checked
+  private final class Scanner {
+    private var depth = 0
+    private var inArray = false
+    private var inString = false
+    private var escaped = false
+
+    private def elementLevel: Int = if (inArray) 1 else 0
+
+    def scan(bytes: ByteString): Unit = {
+      var i = 0
+      while (i < bytes.length) {
+        val c = bytes(i).toChar
+        if (inString) {
+          if (escaped) escaped = false
+          else if (c == '\\') escaped = true
+          else if (c == '"') inString = false
+        } else
+          c match {
+            case '{'                            => depth += 1
+            case '}'                            => depth -= 1
+            case '[' if depth == 0 && !inArray =>
+              inArray = true
+              depth = 1
+            case '[' if depth > elementLevel    => depth += 1
+            case ']' if depth > elementLevel    => depth -= 1
+            case ']' if inArray && depth == 1   => depth = 0
+            case '"' if depth > elementLevel    => inString = true
+            case ',' | ' ' | '\n' | '\r' | '\t' => // separators
+            case _ if depth > elementLevel      => // inside an element
+            case other                          => throw notAnObject(other)
+          }
+        i += 1
+      }
+    }
+
+    private def notAnObject(c: Char) =
+      new FramingException(s"Expected a JSON object or an array of JSON objects, found [$c] outside of an object")
+  }
+}
@@ -4,22 +4,80 @@
 
 package akka.javasdk.impl.http
 
+import akka.annotation.InternalApi
 import akka.javasdk.JsonSupport
 import akka.javasdk.JwtClaims
 import akka.runtime.sdk.spi.{ JwtClaims => RuntimeJwtClaims }
 import com.fasterxml.jackson.core.JsonProcessingException
 import com.fasterxml.jackson.databind.JsonNode
+import com.fasterxml.jackson.databind.ObjectReader
 import com.fasterxml.jackson.databind.`type`.TypeFactory
 
 import java.lang
 import java.time.Instant
 import java.util
 import java.util.Optional
+import java.util.concurrent.ConcurrentHashMap
 import java.util.stream.Collectors
 import scala.jdk.CollectionConverters._
 import scala.jdk.OptionConverters.RichOption
 
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[akka] object JwtClaimsImpl {
+
+  private def listReader(elementType: Class[_]): ObjectReader =
+    JsonSupport.getObjectMapper.readerFor(
+      TypeFactory.defaultInstance.constructCollectionType(classOf[util.List[_]], elementType))
+
+  // readers are immutable and thread safe, created once instead of for each claim
+  private lazy val StringListReader = listReader(classOf[String])
+  private lazy val IntegerListReader = listReader(classOf[Integer])
+  private lazy val LongListReader = listReader(classOf[lang.Long])
+  private lazy val DoubleListReader = listReader(classOf[lang.Double])
+  private lazy val BooleanListReader = listReader(classOf[lang.Boolean])
+  private lazy val ObjectListReader = listReader(classOf[JsonNode])
+}
+
+/**
+ * The claims are read from the runtime once, and JSON claims are parsed at most once, when first accessed.
+ */
 class JwtClaimsImpl(jwtClaims: RuntimeJwtClaims) extends JwtClaims {
+  import JwtClaimsImpl._
+
+  private lazy val claimNames: util.List[String] =
+    util.Collections.unmodifiableList(jwtClaims.getAllClaimNames.toList.asJava)
+
+  private lazy val rawClaims: Map[String, String] =
+    jwtClaims.getAllClaimNames.flatMap(claimName => jwtClaims.getRawClaim(claimName).map(claimName -> _)).toMap
+
+  private lazy val rawClaimsAsJava: util.Map[String, String] = util.Collections.unmodifiableMap(rawClaims.asJava)
+
+  // parsed JSON of the claims by name, None for claims that are not valid JSON
+  private val parsedClaims = new ConcurrentHashMap[String, Option[JsonNode]]()
+
+  private def jsonClaim(name: String): Option[JsonNode] =
+    rawClaims.get(name).flatMap { value =>
+      parsedClaims.computeIfAbsent(
+        name,
+        _ =>
+          try Option(JsonSupport.getObjectMapper.readTree(value))
+          catch {
+            case _: JsonProcessingException => None
+          })
+    }
+
+  private def readList[T](name: String, reader: ObjectReader): Optional[util.List[T]] =
+    jsonClaim(name) match {
+      case Some(node) if !node.isMissingNode =>
+        try Optional.of(reader.readValue[util.List[T]](node))
+        catch {
+          case _: java.io.IOException => Optional.empty
+        }
+      case _ => Optional.empty
+    }
 
   /**
    * Returns the names of all the claims in this request.
@@ -27,8 +85,7 @@ class JwtClaimsImpl(jwtClaims: RuntimeJwtClaims) extends JwtClaims {
    * @return
    *   The names of all the claims in this request.
    */
-  override def allClaimNames(): lang.Iterable[String] =
-    jwtClaims.getAllClaimNames.toList.asJava
+  override def allClaimNames(): lang.Iterable[String] = claimNames
 
   /**
    * Returns all the claims as a map of strings to strings.
@@ -39,13 +96,7 @@ class JwtClaimsImpl(jwtClaims: RuntimeJwtClaims) extends JwtClaims {
    * @return
    *   All the claims represented as a map of string claim names to string values.
    */
-  override def asMap(): util.Map[String, String] =
-    jwtClaims.getAllClaimNames
-      .flatMap { claimName =>
-        jwtClaims.getRawClaim(claimName).map(claimName -> _)
-      }
-      .toMap
-      .asJava
+  override def asMap(): util.Map[String, String] = rawClaimsAsJava
 
   /**
    * Get the string claim with the given name.
@@ -58,7 +109,7 @@ class JwtClaimsImpl(jwtClaims: RuntimeJwtClaims) extends JwtClaims {
    *   The string claim, if present.
    */
   override def getString(name: String): Optional[String] =
-    jwtClaims.getRawClaim(name).toJava
+    rawClaims.get(name).toJava
 
   /**
    * Does this request have any claims that have been validated?
@@ -66,7 +117,7 @@ class JwtClaimsImpl(jwtClaims: RuntimeJwtClaims) extends JwtClaims {
    * @return
    *   true if there are claims.
    */
-  def hasClaims: Boolean = allClaimNames.iterator.hasNext
+  def hasClaims: Boolean = !claimNames.isEmpty
 
   /**
    * Get the issuer, that is, the <tt>iss</tt> claim, as described in RFC 7519 section 4.1.1.
@@ -198,13 +249,9 @@ class JwtClaimsImpl(jwtClaims: RuntimeJwtClaims) extends JwtClaims {
    *   The boolean claim, if present. Returns empty if the claim is not a boolean or can't be parsed as a boolean.
    */
   def getBoolean(name: String): Optional[lang.Boolean] = getString(name).flatMap((value: String) => {
-    def foo(value: String) = {
-      if (value.equalsIgnoreCase("true")) Optional.of(lang.Boolean.TRUE)
-      else if (value.equalsIgnoreCase("false")) Optional.of(lang.Boolean.FALSE)
-      Optional.empty
-    }
-
-    foo(value)
+    if (value.equalsIgnoreCase("true")) Optional.of(lang.Boolean.TRUE)
+    else if (value.equalsIgnoreCase("false")) Optional.of(lang.Boolean.FALSE)
+    else Optional.empty[lang.Boolean]
   })
 
   /**
@@ -232,14 +279,9 @@ class JwtClaimsImpl(jwtClaims: RuntimeJwtClaims) extends JwtClaims {
    * @return
    *   The object claim, if present. Returns empty if the claim is not an object or can't be parsed as an object.
    */
-  def getObject(name: String): Optional[JsonNode] = getString(name).flatMap((value: String) => {
-    try Optional.of(JsonSupport.getObjectMapper.readTree(value))
-    catch {
-      case e: JsonProcessingException =>
-        Optional.empty
-    }
-
-  })
+  def getObject(name: String): Optional[JsonNode] =
+    // a copy, since the returned node is mutable and the parsed claim is reused
+    jsonClaim(name).map(_.deepCopy[JsonNode]()).toJava
 
   /**
    * Get the string list claim with the given name.
@@ -250,16 +292,8 @@ class JwtClaimsImpl(jwtClaims: RuntimeJwtClaims) extends JwtClaims {
    *   The string list claim, if present. Returns empty if the claim is not a JSON array of strings or cannot be parsed
    *   as a JSON array of strings.
    */
-  def getStringList(name: String): Optional[util.List[String]] = getString(name).flatMap((value: String) => {
-    try Optional.of(
-      JsonSupport.getObjectMapper
-        .readValue(value, TypeFactory.defaultInstance.constructCollectionType(classOf[util.List[_]], classOf[String])))
-    catch {
-      case e: JsonProcessingException =>
-        Optional.empty
-    }
-
-  })
+  def getStringList(name: String): Optional[util.List[String]] =
+    readList[String](name, StringListReader)
 
   /**
    * Get the integer list claim with the given name.
@@ -270,16 +304,8 @@ class JwtClaimsImpl(jwtClaims: RuntimeJwtClaims) extends JwtClaims {
    *   The integer list claim, if present. Returns empty if the claim is not a JSON array of integers or cannot be
    *   parsed as a JSON array of integers.
    */
-  def getIntegerList(name: String): Optional[util.List[Integer]] = getString(name).flatMap((value: String) => {
-    try Optional.of(
-      JsonSupport.getObjectMapper
-        .readValue(value, TypeFactory.defaultInstance.constructCollectionType(classOf[util.List[_]], classOf[Integer])))
-    catch {
-      case e: JsonProcessingException =>
-        Optional.empty
-    }
-
-  })
+  def getIntegerList(name: String): Optional[util.List[Integer]] =
+    readList[Integer](name, IntegerListReader)
 
   /**
    * Get the long list claim with the given name.
@@ -290,15 +316,8 @@ class JwtClaimsImpl(jwtClaims: RuntimeJwtClaims) extends JwtClaims {
    *   The long list claim, if present. Returns empty if the claim is not a JSON array of longs or cannot be parsed as a
    *   JSON array of longs.
    */
-  def getLongList(name: String): Optional[util.List[lang.Long]] = getString(name).flatMap((value: String) => {
-    try Optional.of(JsonSupport.getObjectMapper
-      .readValue(value, TypeFactory.defaultInstance.constructCollectionType(classOf[util.List[_]], classOf[lang.Long])))
-    catch {
-      case e: JsonProcessingException =>
-        Optional.empty
-    }
-
-  })
+  def getLongList(name: String): Optional[util.List[lang.Long]] =
+    readList[lang.Long](name, LongListReader)
 
   /**
    * Get the double list claim with the given name.
@@ -309,17 +328,8 @@ class JwtClaimsImpl(jwtClaims: RuntimeJwtClaims) extends JwtClaims {
    *   The double list claim, if present. Returns empty if the claim is not a JSON array of doubles or cannot be parsed
    *   as a JSON array of doubles.
    */
-  def getDoubleList(name: String): Optional[util.List[lang.Double]] = getString(name).flatMap((value: String) => {
-    try Optional.of(
-      JsonSupport.getObjectMapper.readValue(
-        value,
-        TypeFactory.defaultInstance.constructCollectionType(classOf[util.List[_]], classOf[lang.Double])))
-    catch {
-      case e: JsonProcessingException =>
-        Optional.empty
-    }
-
-  })
+  def getDoubleList(name: String): Optional[util.List[lang.Double]] =
+    readList[lang.Double](name, DoubleListReader)
 
   /**
    * Get the boolean list claim with the given name.
@@ -330,17 +340,8 @@ class JwtClaimsImpl(jwtClaims: RuntimeJwtClaims) extends JwtClaims {
    *   The boolean list claim, if present. Returns empty if the claim is not a JSON array of booleans or cannot be
    *   parsed as a JSON array of booleans.
    */
-  def getBooleanList(name: String): Optional[util.List[lang.Boolean]] = getString(name).flatMap((value: String) => {
-    try Optional.of(
-      JsonSupport.getObjectMapper.readValue(
-        value,
-        TypeFactory.defaultInstance.constructCollectionType(classOf[util.List[_]], classOf[lang.Boolean])))
-    catch {
-      case e: JsonProcessingException =>
-        Optional.empty
-    }
-
-  })
+  def getBooleanList(name: String): Optional[util.List[lang.Boolean]] =
+    readList[lang.Boolean](name, BooleanListReader)
 
   /**
    * Get the numeric date list claim with the given name.
@@ -364,13 +365,6 @@ class JwtClaimsImpl(jwtClaims: RuntimeJwtClaims) extends JwtClaims {
    *   The object list claim, if present. Returns empty if the claim is not a JSON array of objects or cannot be parsed
    *   as a JSON array of objects.
    */
-  def getObjectList(name: String): Optional[util.List[JsonNode]] = getString(name).flatMap((value: String) => {
-    try Optional.of(JsonSupport.getObjectMapper
-      .readValue(value, TypeFactory.defaultInstance.constructCollectionType(classOf[util.List[_]], classOf[JsonNode])))
-    catch {
-      case e: JsonProcessingException =>
-        Optional.empty
-    }
-
-  })
+  def getObjectList(name: String): Optional[util.List[JsonNode]] =
+    readList[JsonNode](name, ObjectListReader)
 }
@@ -9,6 +9,7 @@ import akka.actor.ActorSystem
 import akka.annotation.InternalApi
 import akka.javasdk.impl.AbstractContext
 import akka.javasdk.impl.ActivatableContext
+import akka.javasdk.impl.ComponentDispatchers.withDispatcher
 import akka.javasdk.impl.ErrorHandling
 import akka.javasdk.impl.ErrorHandling.BadRequestException
 import akka.javasdk.impl.JsonMessageCodec
@@ -74,7 +75,8 @@ private[impl] final class KeyValueEntitiesImpl(
     val services: Map[String, KeyValueEntityService[_, _]],
     configuration: Settings,
     sdkDispatcherName: String,
-    tracerFactory: () => Tracer)
+    tracerFactory: () => Tracer,
+    componentDispatchers: Map[String, String] = Map.empty)
     extends ValueEntities {
 
   import akka.javasdk.impl.EntityExceptions._
@@ -101,7 +103,7 @@ private[impl] final class KeyValueEntitiesImpl(
     in.prefixAndTail(1)
       .flatMapConcat {
         case (Seq(ValueEntityStreamIn(InInit(init), _)), source) =>
-          source.via(runEntity(init))
+          source.via(withDispatcher(runEntity(init), componentDispatchers.get(init.serviceName)))
         case (Seq(), _) =>
           // if error during recovery in runtime the stream will be completed before init
           log.warn("Value Entity stream closed before init.")
@@ -159,7 +159,7 @@ private[impl] final case class CombinedSubscriptionServiceMethod(
 private[impl] final case class SubscriptionServiceMethod(javaMethod: Method) extends AnyJsonRequestServiceMethod {
 
   val methodName: String = javaMethod.getName
-  val inputType: Class[_] = javaMethod.getParameterTypes.head
+  val inputType: Class[_] = Reflect.batchElementType(javaMethod).getOrElse(javaMethod.getParameterTypes.head)
 
   override def javaMethodOpt: Option[Method] = Some(javaMethod)
 
@@ -8,6 +8,7 @@ import akka.annotation.InternalApi
 import akka.javasdk.annotations.http.HttpEndpoint
 import akka.javasdk.client.ComponentClient
 import akka.javasdk.consumer.Consumer
+import akka.javasdk.consumer.MessageEnvelope
 import akka.javasdk.eventsourcedentity.EventSourcedEntity
 import akka.javasdk.impl.client.ComponentClientImpl
 import akka.javasdk.keyvalueentity.KeyValueEntity
@@ -88,6 +89,32 @@ private[impl] object Reflect {
     }
   }
 
+  /**
+   * The message type of a consumer handler accepting a batch of messages, a `java.util.List` of `MessageEnvelope<T>`.
+   */
+  def batchElementType(method: Method): Option[Class[_]] =
+    method.getGenericParameterTypes match {
+      case Array(list: ParameterizedType) if list.getRawType == classOf[util.List[_]] =>
+        list.getActualTypeArguments.head match {
+          case envelope: ParameterizedType if envelope.getRawType == classOf[MessageEnvelope[_]] =>
+            envelope.getActualTypeArguments.head match {
+              case messageType: Class[_] => Some(messageType)
+              case _                     => None
+            }
+          case _ => None
+        }
+      case _ => None
+    }
+
+  def isBatchHandler(method: Method): Boolean = batchElementType(method).isDefined
+
+  /**
+   * The type of the messages a subscription method consumes. The last parameter for single message handlers, since
+   * view update methods could have two parameters, or the message type of a batch handler.
+   */
+  def subscriptionInputType(method: Method): Class[_] =
+    batchElementType(method).getOrElse(method.getParameterTypes.last)
+
   def isReturnTypeOptional(method: Method): Boolean = {
     method.getGenericReturnType
       .asInstanceOf[ParameterizedType]
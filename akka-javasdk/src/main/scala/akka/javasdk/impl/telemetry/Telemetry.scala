@@ -8,8 +8,11 @@ import akka.annotation.InternalApi
 import akka.javasdk.Metadata
 import akka.javasdk.impl.MetadataImpl
 import akka.javasdk.impl.Service
+import io.opentelemetry.api.GlobalOpenTelemetry
 import io.opentelemetry.api.OpenTelemetry
+import io.opentelemetry.api.metrics.Meter
 import io.opentelemetry.api.trace.Span
+import io.opentelemetry.api.trace.SpanContext
 import io.opentelemetry.api.trace.SpanKind
 import io.opentelemetry.api.trace.Tracer
 import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator
@@ -70,6 +73,14 @@ case object KeyValueEntityCategory extends ComponentCategory {
   def name = "Key Value Entity"
 }
 
+/**
+ * INTERNAL API
+ */
+@InternalApi
+case object WorkflowCategory extends ComponentCategory {
+  def name = "Workflow"
+}
+
 /**
  * INTERNAL API
  */
@@ -82,6 +93,11 @@ private[akka] object Telemetry {
 
   private val logger: Logger = LoggerFactory.getLogger(getClass)
 
+  /**
+   * The meter for SDK metrics, a no-op unless an OpenTelemetry SDK has been registered globally.
+   */
+  def meter: Meter = GlobalOpenTelemetry.getMeter(TraceInstrumentation.InstrumentationScopeName)
+
   lazy val metadataGetter: TextMapGetter[Metadata] = new TextMapGetter[Metadata]() {
     override def get(carrier: Metadata, key: String): String = {
       if (logger.isTraceEnabled) logger.trace("For the key [{}] the value is [{}]", key, carrier.get(key))
@@ -155,6 +171,24 @@ private[akka] final class TraceInstrumentation(
       internalBuildSpan(service, command.name, command.metadata, subject)
     } else None
 
+  /**
+   * Creates a span for the execution of a workflow step if the command that led to it was traced
+   */
+  def buildStepSpan(service: Service, workflowId: String, stepName: String, parent: Option[SpanContext]): Option[Span] =
+    if (enabled)
+      parent.map { parentSpanContext =>
+        tracer
+          .spanBuilder(s"$traceNamePrefix.$stepName")
+          .setParent(OtelContext.root().`with`(Span.wrap(parentSpanContext)))
+          .setSpanKind(SpanKind.INTERNAL)
+          .setAttribute("component.type", service.componentType)
+          .setAttribute("component.type_id", service.componentId)
+          .setAttribute("component.id", workflowId)
+          .setAttribute("workflow.step", stepName)
+          .startSpan()
+      }
+    else None
+
   private def internalBuildSpan(
       service: Service,
       commandName: String,
@@ -21,8 +21,9 @@ import com.google.protobuf.any.{ Any => ScalaPbAny }
 @InternalApi
 private[impl] final class ReflectiveTimedActionRouter[A <: TimedAction](
     action: A,
-    commandHandlers: Map[String, CommandHandler])
-    extends TimedActionRouter[A](action) {
+    commandHandlers: Map[String, CommandHandler],
+    sharedInstance: Boolean)
+    extends TimedActionRouter[A](action, sharedInstance) {
 
   private def commandHandlerLookup(commandName: String) =
     commandHandlers.getOrElse(
@@ -54,13 +55,16 @@ private[impl] final class ReflectiveTimedActionRouter[A <: TimedAction](
       val invocationContext =
         InvocationContext(scalaPbAnyCommand, commandHandler.requestMessageDescriptor, message.metadata())
 
-      // lookup ComponentClient
-      val componentClients = Reflect.lookupComponentClientFields(action)
+      // lookup ComponentClient, not for shared instances where concurrent commands would overwrite the metadata,
+      // those get the metadata for the calling thread from the TimedActionRouter
+      if (!sharedInstance) {
+        val componentClients = Reflect.lookupComponentClientFields(action)
 
-      // inject call metadata
-      componentClients.foreach(cc =>
-        cc.callMetadata =
-          cc.callMetadata.map(existing => existing.merge(message.metadata())).orElse(Some(message.metadata())))
+        // inject call metadata
+        componentClients.foreach(cc =>
+          cc.callMetadata =
+            cc.callMetadata.map(existing => existing.merge(message.metadata())).orElse(Some(message.metadata())))
+      }
 
       val methodInvoker = commandHandler.lookupInvoker(inputTypeUrl)
       methodInvoker match {
@@ -6,6 +6,7 @@ package akka.javasdk.impl.timedaction
 
 import TimedActionRouter.HandlerNotFound
 import akka.annotation.InternalApi
+import akka.javasdk.impl.client.ComponentClientImpl
 import akka.javasdk.timedaction.CommandContext
 import akka.javasdk.timedaction.CommandEnvelope
 import akka.javasdk.timedaction.TimedAction
@@ -24,7 +25,7 @@ object TimedActionRouter {
  * INTERNAL API
  */
 @InternalApi
-abstract class TimedActionRouter[A <: TimedAction](protected val action: A) {
+abstract class TimedActionRouter[A <: TimedAction](protected val action: A, sharedInstance: Boolean) {
 
   /**
    * Handle a unary call.
@@ -59,14 +60,23 @@ abstract class TimedActionRouter[A <: TimedAction](protected val action: A) {
   def handleUnary(commandName: String, message: CommandEnvelope[Any]): TimedAction.Effect
 
   private def callWithContext[T](context: CommandContext)(func: () => T) = {
-    // only set, never cleared, to allow access from other threads in async callbacks in the action
-    // the same handler and action instance is expected to only ever be invoked for a single command
-    action._internalSetCommandContext(Optional.of(context))
+    if (sharedInstance) {
+      // a shared instance handles several commands concurrently, the context is only visible to the calling thread
+      TimedAction._internalSetCurrentCommandContext(Optional.of(context))
+    } else {
+      // only set, never cleared, to allow access from other threads in async callbacks in the action
+      // the same handler and action instance is expected to only ever be invoked for a single command
+      action._internalSetCommandContext(Optional.of(context))
+    }
     try {
-      func()
+      // a shared instance has no per command component client, the calls from this thread carry the metadata
+      if (sharedInstance) ComponentClientImpl.withCallMetadata(context.metadata())(func)
+      else func()
     } catch {
       case HandlerNotFound(name) =>
         throw new RuntimeException(s"No call handler found for call $name on ${action.getClass.getName}")
+    } finally {
+      if (sharedInstance) TimedAction._internalSetCurrentCommandContext(Optional.empty())
     }
   }
 
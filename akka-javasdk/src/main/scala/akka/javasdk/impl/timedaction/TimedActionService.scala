@@ -5,6 +5,8 @@
 package akka.javasdk.impl.timedaction
 
 import akka.annotation.InternalApi
+import akka.javasdk.impl.BlockingCalls
+import akka.javasdk.impl.ComponentDescriptorFactory
 import akka.javasdk.impl.JsonMessageCodec
 import akka.javasdk.impl.Service
 import akka.javasdk.timedaction.TimedAction
@@ -23,6 +25,18 @@ private[impl] class TimedActionService[A <: TimedAction](
     extends Service(actionClass, Actions.name, messageCodec) {
   lazy val log: Logger = LoggerFactory.getLogger(actionClass)
 
+  val sharedInstance: Boolean = ComponentDescriptorFactory.hasSharedInstance(actionClass)
+
+  val blockingCalls: Option[BlockingCalls] =
+    ComponentDescriptorFactory.blockingMaxConcurrency(actionClass).map(new BlockingCalls(_))
+
+  // created on first use, since dependencies are not available until the service has started
+  private lazy val sharedRouter: TimedActionRouter[A] = newRouter()
+
   def createRouter(): TimedActionRouter[A] =
-    new ReflectiveTimedActionRouter[A](factory(), componentDescriptor.commandHandlers)
+    if (sharedInstance) sharedRouter
+    else newRouter()
+
+  private def newRouter(): TimedActionRouter[A] =
+    new ReflectiveTimedActionRouter[A](factory(), componentDescriptor.commandHandlers, sharedInstance)
 }
@@ -5,6 +5,8 @@
 package akka.javasdk.impl.view
 
 import java.util.Optional
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
 import scala.util.control.NonFatal
 import akka.annotation.InternalApi
 import akka.javasdk.Metadata
@@ -62,7 +64,11 @@ object ViewsImpl {
  * INTERNAL API
  */
 @InternalApi
-final class ViewsImpl(_services: Map[String, ViewService[_]], sdkDispatcherName: String) extends pv.Views {
+final class ViewsImpl(
+    _services: Map[String, ViewService[_]],
+    sdkDispatcherName: String,
+    componentExecutionContexts: Map[String, ExecutionContext] = Map.empty)
+    extends pv.Views {
   import ViewsImpl.log
 
   private final val services = _services.iterator.toMap
@@ -85,63 +91,68 @@ final class ViewsImpl(_services: Map[String, ViewService[_]], sdkDispatcherName:
         case (Seq(pv.ViewStreamIn(pv.ViewStreamIn.Message.Receive(receiveEvent), _)), _) =>
           services.get(receiveEvent.serviceName) match {
             case Some(service) =>
-              // FIXME should we really create a new handler instance per incoming command ???
-              val handler = service.createRouter()
-
-              val state: Option[Any] =
-                receiveEvent.bySubjectLookupResult.flatMap(row =>
-                  row.value.map(scalaPb => service.messageCodec.decodeMessage(scalaPb)))
-
-              val commandName = receiveEvent.commandName
-              val msg = service.messageCodec.decodeMessage(receiveEvent.payload.get)
-              val metadata = MetadataImpl.of(receiveEvent.metadata.map(_.entries.toVector).getOrElse(Nil))
-              val addedToMDC = metadata.traceId match {
-                case Some(traceId) =>
-                  MDC.put(Telemetry.TRACE_ID, traceId)
-                  true
-                case None => false
-              }
-              val context = new UpdateContextImpl(commandName, metadata)
-
-              val effect =
-                try {
-                  handler._internalHandleUpdate(state, msg, context)
-                } catch {
-                  case NonFatal(error) =>
-                    log.error(s"View updater for view [${service.componentId}] threw an exception", error)
-                    throw ViewException(
-                      service.componentId,
-                      context,
-                      s"View unexpected failure: ${error.getMessage}",
-                      Some(error))
-                } finally {
-                  if (addedToMDC) MDC.remove(Telemetry.TRACE_ID)
+              def update(): pv.ViewStreamOut = {
+                // FIXME should we really create a new handler instance per incoming command ???
+                val handler = service.createRouter()
+
+                val state: Option[Any] =
+                  receiveEvent.bySubjectLookupResult.flatMap(row =>
+                    row.value.map(scalaPb => service.messageCodec.decodeMessage(scalaPb)))
+
+                val commandName = receiveEvent.commandName
+                val msg = service.messageCodec.decodeMessage(receiveEvent.payload.get)
+                val metadata = MetadataImpl.of(receiveEvent.metadata.map(_.entries.toVector).getOrElse(Nil))
+                val addedToMDC = metadata.traceId match {
+                  case Some(traceId) =>
+                    MDC.put(Telemetry.TRACE_ID, traceId)
+                    true
+                  case None => false
                 }
-
-              effect match {
-                case ViewEffectImpl.Update(newState) =>
-                  if (newState == null) {
-                    log.error(
-                      s"View updater tried to set row state to null, not allowed [${service.componentId}] threw an exception")
-                    throw ViewException(
-                      service.componentId,
-                      context,
-                      "updateState with null state is not allowed.",
-                      None)
+                val context = new UpdateContextImpl(commandName, metadata)
+
+                val effect =
+                  try {
+                    handler._internalHandleUpdate(state, msg, context)
+                  } catch {
+                    case NonFatal(error) =>
+                      log.error(s"View updater for view [${service.componentId}] threw an exception", error)
+                      throw ViewException(
+                        service.componentId,
+                        context,
+                        s"View unexpected failure: ${error.getMessage}",
+                        Some(error))
+                  } finally {
+                    if (addedToMDC) MDC.remove(Telemetry.TRACE_ID)
                   }
-                  val serializedState = ScalaPbAny.fromJavaProto(service.messageCodec.encodeJava(newState))
-                  val upsert = pv.Upsert(Some(pv.Row(value = Some(serializedState))))
-                  val out = pv.ViewStreamOut(pv.ViewStreamOut.Message.Upsert(upsert))
-                  Source.single(out)
-                case ViewEffectImpl.Delete =>
-                  val delete = pv.Delete()
-                  val out = pv.ViewStreamOut(pv.ViewStreamOut.Message.Delete(delete))
-                  Source.single(out)
-                case ViewEffectImpl.Ignore =>
-                  // ignore incoming event
-                  val upsert = pv.Upsert(None)
-                  val out = pv.ViewStreamOut(pv.ViewStreamOut.Message.Upsert(upsert))
-                  Source.single(out)
+
+                effect match {
+                  case ViewEffectImpl.Update(newState) =>
+                    if (newState == null) {
+                      log.error(
+                        s"View updater tried to set row state to null, not allowed [${service.componentId}] threw an exception")
+                      throw ViewException(
+                        service.componentId,
+                        context,
+                        "updateState with null state is not allowed.",
+                        None)
+                    }
+                    val serializedState = ScalaPbAny.fromJavaProto(service.messageCodec.encodeJava(newState))
+                    val upsert = pv.Upsert(Some(pv.Row(value = Some(serializedState))))
+                    pv.ViewStreamOut(pv.ViewStreamOut.Message.Upsert(upsert))
+                  case ViewEffectImpl.Delete =>
+                    val delete = pv.Delete()
+                    pv.ViewStreamOut(pv.ViewStreamOut.Message.Delete(delete))
+                  case ViewEffectImpl.Ignore =>
+                    // ignore incoming event
+                    val upsert = pv.Upsert(None)
+                    pv.ViewStreamOut(pv.ViewStreamOut.Message.Upsert(upsert))
+                }
+              }
+
+              // run on the dispatcher of the view with a future, an async boundary would start an actor per event
+              componentExecutionContexts.get(receiveEvent.serviceName) match {
+                case Some(executionContext) => Source.future(Future(update())(executionContext))
+                case None                   => Source.single(update())
               }
 
             case None =>
@@ -5,7 +5,9 @@
 package akka.javasdk.impl.workflow
 
 import akka.annotation.InternalApi
+import akka.javasdk.annotations.Blocking
 import akka.javasdk.impl.AnySupport
+import akka.javasdk.impl.BlockingCalls
 import akka.javasdk.impl.CommandHandler
 import akka.javasdk.impl.CommandSerialization
 import akka.javasdk.impl.InvocationContext
@@ -19,8 +21,9 @@ import com.google.protobuf.any.{ Any => ScalaPbAny }
 @InternalApi
 class ReflectiveWorkflowRouter[S, W <: Workflow[S]](
     override protected val workflow: W,
-    commandHandlers: Map[String, CommandHandler])
-    extends WorkflowRouter[S, W](workflow) {
+    commandHandlers: Map[String, CommandHandler],
+    blockingCalls: BlockingCalls = new BlockingCalls(Blocking.DEFAULT_MAX_CONCURRENCY))
+    extends WorkflowRouter[S, W](workflow, blockingCalls) {
 
   private def commandHandlerLookup(commandName: String) =
     commandHandlers.getOrElse(
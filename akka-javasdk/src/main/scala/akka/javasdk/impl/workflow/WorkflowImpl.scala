@@ -10,7 +10,11 @@ import akka.javasdk.Metadata
 import akka.javasdk.Tracing
 import akka.javasdk.impl.AbstractContext
 import akka.javasdk.impl.ActivatableContext
+import akka.javasdk.annotations.Blocking
 import akka.javasdk.impl.AnySupport
+import akka.javasdk.impl.BlockingCalls
+import akka.javasdk.impl.ComponentDescriptorFactory
+import akka.javasdk.impl.ComponentDispatchers.withDispatcher
 import akka.javasdk.impl.ErrorHandling
 import akka.javasdk.impl.ErrorHandling.BadRequestException
 import akka.javasdk.impl.JsonMessageCodec
@@ -22,6 +26,9 @@ import akka.javasdk.impl.WorkflowExceptions.ProtocolException
 import akka.javasdk.impl.WorkflowExceptions.WorkflowException
 import akka.javasdk.impl.WorkflowExceptions.failureMessageForLog
 import akka.javasdk.impl.telemetry.SpanTracingImpl
+import akka.javasdk.impl.telemetry.Telemetry
+import akka.javasdk.impl.telemetry.TraceInstrumentation
+import akka.javasdk.impl.telemetry.WorkflowCategory
 import akka.javasdk.impl.timer.TimerSchedulerImpl
 import akka.javasdk.impl.workflow.WorkflowEffectImpl.DeleteState
 import akka.javasdk.impl.workflow.WorkflowEffectImpl.End
@@ -50,6 +57,7 @@ import com.google.protobuf.duration
 import com.google.protobuf.duration.Duration
 import io.grpc.Status
 import io.opentelemetry.api.trace.Span
+import io.opentelemetry.api.trace.SpanContext
 import io.opentelemetry.api.trace.Tracer
 import kalix.protocol.component
 import kalix.protocol.component.{ Reply => ProtoReply }
@@ -74,8 +82,11 @@ import kalix.protocol.workflow_entity.{ NoTransition => ProtoNoTransition }
 import kalix.protocol.workflow_entity.{ Pause => ProtoPause }
 import kalix.protocol.workflow_entity.{ StepTransition => ProtoStepTransition }
 import org.slf4j.LoggerFactory
+import org.slf4j.MDC
 
+import java.nio.charset.StandardCharsets.UTF_8
 import java.util.Optional
+import java.util.UUID
 import scala.concurrent.ExecutionContext
 import scala.concurrent.Future
 import scala.jdk.CollectionConverters._
@@ -93,8 +104,13 @@ final class WorkflowService[S, W <: Workflow[S]](
     instanceFactory: Function[WorkflowContext, W])
     extends Service(workflowClass, WorkflowEntities.name, messageCodec) {
 
+  // shared by all instances of the workflow, to cap the concurrent blocking steps of the component
+  private val blockingCalls =
+    new BlockingCalls(
+      ComponentDescriptorFactory.blockingMaxConcurrency(workflowClass).getOrElse(Blocking.DEFAULT_MAX_CONCURRENCY))
+
   def createRouter(context: WorkflowContext) =
-    new ReflectiveWorkflowRouter[S, W](instanceFactory(context), componentDescriptor.commandHandlers)
+    new ReflectiveWorkflowRouter[S, W](instanceFactory(context), componentDescriptor.commandHandlers, blockingCalls)
 
   val strictMessageCodec = new StrictJsonMessageCodec(messageCodec)
 
@@ -109,18 +125,28 @@ final class WorkflowImpl(
     timerClient: TimerClient,
     sdkExcutionContext: ExecutionContext,
     sdkDispatcherName: String,
-    tracerFactory: () => Tracer)
+    tracerFactory: () => Tracer,
+    componentDispatchers: Map[String, String] = Map.empty,
+    storeStepTransitions: Boolean = false)
     extends kalix.protocol.workflow_entity.WorkflowEntities {
 
   private implicit val ec: ExecutionContext = sdkExcutionContext
   private final val log = LoggerFactory.getLogger(this.getClass)
 
+  private val instrumentations: Map[String, TraceInstrumentation] = services.map { case (serviceName, service) =>
+    serviceName -> new TraceInstrumentation(service.componentId, WorkflowCategory, tracerFactory)
+  }
+
+  private val metrics: Map[String, WorkflowMetrics] = services.map { case (serviceName, service) =>
+    serviceName -> new WorkflowMetrics(service.componentId, Telemetry.meter)
+  }
+
   override def handle(in: Source[WorkflowStreamIn, NotUsed]): Source[WorkflowStreamOut, NotUsed] =
     in.prefixAndTail(1)
       .flatMapConcat {
         case (Seq(WorkflowStreamIn(Init(init), _)), source) =>
           val (flow, config) = runWorkflow(init)
-          Source.single(config).concat(source.via(flow))
+          Source.single(config).concat(source.via(withDispatcher(flow, componentDispatchers.get(init.serviceName))))
 
         case (Seq(), _) =>
           // if error during recovery in runtime the stream will be completed before init
@@ -193,6 +219,17 @@ final class WorkflowImpl(
     WorkflowConfig(workflowTimeout, failoverTo, failoverRecovery, Some(stepConfig), stepConfigs)
   }
 
+  // the same for every execution of a step after the same transition, also after a failover
+  private def stepIdempotencyKey(
+      workflowId: String,
+      stepName: String,
+      stepTransitions: Long,
+      input: Option[ScalaPbAny]): String = {
+    val inputBytes = input.map(i => i.typeUrl.getBytes(UTF_8) ++ i.value.toByteArray).getOrElse(Array.emptyByteArray)
+    val key = s"$workflowId/$stepName/$stepTransitions/".getBytes(UTF_8) ++ inputBytes
+    s"$workflowId-$stepName-${UUID.nameUUIDFromBytes(key)}"
+  }
+
   private def runWorkflow(
       init: WorkflowEntityInit): (Flow[WorkflowStreamIn, WorkflowStreamOut, NotUsed], WorkflowStreamOut) = {
     val service =
@@ -205,26 +242,80 @@ final class WorkflowImpl(
       WorkflowStreamOut(
         WorkflowStreamOut.Message.Config(toWorkflowConfig(router._getWorkflowDefinition(), service.strictMessageCodec)))
 
-    init.userState match {
-      case Some(state) =>
-        val decoded = service.strictMessageCodec.decodeMessage(state)
-        router._internalSetInitState(decoded, init.finished)
-      case None => // no initial state
+    // the state as last sent to or received from the runtime, the user state it holds and the state object the user
+    // state was encoded from or decoded to, and the step transitions, kept in memory unless stored with the state,
+    // only accessed from the stream stage
+    var lastEncodedState: Option[ScalaPbAny] = None
+    var lastUserState: Option[ScalaPbAny] = None
+    var lastState: Option[Any] = None
+    var stepTransitions = 0L
+
+    def setState(state: ScalaPbAny, finished: Boolean): Unit = {
+      val (userState, transitions) = WorkflowState.decode(state)
+      val decoded = service.strictMessageCodec.decodeMessage(userState)
+      router._internalSetInitState(decoded, finished)
+      lastEncodedState = Some(state)
+      lastUserState = Some(userState)
+      lastState = Some(decoded)
+      transitions.foreach(stepTransitions = _)
     }
 
-    def toProtoEffect(effect: Workflow.Effect[_], commandId: Long, errorCode: Option[Status.Code]) = {
+    // the same object as last encoded or decoded, that cannot have been changed in place since
+    def unchangedState(state: Any): Boolean =
+      lastState.exists(_.asInstanceOf[AnyRef] eq state.asInstanceOf[AnyRef]) && WorkflowState.unmodifiable(state)
+
+    init.userState.foreach(setState(_, init.finished))
+
+    val instrumentation = instrumentations(init.serviceName)
+    val instanceMetrics = metrics(init.serviceName).instance()
+    // the span of the last traced command that transitioned the workflow, parent of the spans of the following steps
+    var lastCommandSpanContext: Option[SpanContext] = None
+
+    def toProtoEffect(
+        effect: Workflow.Effect[_],
+        commandId: Long,
+        errorCode: Option[Status.Code],
+        commandSpan: Option[Span] = None) = {
 
       def effectMessage[R](persistence: Persistence[_], transition: WorkflowEffectImpl.Transition, reply: Reply[R]) = {
+        instanceMetrics.transitioned(transition)
+        if (transition.isInstanceOf[StepTransition[_]]) {
+          stepTransitions += 1
+          if (commandSpan.isDefined) lastCommandSpanContext = commandSpan.map(_.getSpanContext)
+        }
+
+        def withState(userState: ScalaPbAny) = {
+          val encodedState =
+            if (storeStepTransitions) WorkflowState.encode(userState, stepTransitions) else userState
+          lastUserState = Some(userState)
+          if (lastEncodedState.contains(encodedState)) {
+            // unchanged, no need to send it again
+            WorkflowEffect.defaultInstance
+          } else {
+            lastEncodedState = Some(encodedState)
+            WorkflowEffect.defaultInstance.withUserState(encodedState)
+          }
+        }
 
         val protoEffect =
           persistence match {
             case UpdateState(newState) =>
               router._internalSetInitState(newState, transition.isInstanceOf[End.type])
-              WorkflowEffect.defaultInstance.withUserState(service.strictMessageCodec.encodeScala(newState))
+              if (unchangedState(newState)) {
+                // no need to encode it again
+                lastUserState.map(withState).getOrElse(WorkflowEffect.defaultInstance)
+              } else {
+                lastState = Some(newState)
+                withState(service.strictMessageCodec.encodeScala(newState))
+              }
             // TODO: persistence should be optional, but we must ensure that we don't save it back to null
             // and preferably we should not even send it over the wire.
-            case NoPersistence => WorkflowEffect.defaultInstance
-            case DeleteState   => throw new RuntimeException("Workflow state deleted not yet supported")
+            case NoPersistence if storeStepTransitions =>
+              // a stored state is sent again to store the step transitions with it
+              lastUserState.map(withState).getOrElse(WorkflowEffect.defaultInstance)
+            case NoPersistence =>
+              WorkflowEffect.defaultInstance
+            case DeleteState => throw new RuntimeException("Workflow state deleted not yet supported")
           }
 
         val toProtoTransition =
@@ -288,16 +379,18 @@ final class WorkflowImpl(
           Future.failed(ProtocolException(command, "Receiving Workflow is not the intended recipient of command"))
 
         case InCommand(command) =>
+          instanceMetrics.active()
           val metadata = MetadataImpl.of(command.metadata.map(_.entries.toVector).getOrElse(Nil))
+          val span = instrumentation.buildSpan(service, command)
+          span.foreach(s => MDC.put(Telemetry.TRACE_ID, s.getSpanContext.getTraceId))
 
           val context =
             new CommandContextImpl(
               workflowId,
               command.name,
               command.id,
-              metadata,
-              // FIXME we'd need to start a parent span for the command here to have one to base custom user spans of off?
-              None,
+              span.map(metadata.withTracing).getOrElse(metadata),
+              span,
               tracerFactory)
           val timerScheduler =
             new TimerSchedulerImpl(service.strictMessageCodec, timerClient, context.componentCallMetadata)
@@ -319,30 +412,44 @@ final class WorkflowImpl(
                 throw WorkflowException(command, s"Unexpected failure: $error", Some(error))
             } finally {
               context.deactivate() // Very important!
+              span.foreach(_.end())
+              MDC.remove(Telemetry.TRACE_ID)
             }
 
-          Future.successful(toProtoEffect(effect, command.id, errorCode))
+          Future.successful(toProtoEffect(effect, command.id, errorCode, span))
 
         case Step(executeStep) =>
+          // the state is usually the one last sent, which the router already holds unless changed in place
+          try {
+            executeStep.userState
+              .filterNot(state => lastEncodedState.contains(state) && lastState.exists(WorkflowState.unmodifiable))
+              .foreach { state =>
+                setState(state, finished = false) // here we know that workflow is still running
+              }
+          } catch {
+            case NonFatal(ex) =>
+              throw WorkflowException(
+                s"unexpected exception [${ex.getMessage}] while executing step [${executeStep.stepName}]",
+                Some(ex))
+          }
+          val stepStart = instanceMetrics.stepStarted(executeStep.stepName)
+          val span = instrumentation.buildStepSpan(service, workflowId, executeStep.stepName, lastCommandSpanContext)
           val context =
             new CommandContextImpl(
               workflowId,
               executeStep.stepName,
               executeStep.commandId,
-              Metadata.EMPTY,
-              // FIXME we'd need to start a parent span for the step here to have one to base custom user spans of off?
-              None,
-              tracerFactory)
+              span.map(MetadataImpl.Empty.withTracing).getOrElse(Metadata.EMPTY),
+              span,
+              tracerFactory,
+              Some(stepIdempotencyKey(workflowId, executeStep.stepName, stepTransitions, executeStep.input)))
           val timerScheduler =
             new TimerSchedulerImpl(service.strictMessageCodec, timerClient, context.componentCallMetadata)
           val stepResponse =
             try {
-              executeStep.userState.foreach { state =>
-                val decoded = service.strictMessageCodec.decodeMessage(state)
-                router._internalSetInitState(decoded, finished = false) // here we know that workflow is still running
-              }
               router._internalHandleStep(
                 executeStep.commandId,
+                stepTransitions,
                 executeStep.input,
                 executeStep.stepName,
                 service.strictMessageCodec,
@@ -350,18 +457,28 @@ final class WorkflowImpl(
                 context,
                 sdkExcutionContext)
             } catch {
-              case e: WorkflowException => throw e
+              case e: WorkflowException =>
+                span.foreach(_.end())
+                throw e
               case NonFatal(ex) =>
+                span.foreach(_.end())
                 throw WorkflowException(
                   s"unexpected exception [${ex.getMessage}] while executing step [${executeStep.stepName}]",
                   Some(ex))
             }
 
-          stepResponse.map { stp =>
-            WorkflowStreamOut(WorkflowStreamOut.Message.Response(stp))
-          }
+          stepResponse
+            .andThen { result =>
+              val failed = result.fold(_ => true, _.response.isExecutionFailed)
+              instanceMetrics.stepCompleted(executeStep.stepName, stepStart, failed)
+              span.foreach(_.end())
+            }
+            .map { stp =>
+              WorkflowStreamOut(WorkflowStreamOut.Message.Response(stp))
+            }
 
         case Transition(cmd) =>
+          instanceMetrics.stepResultDelivered()
           val CommandResult(effect) =
             try {
               router._internalGetNextStep(cmd.stepName, cmd.result.get, service.strictMessageCodec)
@@ -376,12 +493,7 @@ final class WorkflowImpl(
           Future.successful(toProtoEffect(effect, cmd.commandId, None))
 
         case Message.UpdateState(updateState) =>
-          updateState.userState match {
-            case Some(state) =>
-              val decoded = service.strictMessageCodec.decodeMessage(state)
-              router._internalSetInitState(decoded, updateState.finished)
-            case None => // no state
-          }
+          updateState.userState.foreach(setState(_, updateState.finished))
           Future.successful(WorkflowStreamOut(WorkflowStreamOut.Message.Empty))
 
         case Init(_) =>
@@ -410,13 +522,16 @@ private[akka] final class CommandContextImpl(
     override val commandId: Long,
     override val metadata: Metadata,
     span: Option[Span],
-    tracerFactory: () => Tracer)
+    tracerFactory: () => Tracer,
+    idempotencyKeyOpt: Option[String] = None)
     extends AbstractContext
     with CommandContext
     with ActivatableContext {
 
   override def tracing(): Tracing =
     new SpanTracingImpl(span, tracerFactory)
+
+  override def idempotencyKey(): Optional[String] = idempotencyKeyOpt.toJava
 }
 
 /**
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.workflow
+
+import java.util.concurrent.TimeUnit
+
+import akka.annotation.InternalApi
+import akka.javasdk.impl.workflow.WorkflowEffectImpl.End
+import akka.javasdk.impl.workflow.WorkflowEffectImpl.NoTransition
+import akka.javasdk.impl.workflow.WorkflowEffectImpl.Pause
+import akka.javasdk.impl.workflow.WorkflowEffectImpl.StepTransition
+import akka.javasdk.impl.workflow.WorkflowEffectImpl.Transition
+import io.opentelemetry.api.common.AttributeKey
+import io.opentelemetry.api.common.Attributes
+import io.opentelemetry.api.metrics.Meter
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[impl] object WorkflowMetrics {
+  private val ComponentIdAttribute = AttributeKey.stringKey("component.id")
+  private val StepAttribute = AttributeKey.stringKey("step")
+  private val OutcomeAttribute = AttributeKey.stringKey("outcome")
+
+  private def secondsSince(startNanos: Long): Double =
+    (System.nanoTime() - startNanos).toDouble / TimeUnit.SECONDS.toNanos(1)
+}
+
+/**
+ * INTERNAL API
+ *
+ * Metrics of the steps and transitions of the workflows of one workflow component.
+ */
+@InternalApi
+private[impl] final class WorkflowMetrics(componentId: String, meter: Meter) {
+  import WorkflowMetrics._
+
+  private val attributes = Attributes.of(ComponentIdAttribute, componentId)
+
+  private val stepDuration = meter
+    .histogramBuilder("akka.javasdk.workflow.step.duration")
+    .setDescription("Duration of the execution of a workflow step")
+    .setUnit("s")
+    .build()
+  private val stepRetries = meter
+    .counterBuilder("akka.javasdk.workflow.step.retries")
+    .setDescription("Number of times a workflow step was executed again after a failure or timeout")
+    .build()
+  private val failovers = meter
+    .counterBuilder("akka.javasdk.workflow.failovers")
+    .setDescription("Number of times a workflow failed over to another step")
+    .build()
+  private val transitions = meter
+    .counterBuilder("akka.javasdk.workflow.transitions")
+    .setDescription("Number of transitions to a workflow step")
+    .build()
+  private val pausedDuration = meter
+    .histogramBuilder("akka.javasdk.workflow.paused.duration")
+    .setDescription("Time a workflow spent paused")
+    .setUnit("s")
+    .build()
+  private val transitionsPerWorkflow = meter
+    .histogramBuilder("akka.javasdk.workflow.transitions.per_workflow")
+    .setDescription("Number of step transitions of a workflow from its start to its end")
+    .ofLongs()
+    .build()
+  private val workflowDuration = meter
+    .histogramBuilder("akka.javasdk.workflow.duration")
+    .setDescription("Duration of a workflow from its first transition to its end")
+    .setUnit("s")
+    .build()
+
+  def instance(): Instance = new Instance
+
+  private def stepAttributes(stepName: String): Attributes =
+    Attributes.of(ComponentIdAttribute, componentId, StepAttribute, stepName)
+
+  /**
+   * Tracks the timeline of one workflow instance, must only be used from the stream of that instance. Durations that
+   * start before the workflow was activated, for example after a restart, are not recorded.
+   */
+  final class Instance {
+    private var startedAtNanos: Option[Long] = None
+    private var pausedAtNanos: Option[Long] = None
+    private var transitionCount = 0L
+    private var lastStep: Option[String] = None
+    private var lastStepFailed = false
+    private var lastStepTransitioned = false
+
+    /**
+     * A command or step arrived for the workflow.
+     */
+    def active(): Unit =
+      pausedAtNanos.foreach { pausedAt =>
+        pausedDuration.record(secondsSince(pausedAt), attributes)
+        pausedAtNanos = None
+      }
+
+    /**
+     * @return the start time of the step
+     */
+    def stepStarted(stepName: String): Long = {
+      active()
+      lastStep.filterNot(_ => lastStepTransitioned).foreach { previousStep =>
+        if (previousStep == stepName) stepRetries.add(1, stepAttributes(stepName))
+        else if (lastStepFailed) failovers.add(1, stepAttributes(previousStep))
+      }
+      lastStep = Some(stepName)
+      lastStepFailed = false
+      lastStepTransitioned = false
+      System.nanoTime()
+    }
+
+    def stepCompleted(stepName: String, startNanos: Long, failed: Boolean): Unit = {
+      lastStepFailed = failed
+      stepDuration.record(
+        secondsSince(startNanos),
+        Attributes.of(
+          ComponentIdAttribute,
+          componentId,
+          StepAttribute,
+          stepName,
+          OutcomeAttribute,
+          if (failed) "failed" else "executed"))
+    }
+
+    /**
+     * The result of the last step was delivered to its transition.
+     */
+    def stepResultDelivered(): Unit =
+      lastStepTransitioned = true
+
+    def transitioned(transition: Transition): Unit =
+      transition match {
+        case StepTransition(stepName, _) =>
+          if (startedAtNanos.isEmpty) startedAtNanos = Some(System.nanoTime())
+          transitionCount += 1
+          transitions.add(1, stepAttributes(stepName))
+        case Pause =>
+          pausedAtNanos = Some(System.nanoTime())
+        case End =>
+          startedAtNanos.foreach { startedAt =>
+            transitionsPerWorkflow.record(transitionCount, attributes)
+            workflowDuration.record(secondsSince(startedAt), attributes)
+          }
+          startedAtNanos = None
+          transitionCount = 0
+        case NoTransition =>
+      }
+  }
+}
@@ -10,23 +10,32 @@ import java.util.function.{ Function => JFunc }
 import scala.jdk.FutureConverters.CompletionStageOps
 import scala.concurrent.ExecutionContext
 import scala.concurrent.Future
+import scala.concurrent.Promise
+import scala.collection.concurrent.TrieMap
+import scala.util.control.NonFatal
+import scala.jdk.CollectionConverters._
 import scala.jdk.OptionConverters.RichOptional
 import com.google.protobuf.any.{ Any => ScalaPbAny }
 import akka.javasdk.impl.WorkflowExceptions.WorkflowException
 import WorkflowRouter.CommandHandlerNotFound
 import WorkflowRouter.CommandResult
+import WorkflowRouter.StepResultKey
 import WorkflowRouter.WorkflowStepNotFound
 import WorkflowRouter.WorkflowStepNotSupported
 import akka.javasdk.impl.MessageCodec
 import akka.javasdk.workflow.CommandContext
 import akka.javasdk.workflow.Workflow
 import Workflow.AsyncCallStep
+import Workflow.BlockingCallStep
 import Workflow.CallStep
 import Workflow.Effect
+import Workflow.ParallelCallStep
 import Workflow.WorkflowDef
 import akka.annotation.InternalApi
 import akka.javasdk.JsonSupport
 import akka.javasdk.impl.AnySupport
+import akka.javasdk.impl.BlockingCalls
+import akka.javasdk.impl.ParallelCalls
 import akka.javasdk.timer.TimerScheduler
 import kalix.protocol.workflow_entity.StepExecuted
 import kalix.protocol.workflow_entity.StepExecutionFailed
@@ -50,15 +59,18 @@ object WorkflowRouter {
   final case class WorkflowStepNotSupported(stepName: String) extends RuntimeException {
     override def getMessage: String = stepName
   }
+
+  private[workflow] final case class StepResultKey(stepName: String, stepTransitions: Long, input: Option[ScalaPbAny])
 }
 
 /**
  * INTERNAL API
  */
 @InternalApi
-abstract class WorkflowRouter[S, W <: Workflow[S]](protected val workflow: W) {
+abstract class WorkflowRouter[S, W <: Workflow[S]](protected val workflow: W, blockingCalls: BlockingCalls) {
 
   private var state: Option[S] = None
+  private val stepResults = TrieMap.empty[StepResultKey, Future[ScalaPbAny]]
   private var workflowFinished: Boolean = false
   private final val log = LoggerFactory.getLogger(this.getClass)
 
@@ -72,9 +84,10 @@ abstract class WorkflowRouter[S, W <: Workflow[S]](protected val workflow: W) {
       state
   }
 
-  def _getWorkflowDefinition(): WorkflowDef[S] = {
-    workflow.definition()
-  }
+  // built once and reused for all steps and transitions of this workflow instance
+  private lazy val workflowDefinition: WorkflowDef[S] = workflow.definition()
+
+  def _getWorkflowDefinition(): WorkflowDef[S] = workflowDefinition
 
   /** INTERNAL API */
   // "public" api against the impl/testkit
@@ -129,6 +142,7 @@ abstract class WorkflowRouter[S, W <: Workflow[S]](protected val workflow: W) {
   // "public" api against the impl/testkit
   final def _internalHandleStep(
       commandId: Long,
+      stepTransitions: Long,
       input: Option[ScalaPbAny],
       stepName: String,
       messageCodec: MessageCodec,
@@ -141,26 +155,30 @@ abstract class WorkflowRouter[S, W <: Workflow[S]](protected val workflow: W) {
     workflow._internalSetCurrentState(stateOrEmpty())
     workflow._internalSetTimerScheduler(Optional.of(timerScheduler))
     workflow._internalSetCommandContext(Optional.of(commandContext))
-    val workflowDef = workflow.definition()
-
-    workflowDef.findByName(stepName).toScala match {
+    workflowDefinition.findByName(stepName).toScala match {
       case Some(call: CallStep[_, _, _, _]) =>
         throw new IllegalStateException(s"DeferredCall not supported for workflows: [$call]")
 
       case Some(call: AsyncCallStep[_, _, _]) =>
-        val decodedInput = input match {
-          case Some(inputValue) => decodeInput(messageCodec, inputValue, call.callInputClass)
-          case None             => null // to meet a signature of supplier expressed as a function
+        def execute(): Future[ScalaPbAny] = {
+          val decodedInput = input match {
+            case Some(inputValue) => decodeInput(messageCodec, inputValue, call.callInputClass)
+            case None             => null // to meet a signature of supplier expressed as a function
+          }
+
+          call.callFunc
+            .asInstanceOf[JFunc[Any, CompletionStage[Any]]]
+            .apply(decodedInput)
+            .asScala
+            .map(messageCodec.encodeScala)
         }
 
-        val future = call.callFunc
-          .asInstanceOf[JFunc[Any, CompletionStage[Any]]]
-          .apply(decodedInput)
-          .asScala
+        val future =
+          if (call.isResultCached) cachedStepResult(StepResultKey(stepName, stepTransitions, input))(execute())
+          else execute()
 
         future
-          .map { res =>
-            val encoded = messageCodec.encodeScala(res)
+          .map { encoded =>
             val executedRes = StepExecuted(Some(encoded))
 
             StepResponse(commandId, stepName, StepResponse.Response.Executed(executedRes))
@@ -169,18 +187,76 @@ abstract class WorkflowRouter[S, W <: Workflow[S]](protected val workflow: W) {
             log.error("Workflow async call failed.", t)
             StepResponse(commandId, stepName, StepResponse.Response.ExecutionFailed(StepExecutionFailed(t.getMessage)))
           }
+
+      case Some(call: BlockingCallStep[_, _, _]) =>
+        val decodedInput = input match {
+          case Some(inputValue) => decodeInput(messageCodec, inputValue, call.callInputClass)
+          case None             => null
+        }
+
+        blockingCalls
+          .run(call.callFunc.asInstanceOf[JFunc[Any, Any]].apply(decodedInput))
+          .map { result =>
+            val encoded = messageCodec.encodeScala(result)
+            StepResponse(commandId, stepName, StepResponse.Response.Executed(StepExecuted(Some(encoded))))
+          }
+          .recover { case t: Throwable =>
+            log.error("Workflow blocking call failed.", t)
+            StepResponse(commandId, stepName, StepResponse.Response.ExecutionFailed(StepExecutionFailed(t.getMessage)))
+          }
+
+      case Some(call: ParallelCallStep[_, _, _]) =>
+        val decodedInput = input match {
+          case Some(inputValue) => decodeInput(messageCodec, inputValue, call.callInputClass)
+          case None             => null
+        }
+
+        val calls = call.callFuncs.asScala.toSeq.map { callFunc => () =>
+          callFunc.asInstanceOf[JFunc[Any, CompletionStage[Any]]].apply(decodedInput).asScala
+        }
+
+        ParallelCalls
+          .run(calls, call.maxConcurrency, call.requiredSuccesses())
+          .map { results =>
+            val encoded = messageCodec.encodeScala(new java.util.ArrayList[Any](results.asJava))
+            StepResponse(commandId, stepName, StepResponse.Response.Executed(StepExecuted(Some(encoded))))
+          }
+          .recover { case t: Throwable =>
+            log.error("Workflow parallel call failed.", t)
+            StepResponse(commandId, stepName, StepResponse.Response.ExecutionFailed(StepExecutionFailed(t.getMessage)))
+          }
+
       case Some(any) => Future.failed(WorkflowStepNotSupported(any.getClass.getSimpleName))
       case None      => Future.failed(WorkflowStepNotFound(stepName))
     }
 
   }
 
+  // successful or in flight results of steps with a cached result, until the step transitions
+  private def cachedStepResult(key: StepResultKey)(execute: => Future[ScalaPbAny])(implicit
+      ec: ExecutionContext): Future[ScalaPbAny] = {
+    val promise = Promise[ScalaPbAny]()
+    stepResults.putIfAbsent(key, promise.future) match {
+      case Some(previous) =>
+        log.debug("Reusing result of step [{}] for the same input", key.stepName)
+        previous
+      case None =>
+        val result =
+          try execute
+          catch {
+            case NonFatal(ex) => Future.failed(ex)
+          }
+        promise.completeWith(result)
+        result.failed.foreach(_ => stepResults.remove(key, promise.future))
+        promise.future
+    }
+  }
+
   def _internalGetNextStep(stepName: String, result: ScalaPbAny, messageCodec: MessageCodec): CommandResult = {
+    stepResults.keys.filter(_.stepName == stepName).foreach(stepResults.remove)
 
     workflow._internalSetCurrentState(stateOrEmpty())
-    val workflowDef = workflow.definition()
-
-    workflowDef.findByName(stepName).toScala match {
+    workflowDefinition.findByName(stepName).toScala match {
       case Some(call: CallStep[_, _, _, _]) =>
         val effect =
           call.transitionFunc
@@ -197,6 +273,26 @@ abstract class WorkflowRouter[S, W <: Workflow[S]](protected val workflow: W) {
 
         CommandResult(effect)
 
+      case Some(call: BlockingCallStep[_, _, _]) =>
+        val effect =
+          call.transitionFunc
+            .asInstanceOf[JFunc[Any, Effect[Any]]]
+            .apply(decodeInput(messageCodec, result, call.transitionInputClass))
+
+        CommandResult(effect)
+
+      case Some(call: ParallelCallStep[_, _, _]) =>
+        val results = JsonSupport.decodeJsonCollection(
+          call.transitionInputClass.asInstanceOf[Class[Any]],
+          classOf[java.util.List[Any]],
+          ScalaPbAny.toJavaProto(result))
+        val effect =
+          call.transitionFunc
+            .asInstanceOf[JFunc[Any, Effect[Any]]]
+            .apply(results)
+
+        CommandResult(effect)
+
       case Some(any) => throw WorkflowStepNotSupported(any.getClass.getSimpleName)
       case None      => throw WorkflowStepNotFound(stepName)
     }
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.workflow
+
+import scala.jdk.CollectionConverters._
+import scala.util.Try
+
+import akka.annotation.InternalApi
+import com.google.protobuf.ByteString
+import com.google.protobuf.CodedInputStream
+import com.google.protobuf.CodedOutputStream
+import com.google.protobuf.WireFormat
+import com.google.protobuf.any.{ Any => ScalaPbAny }
+
+/**
+ * INTERNAL API
+ *
+ * The workflow state as stored by the runtime when storing the step transitions is enabled, the user state together
+ * with the number of step transitions made so far, so that the executions of a step can be told apart also after a
+ * failover. User states stored without it are read as they are.
+ */
+@InternalApi
+private[workflow] object WorkflowState {
+
+  final val TypeUrl = "type.akka.io/akka.javasdk.workflow.WorkflowState"
+
+  private final val UserStateField = 1
+  private final val StepTransitionsField = 2
+
+  def encode(userState: ScalaPbAny, stepTransitions: Long): ScalaPbAny = {
+    val out = ByteString.newOutput()
+    val stream = CodedOutputStream.newInstance(out)
+    stream.writeBytes(UserStateField, userState.toByteString)
+    stream.writeInt64(StepTransitionsField, stepTransitions)
+    stream.flush()
+    ScalaPbAny(TypeUrl, out.toByteString)
+  }
+
+  /**
+   * Whether the state cannot be changed in place, so that the same reference is known to be the same state: immutable
+   * values, and records and unmodifiable collections made only of those.
+   */
+  def unmodifiable(state: Any): Boolean = state match {
+    case null                                                            => true
+    case _: String | _: java.lang.Boolean | _: java.lang.Character      => true
+    case _: java.lang.Integer | _: java.lang.Long | _: java.lang.Double => true
+    case _: java.lang.Short | _: java.lang.Byte | _: java.lang.Float    => true
+    case _: java.math.BigDecimal | _: java.math.BigInteger              => true
+    case _: java.lang.Enum[_] | _: java.util.UUID                       => true
+    case value: AnyRef if value.getClass.getPackageName == "java.time"  => true
+    case record: java.lang.Record =>
+      // the components of records that are not accessible are not known
+      Try(record.getClass.getRecordComponents.forall(c => unmodifiable(c.getAccessor.invoke(record))))
+        .getOrElse(false)
+    case collection: java.util.Collection[_] if immutableCollection(collection) =>
+      collection.asScala.forall(unmodifiable)
+    case map: java.util.Map[_, _] if immutableCollection(map) =>
+      map.asScala.forall { case (key, value) => unmodifiable(key) && unmodifiable(value) }
+    case _ => false
+  }
+
+  // the collections created by List.of, Set.of, Map.of and Stream.toList
+  private def immutableCollection(collection: AnyRef): Boolean =
+    collection.getClass.getName.startsWith("java.util.ImmutableCollections$")
+
+  /** The user state and the number of step transitions, if stored with it. */
+  def decode(state: ScalaPbAny): (ScalaPbAny, Option[Long]) =
+    if (state.typeUrl != TypeUrl) (state, None)
+    else {
+      val stream = CodedInputStream.newInstance(state.value.asReadOnlyByteBuffer())
+      var userState = ScalaPbAny.defaultInstance
+      var stepTransitions = 0L
+      var done = false
+      while (!done) {
+        val tag = stream.readTag()
+        WireFormat.getTagFieldNumber(tag) match {
+          case 0                    => done = true
+          case UserStateField       => userState = ScalaPbAny.parseFrom(stream.readBytes().toByteArray)
+          case StepTransitionsField => stepTransitions = stream.readInt64()
+          case _                    => done = !stream.skipField(tag)
+        }
+      }
+      (userState, Some(stepTransitions))
+    }
+}
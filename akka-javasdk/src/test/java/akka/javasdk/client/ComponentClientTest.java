@@ -74,7 +74,7 @@ class ComponentClientTest {
         return null;
       }
     };
-    componentClient = new ComponentClientImpl(dummyComponentClients, Option.empty(), ExecutionContext.global());
+    componentClient = new ComponentClientImpl(dummyComponentClients, Option.empty(), Option.empty(), ExecutionContext.global());
   }
 
   @Test
@@ -145,6 +145,25 @@ class ComponentClientTest {
     assertEquals(10, call.message());
   }
 
+  @Test
+  public void shouldResolveTheSameMethodReferenceForEachCall() {
+    //given
+    var counterVE = descriptorFor(Counter.class, messageCodec);
+    var targetMethod = counterVE.serviceDescriptor().findMethodByName("RandomIncrease");
+
+    for (var id : java.util.List.of("abc123", "def456")) {
+      //when
+      DeferredCallImpl<Integer, Number> call = (DeferredCallImpl<Integer, Number>)
+        componentClient.forKeyValueEntity(id)
+          .method(Counter::randomIncrease)
+          .deferred(10);
+
+      //then
+      assertThat(call.componentId()).isEqualTo(ComponentDescriptorFactory.readComponentIdIdValue(Counter.class));
+      assertThat(call.methodName()).isEqualTo(targetMethod.getName());
+      assertThat(call.entityId()).isEqualTo(Option.apply(id));
+    }
+  }
 
 
   @Test
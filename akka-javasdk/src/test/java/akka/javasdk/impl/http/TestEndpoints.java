@@ -7,6 +7,7 @@ package akka.javasdk.impl.http;
 import akka.http.javadsl.model.HttpResponse;
 import akka.javasdk.annotations.Acl;
 import akka.javasdk.annotations.JWT;
+import akka.javasdk.annotations.SharedInstance;
 import akka.javasdk.annotations.http.Delete;
 import akka.javasdk.annotations.http.HttpEndpoint;
 import akka.javasdk.annotations.http.Get;
@@ -152,6 +153,16 @@ public class TestEndpoints {
         }
     }
 
+    @SharedInstance
+    @HttpEndpoint("/shared")
+    public static class InvalidSharedEndpoint {
+
+        @Get("/")
+        public String get() {
+            return "OK";
+        }
+    }
+
     @HttpEndpoint("/{id}/my-endpoint")
     public static class InvalidEndpointMethods {
 
@@ -9,6 +9,9 @@ import akka.javasdk.annotations.JWT;
 import akka.javasdk.annotations.ComponentId;
 import akka.javasdk.workflow.Workflow;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class WorkflowTestModels {
 
   @ComponentId("transfer-workflow")
@@ -88,4 +91,53 @@ public class WorkflowTestModels {
       return null;
     }
   }
+
+  @ComponentId("workflow-with-steps")
+  public static class WorkflowWithSteps extends Workflow<String> {
+
+    public int definitionsCreated = 0;
+    public final AtomicInteger cachedCalls = new AtomicInteger();
+
+    @Override
+    public WorkflowDef<String> definition() {
+      definitionsCreated++;
+
+      var first =
+          step("first")
+              .asyncCall(String.class, input -> CompletableFuture.completedFuture(input + "-first"))
+              .andThen(String.class, result -> effects().updateState(result).transitionTo("second", result));
+
+      var second =
+          step("second")
+              .asyncCall(String.class, input -> CompletableFuture.completedFuture(input + "-second"))
+              .andThen(String.class, result -> effects().updateState(result).end());
+
+      var cached =
+          step("cached")
+              .asyncCall(String.class, input -> CompletableFuture.completedFuture(input + "-" + cachedCalls.incrementAndGet()))
+              .andThen(String.class, result -> effects().updateState(result).end())
+              .cacheResult();
+
+      return workflow().addStep(first).addStep(second).addStep(cached);
+    }
+  }
+
+  @ComponentId("workflow-keeping-state")
+  public static class WorkflowKeepingState extends Workflow<String> {
+
+    @Override
+    public WorkflowDef<String> definition() {
+      var update =
+          step("update")
+              .asyncCall(String.class, CompletableFuture::completedFuture)
+              .andThen(String.class, result -> effects().updateState(currentState()).transitionTo("keep", result));
+
+      var keep =
+          step("keep")
+              .asyncCall(String.class, CompletableFuture::completedFuture)
+              .andThen(String.class, result -> effects().transitionTo("update", result));
+
+      return workflow().addStep(update).addStep(keep);
+    }
+  }
 }
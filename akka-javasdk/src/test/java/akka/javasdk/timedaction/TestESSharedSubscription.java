@@ -0,0 +1,26 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.timedaction;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.annotations.SharedInstance;
+import akka.javasdk.consumer.Consumer;
+import akka.javasdk.eventsourcedentity.TestESEvent;
+import akka.javasdk.eventsourcedentity.TestEventSourcedEntity;
+
+@ComponentId("es-shared-sub-action")
+@Consume.FromEventSourcedEntity(value = TestEventSourcedEntity.class, ignoreUnknown = true)
+@SharedInstance
+public class TestESSharedSubscription extends Consumer {
+
+  public Effect handleEvent2(TestESEvent.Event2 event) {
+    return effects().produce(messageContext().eventSubject().orElse("no-subject"));
+  }
+
+  public Effect handleEvent3(TestESEvent.Event3 event) {
+    return effects().produce(event.b());
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.http
+
+import java.time.Duration
+import java.util.zip.GZIPInputStream
+
+import scala.concurrent.duration.DurationInt
+import scala.jdk.FutureConverters._
+
+import akka.actor.testkit.typed.scaladsl.ScalaTestWithActorTestKit
+import akka.http.javadsl.model.HttpHeader
+import akka.http.javadsl.model.HttpRequest
+import akka.http.javadsl.model.HttpResponse
+import akka.http.javadsl.model.StatusCodes
+import akka.stream.javadsl.Source
+import akka.stream.scaladsl.Sink
+import akka.util.ByteString
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+class HttpResponsesSpec extends ScalaTestWithActorTestKit with AnyWordSpecLike with Matchers {
+
+  private def item(name: String): java.util.Map[String, String] = java.util.Map.of("name", name)
+
+  private def items = Source.from(java.util.List.of(item("a"), item("b")))
+
+  private def bytesOf(response: HttpResponse): ByteString =
+    response.entity.getDataBytes
+      .runFold(ByteString.empty, (acc: ByteString, bytes: ByteString) => acc ++ bytes, system)
+      .asScala
+      .futureValue
+
+  private def bodyOf(response: HttpResponse): String = bytesOf(response).utf8String
+
+  "The streamed HttpResponses" should {
+
+    "stream a JSON array" in {
+      val response = HttpResponses.streamJsonArray(items)
+      response.entity.getContentType.toString shouldBe "application/json"
+      bodyOf(response) shouldBe """[{"name":"a"},{"name":"b"}]"""
+    }
+
+    "stream an empty JSON array" in {
+      bodyOf(HttpResponses.streamJsonArray(Source.empty[java.util.Map[String, String]]())) shouldBe "[]"
+    }
+
+    "stream newline delimited JSON" in {
+      val response = HttpResponses.streamNdJson(items)
+      response.entity.getContentType.toString shouldBe "application/x-ndjson"
+      bodyOf(response) shouldBe "{\"name\":\"a\"}\n{\"name\":\"b\"}\n"
+    }
+
+    "stream server-sent events" in {
+      val response = HttpResponses.serverSentEvents(items)
+      response.entity.getContentType.toString shouldBe "text/event-stream"
+      bodyOf(response) shouldBe "data: {\"name\":\"a\"}\n\ndata: {\"name\":\"b\"}\n\n"
+    }
+
+    "send heartbeats between server-sent events when idle" in {
+      val idle = Source.single(item("a")).concat(Source.never[java.util.Map[String, String]]())
+      val response = HttpResponses.serverSentEvents(idle, Duration.ofMillis(50))
+      val received = response.entity.getDataBytes.asScala
+        .takeWithin(500.millis)
+        .runWith(Sink.fold(ByteString.empty)(_ ++ _))
+        .futureValue
+        .utf8String
+      received should startWith("data: {\"name\":\"a\"}\n\n:\n\n")
+    }
+  }
+
+  "The conditional HttpResponses" should {
+
+    "add an ETag to a response" in {
+      val response = HttpResponses.conditional(HttpRequest.GET("/"), HttpResponses.ok(item("a")))
+      response.status shouldBe StatusCodes.OK
+      response.getHeader("ETag").isPresent shouldBe true
+    }
+
+    "respond with not modified when the ETag matches" in {
+      val etag = HttpResponses.conditional(HttpRequest.GET("/"), HttpResponses.ok(item("a"))).getHeader("ETag").get
+      val request = HttpRequest.GET("/").addHeader(HttpHeader.parse("If-None-Match", etag.value))
+      val response = HttpResponses.conditional(request, HttpResponses.ok(item("a")))
+      response.status shouldBe StatusCodes.NOT_MODIFIED
+      bodyOf(response) shouldBe ""
+    }
+
+    "respond with the new body when the ETag does not match" in {
+      val etag = HttpResponses.conditional(HttpRequest.GET("/"), HttpResponses.ok(item("a"))).getHeader("ETag").get
+      val request = HttpRequest.GET("/").addHeader(HttpHeader.parse("If-None-Match", etag.value))
+      val response = HttpResponses.conditional(request, HttpResponses.ok(item("b")))
+      response.status shouldBe StatusCodes.OK
+      bodyOf(response) shouldBe "{\"name\":\"b\"}"
+    }
+
+    "not create the response when the given ETag matches" in {
+      val request = HttpRequest.GET("/").addHeader(HttpHeader.parse("If-None-Match", "W/\"42\""))
+      val response = HttpResponses.conditional(request, "42", () => fail("response should not be created"))
+      response.status shouldBe StatusCodes.NOT_MODIFIED
+      response.getHeader("ETag").get.value shouldBe "W/\"42\""
+    }
+  }
+
+  "The compressed HttpResponses" should {
+
+    val large = HttpResponses.ok("x" * 2000)
+
+    "compress a large body with gzip when accepted" in {
+      val request = HttpRequest.GET("/").addHeader(HttpHeader.parse("Accept-Encoding", "deflate, gzip"))
+      val response = HttpResponses.compressed(request, large)
+      response.getHeader("Content-Encoding").get.value shouldBe "gzip"
+      val compressed = bytesOf(response)
+      compressed.size should be < 2000
+      val decompressed = new String(new GZIPInputStream(compressed.iterator.asInputStream).readAllBytes())
+      decompressed shouldBe "x" * 2000
+    }
+
+    "not compress when not accepted" in {
+      val request = HttpRequest.GET("/").addHeader(HttpHeader.parse("Accept-Encoding", "gzip;q=0, br"))
+      val response = HttpResponses.compressed(request, large)
+      response.getHeader("Content-Encoding").isPresent shouldBe false
+      response.getHeader("Vary").get.value shouldBe "Accept-Encoding"
+    }
+
+    "not compress a small body" in {
+      val request = HttpRequest.GET("/").addHeader(HttpHeader.parse("Accept-Encoding", "gzip"))
+      val response = HttpResponses.compressed(request, HttpResponses.ok("small"))
+      response.getHeader("Content-Encoding").isPresent shouldBe false
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+
+import org.scalatest.concurrent.Eventually
+import org.scalatest.concurrent.ScalaFutures
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.time.Seconds
+import org.scalatest.time.Span
+import org.scalatest.wordspec.AnyWordSpec
+
+class BlockingCallsSpec extends AnyWordSpec with Matchers with ScalaFutures with Eventually {
+
+  private implicit val ec: ExecutionContext = ExecutionContext.global
+  override implicit val patienceConfig: PatienceConfig = PatienceConfig(timeout = Span(5, Seconds))
+
+  "BlockingCalls" should {
+
+    "complete with the result of the call" in {
+      new BlockingCalls(1).run("result").futureValue shouldBe "result"
+    }
+
+    "fail when the call throws" in {
+      val failure = new BlockingCalls(1).run[String](throw new RuntimeException("boom")).failed.futureValue
+      failure.getMessage shouldBe "boom"
+    }
+
+    "fail when the call throws a fatal error and rethrow it to the thread" in {
+      val uncaught = new AtomicReference[Throwable]()
+      val executor: Executor = { task =>
+        val thread = new Thread(task)
+        thread.setUncaughtExceptionHandler((_, ex) => uncaught.set(ex))
+        thread.start()
+      }
+      val blockingCalls = new BlockingCalls(1, executor)
+      val error = new OutOfMemoryError("test")
+
+      // futures box errors in an ExecutionException
+      blockingCalls.run[String](throw error).failed.futureValue.getCause shouldBe theSameInstanceAs(error)
+      eventually(uncaught.get() shouldBe theSameInstanceAs(error))
+      blockingCalls.pending shouldBe 0
+    }
+
+    "never run more than maxConcurrency calls at the same time" in {
+      val blockingCalls = new BlockingCalls(2)
+      val running = new AtomicInteger(0)
+      val maxRunning = new AtomicInteger(0)
+      val release = new CountDownLatch(1)
+
+      val results = (1 to 6).map { i =>
+        blockingCalls.run {
+          maxRunning.accumulateAndGet(running.incrementAndGet(), (a, b) => math.max(a, b))
+          release.await(5, TimeUnit.SECONDS)
+          running.decrementAndGet()
+          i
+        }
+      }
+
+      eventually(blockingCalls.pending shouldBe 6)
+      release.countDown()
+      Future.sequence(results).futureValue shouldBe (1 to 6)
+      maxRunning.get() shouldBe 2
+    }
+  }
+}
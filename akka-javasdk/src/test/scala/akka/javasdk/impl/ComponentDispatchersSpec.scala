@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl
+
+import akka.actor.ActorSystem
+import akka.actor.CoordinatedShutdown
+import akka.actor.testkit.typed.scaladsl.ScalaTestWithActorTestKit
+import akka.actor.typed.scaladsl.adapter._
+import akka.dispatch.Dispatchers
+import akka.javasdk.impl.telemetry.CollectingMetricReader
+import com.typesafe.config.ConfigFactory
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+object ComponentDispatchersSpec {
+  val config = ConfigFactory
+    .parseString("""
+      akka.javasdk.dispatchers.component-type {
+        consumer = "akka.javasdk.consumer-dispatcher"
+        view = "akka.javasdk.view-dispatcher"
+      }
+      akka.javasdk.dispatchers.component {
+        slow-consumer = "test-dispatcher"
+        misconfigured = "no-such-dispatcher"
+      }
+      test-dispatcher {
+        type = "Dispatcher"
+        executor = "thread-pool-executor"
+      }
+      """)
+    .withFallback(ConfigFactory.load())
+}
+
+class ComponentDispatchersSpec
+    extends ScalaTestWithActorTestKit(ComponentDispatchersSpec.config)
+    with AnyWordSpecLike
+    with Matchers {
+
+  private val dispatchers = new ComponentDispatchers(
+    system.toClassic,
+    Settings(ComponentDispatchersSpec.config.getConfig("akka.javasdk")),
+    Dispatchers.DefaultDispatcherId,
+    system.executionContext)
+
+  "The ComponentDispatchers" should {
+
+    "prefer the dispatcher configured for the component" in {
+      dispatchers.dispatcherFor(ComponentDispatchers.ConsumerType, "slow-consumer") shouldBe Some("test-dispatcher")
+    }
+
+    "use the dispatcher of the component type" in {
+      dispatchers.dispatcherFor(ComponentDispatchers.ConsumerType, "consumer") shouldBe
+      Some("akka.javasdk.consumer-dispatcher")
+      dispatchers.dispatcherFor(ComponentDispatchers.ViewType, "view") shouldBe Some("akka.javasdk.view-dispatcher")
+    }
+
+    "use the SDK dispatcher for entities by default" in {
+      dispatchers.dispatcherFor(ComponentDispatchers.EventSourcedEntityType, "entity") shouldBe None
+      dispatchers.executionContextFor(ComponentDispatchers.KeyValueEntityType, "entity") shouldBe None
+    }
+
+    "use the SDK dispatcher for every component type by default" in {
+      val defaults = new ComponentDispatchers(
+        system.toClassic,
+        Settings(ConfigFactory.load().getConfig("akka.javasdk")),
+        Dispatchers.DefaultDispatcherId,
+        system.executionContext)
+      import ComponentDispatchers._
+      Seq(EventSourcedEntityType, KeyValueEntityType, WorkflowType, ViewType, ConsumerType, TimedActionType).foreach {
+        componentType =>
+          defaults.dispatcherFor(componentType, "component") shouldBe None
+      }
+    }
+
+    "use the SDK dispatcher when the configured dispatcher does not exist" in {
+      dispatchers.dispatcherFor(ComponentDispatchers.ConsumerType, "misconfigured") shouldBe None
+    }
+
+    "measure the scheduling delay of the dispatchers until the system shuts down" in {
+      val probeSystem = ActorSystem("saturation-probe", ComponentDispatchersSpec.config)
+      val probeDispatchers = new ComponentDispatchers(
+        probeSystem,
+        Settings(ComponentDispatchersSpec.config.getConfig("akka.javasdk")),
+        Dispatchers.DefaultDispatcherId,
+        probeSystem.dispatcher)
+      val reader = new CollectingMetricReader
+      val probe = probeDispatchers.registerSaturationMetrics(reader.meter)
+
+      eventually {
+        reader.collect().keySet should contain("akka.javasdk.dispatcher.scheduling_delay")
+      }
+      reader.collect()("akka.javasdk.dispatcher.scheduling_delay").getUnit shouldBe "s"
+      probe.isCancelled shouldBe false
+
+      CoordinatedShutdown(probeSystem).run(CoordinatedShutdown.UnknownReason).futureValue
+      probe.isCancelled shouldBe true
+    }
+  }
+}
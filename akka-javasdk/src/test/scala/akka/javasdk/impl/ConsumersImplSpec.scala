@@ -18,6 +18,8 @@ import akka.javasdk.eventsourcedentity.TestESEvent.Event4
 import akka.javasdk.impl.action.ActionsImpl
 import akka.javasdk.impl.consumer.ConsumerService
 import akka.javasdk.impl.telemetry.Telemetry
+import akka.javasdk.timedaction.TestESBatchSubscription
+import akka.javasdk.timedaction.TestESSharedSubscription
 import akka.javasdk.timedaction.TestESSubscription
 import akka.javasdk.timedaction.TestTracing
 import akka.runtime.sdk.spi.DeferredRequest
@@ -41,9 +43,12 @@ import org.scalatest.matchers.should.Matchers
 import org.scalatest.wordspec.AnyWordSpecLike
 import org.slf4j.LoggerFactory
 
+import java.util.concurrent.atomic.AtomicInteger
+
 import scala.concurrent.ExecutionContext
 import scala.concurrent.Future
 import scala.concurrent.duration.FiniteDuration
+import scala.jdk.CollectionConverters._
 
 class ConsumersImplSpec
     extends ScalaTestWithActorTestKit
@@ -110,6 +115,68 @@ class ConsumersImplSpec
       }
     }
 
+    "handle messages in batches for a batch consumer" in {
+      val jsonMessageCodec = new JsonMessageCodec()
+      val consumerProvider =
+        new ConsumerService(classOf[TestESBatchSubscription], jsonMessageCodec, () => new TestESBatchSubscription)
+
+      val service = create(consumerProvider)
+      val serviceName = consumerProvider.descriptor.getFullName
+
+      val event1 = jsonMessageCodec.encodeScala(new TestESEvent.Event2(1))
+      val event2 = jsonMessageCodec.encodeScala(new TestESEvent.Event3(true))
+      val reply1 = service.handleUnary(toActionCommand(serviceName, event1))
+      reply1.isCompleted shouldBe false
+      Thread.sleep(100)
+      val reply2 = service.handleUnary(toActionCommand(serviceName, event2))
+
+      reply1.futureValue.response shouldBe a[ActionResponse.Response.Reply]
+      reply2.futureValue.response shouldBe reply1.futureValue.response
+      TestESBatchSubscription.lastBatch.asScala shouldBe Seq(new TestESEvent.Event2(1), new TestESEvent.Event3(true))
+
+      // the wait for the batch is queue time of each message, the handler time counts from the start of the handler
+      val snapshot =
+        service.asInstanceOf[ActionsImpl].consumerMetrics(consumerProvider.componentId).snapshot()
+      snapshot.get("queueLatencyMillis").get("count").asLong() shouldBe 2
+      snapshot.get("queueLatencyMillis").get("max").asLong() should be >= 100L
+      snapshot.get("handlerLatencyMillis").get("count").asLong() shouldBe 1
+    }
+
+    "reuse a single instance for a shared instance consumer" in {
+      val jsonMessageCodec = new JsonMessageCodec()
+      val instances = new AtomicInteger()
+      val consumerProvider =
+        new ConsumerService(
+          classOf[TestESSharedSubscription],
+          jsonMessageCodec,
+          () => {
+            instances.incrementAndGet()
+            new TestESSharedSubscription
+          })
+
+      val service = create(consumerProvider)
+      val serviceName = consumerProvider.descriptor.getFullName
+
+      val event = jsonMessageCodec.encodeScala(new TestESEvent.Event2(1))
+      (1 to 3).foreach { n =>
+        val metadata = Metadata(
+          Seq(
+            MetadataImpl.CeSpecversion -> MetadataImpl.CeSpecversionValue,
+            MetadataImpl.CeId -> s"$n",
+            MetadataImpl.CeSource -> "test",
+            MetadataImpl.CeType -> "event2",
+            MetadataImpl.CeSubject -> s"id-$n").map { case (key, value) =>
+            MetadataEntry(key, MetadataEntry.Value.StringValue(value))
+          })
+        val reply =
+          service.handleUnary(ActionCommand(serviceName, "KalixSyntheticMethodOnESEs", Some(event), Some(metadata)))
+        inside(reply.futureValue.response) { case ActionResponse.Response.Reply(Reply(Some(payload), _, _)) =>
+          decodeJson(classOf[String], toJavaProto(payload)) shouldBe s"id-$n"
+        }
+      }
+      instances.get() shouldBe 1
+    }
+
     "inject traces correctly into metadata and keeps trace_id in MDC" in {
       val jsonMessageCodec = new JsonMessageCodec()
       val consumerProvider =
@@ -165,11 +165,19 @@ class HttpEndpointDescriptorFactorySpec extends AnyWordSpec with Matchers {
     "complain if an ENV is missing in component level" in {
       val exception = intercept[IllegalArgumentException] {
         val valueClaimContent = "one-${ENV}-two-${ENV3}-three"
-        HttpEndpointDescriptorFactory.extractEnvVars(
+        StaticClaimMatcher.extractEnvVars(
           valueClaimContent,
           "origin-ref") shouldBe "one-value1-two-value1-three"
       }
       exception.getMessage shouldBe "[ENV3] env var is missing but it is used in claim [one-${ENV}-two-${ENV3}-three] in [origin-ref]."
     }
+
+    "fail when an endpoint is annotated with @SharedInstance" in {
+      val message = intercept[ValidationException] {
+        Validations.validate(classOf[http.TestEndpoints.InvalidSharedEndpoint]).failIfInvalid()
+      }.getMessage
+
+      message should include("@SharedInstance can only be used on a Consumer or a TimedAction.")
+    }
   }
 }
@@ -17,6 +17,7 @@ import JsonMessageCodecSpec.Cat
 import JsonMessageCodecSpec.Dog
 import JsonMessageCodecSpec.SimpleClass
 import JsonMessageCodecSpec.SimpleClassUpdated
+import akka.Done
 import akka.javasdk.JsonMigration
 import akka.javasdk.JsonSupport
 import akka.javasdk.annotations.Migration
@@ -188,6 +189,12 @@ class JsonMessageCodecSpec extends AnyWordSpec with Matchers {
       reEncoded.value shouldBe encoded.getValue
     }
 
+    "encode Done only once" in {
+      val encoded = messageCodec.encodeScala(Done)
+      encoded.typeUrl shouldBe messageCodec.typeUrlFor(Done.getClass)
+      messageCodec.encodeScala(Done) should be theSameInstanceAs encoded
+    }
+
     "fail with the same" in {
       //fill the cache
       messageCodec.encodeJava(Dog("abc"))
@@ -37,6 +37,37 @@ class MetadataImplSpec extends AnyWordSpec with Matchers with OptionValues {
       val expectedEntries = "foobar" :: "raboof" :: Nil
       merged.getAll("foobar").asScala should contain theSameElementsAs expectedEntries
     }
+
+    "look up keys ignoring their case" in {
+      val md = metadata("Foo" -> "bar", "foo" -> "baz", "other" -> "value")
+      md.has("FOO") shouldBe true
+      md.get("fOo").toScala.value shouldBe "bar"
+      md.getAll("foo").asScala shouldBe Seq("bar", "baz")
+      md.has("missing") shouldBe false
+    }
+
+    "replace all the entries of a key ignoring their case when set" in {
+      val md = metadata("Foo" -> "bar", "other" -> "value", "foo" -> "baz").set("FOO", "qux")
+      md.getAll("foo").asScala shouldBe Seq("qux")
+      md.getAllKeys.asScala shouldBe Seq("other", "FOO")
+    }
+
+    "not copy the entries when removing a missing key" in {
+      val md = metadata("foo" -> "bar")
+      md.remove("missing") should be theSameInstanceAs md
+      md.remove("FOO").has("foo") shouldBe false
+    }
+
+    "convert CloudEvent keys prefixed with ce_ when added" in {
+      val md = metadata().add("ce_subject", "subject")
+      md.getAllKeys.asScala shouldBe Seq(MetadataImpl.CeSubject)
+    }
+
+    "produce the protocol metadata with the entries in their original order" in {
+      val md = metadata("a" -> "1", "b" -> "2").add("A", "3").remove("b")
+      MetadataImpl.toProtocol(md).value.entries.map(_.key) shouldBe Seq("a", "A")
+      MetadataImpl.toProtocol(metadata()) shouldBe None
+    }
   }
 
   private def metadata(entries: (String, String)*): Metadata = {
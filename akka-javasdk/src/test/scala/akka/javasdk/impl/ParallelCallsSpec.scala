@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl
+
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+import scala.concurrent.Promise
+
+import org.scalatest.concurrent.ScalaFutures
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class ParallelCallsSpec extends AnyWordSpec with Matchers with ScalaFutures {
+
+  private implicit val ec: ExecutionContext = ExecutionContext.global
+
+  "ParallelCalls" should {
+
+    "collect all results in call order" in {
+      val slow = Promise[String]()
+      val calls = Seq(() => slow.future, () => Future.successful("b"), () => Future.successful("c"))
+
+      val result = ParallelCalls.run(calls, maxConcurrency = 3, required = 3)
+      slow.success("a")
+      result.futureValue shouldBe Seq("a", "b", "c")
+    }
+
+    "never have more than maxConcurrency calls in flight" in {
+      val inFlight = new AtomicInteger(0)
+      val maxInFlight = new AtomicInteger(0)
+      val calls = (1 to 10).map { i => () =>
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), (a, b) => math.max(a, b))
+        Future {
+          Thread.sleep(5)
+          inFlight.decrementAndGet()
+          i
+        }
+      }
+
+      ParallelCalls.run(calls, maxConcurrency = 2, required = 10).futureValue shouldBe (1 to 10)
+      maxInFlight.get() should be <= 2
+    }
+
+    "complete with the first success" in {
+      val never = Promise[String]()
+      val calls =
+        Seq(() => never.future, () => Future.failed(new RuntimeException("boom")), () => Future.successful("c"))
+
+      ParallelCalls.run(calls, maxConcurrency = 3, required = 1).futureValue shouldBe Seq("c")
+    }
+
+    "fail once the quorum can no longer be reached" in {
+      val never = Promise[String]()
+      val calls = Seq(
+        () => Future.failed(new RuntimeException("first")),
+        () => never.future,
+        () => Future.failed(new RuntimeException("third")))
+
+      val failure = ParallelCalls.run(calls, maxConcurrency = 3, required = 2).failed.futureValue
+      failure shouldBe a[ParallelCalls.NotEnoughSuccessfulCalls]
+    }
+
+    "not start remaining calls once the outcome is known" in {
+      val started = new AtomicInteger(0)
+      val calls = (1 to 5).map { i => () =>
+        started.incrementAndGet()
+        Future.successful(i)
+      }
+
+      ParallelCalls.run(calls, maxConcurrency = 1, required = 2).futureValue shouldBe Seq(1, 2)
+      started.get() shouldBe 2
+    }
+  }
+}
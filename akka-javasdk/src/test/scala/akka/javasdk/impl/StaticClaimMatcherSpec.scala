@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl
+
+import java.lang.reflect.InvocationHandler
+import java.lang.reflect.Proxy
+import java.util.Optional
+
+import scala.jdk.CollectionConverters._
+
+import akka.javasdk.JsonSupport
+import akka.javasdk.JwtClaims
+import akka.javasdk.JwtClaimsMatcher
+import akka.runtime.sdk.spi.ClaimPattern
+import akka.runtime.sdk.spi.ClaimValues
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class StaticClaimMatcherSpec extends AnyWordSpec with Matchers {
+
+  // only the string claims and string list claims are used by the matchers, a claim that is not a JSON array of
+  // strings has no string list, as with JwtClaimsImpl
+  private def claims(raw: (String, String)*): JwtClaims = {
+    val values = raw.toMap
+    val handler: InvocationHandler = (_, method, args) =>
+      method.getName match {
+        case "getString" => Optional.ofNullable(values.getOrElse(args(0).asInstanceOf[String], null))
+        case "getStringList" =>
+          values.get(args(0).asInstanceOf[String]) match {
+            case Some(value) =>
+              try Optional.of(
+                  JsonSupport.getObjectMapper.readerForListOf(classOf[String]).readValue[java.util.List[String]](value))
+              catch {
+                case _: java.io.IOException => Optional.empty
+              }
+            case None => Optional.empty
+          }
+        case other => throw new UnsupportedOperationException(other)
+      }
+    Proxy.newProxyInstance(getClass.getClassLoader, Array(classOf[JwtClaims]), handler).asInstanceOf[JwtClaims]
+  }
+
+  "A StaticClaimMatcher" should {
+
+    "match a single value" in {
+      val matcher = StaticClaimMatcher.values("role", java.util.List.of("admin"))
+      matcher.matches(claims("role" -> "admin")) shouldBe true
+      matcher.matches(claims("role" -> "user")) shouldBe false
+      matcher.matches(claims()) shouldBe false
+    }
+
+    "require all values in an array claim" in {
+      val matcher = StaticClaimMatcher.values("roles", java.util.List.of("admin", "user"))
+      matcher.matches(claims("roles" -> """["user","admin","other"]""")) shouldBe true
+      matcher.matches(claims("roles" -> """["admin"]""")) shouldBe false
+      matcher.matches(claims("roles" -> "admin")) shouldBe false
+    }
+
+    "find a pattern in the value or any element of an array claim" in {
+      val matcher = StaticClaimMatcher.pattern("sub", "^sub-\\S+$")
+      matcher.matches(claims("sub" -> "sub-1")) shouldBe true
+      matcher.matches(claims("sub" -> """["other","sub-2"]""")) shouldBe true
+      matcher.matches(claims("sub" -> "other")) shouldBe false
+    }
+
+    "match a value that only starts like an array as a single value" in {
+      val values = StaticClaimMatcher.values("role", java.util.List.of("[not json"))
+      values.matches(claims("role" -> "[not json")) shouldBe true
+      values.matches(claims("role" -> "[other")) shouldBe false
+
+      val pattern = StaticClaimMatcher.pattern("role", "^\\[admin")
+      pattern.matches(claims("role" -> "[admin")) shouldBe true
+      pattern.matches(claims("role" -> "[\"user\"]")) shouldBe false
+    }
+
+    "reject an invalid pattern when created" in {
+      intercept[IllegalArgumentException] {
+        StaticClaimMatcher.pattern("sub", "[unclosed")
+      }
+    }
+
+    "convert to the runtime representation" in {
+      StaticClaimMatcher.values("role", java.util.List.of("admin")).toSpi.content match {
+        case values: ClaimValues => values.content shouldBe Set("admin")
+        case other               => fail(s"unexpected $other")
+      }
+      StaticClaimMatcher.pattern("sub", "\\S+").toSpi.content match {
+        case pattern: ClaimPattern => pattern.content shouldBe "\\S+"
+        case other                 => fail(s"unexpected $other")
+      }
+    }
+
+    "keep the declared order of the values for the runtime" in {
+      val declared = (1 to 8).map(i => s"role-$i").reverse
+      StaticClaimMatcher.values("roles", declared.asJava).toSpi.content match {
+        case values: ClaimValues => values.content.toSeq shouldBe declared
+        case other               => fail(s"unexpected $other")
+      }
+    }
+
+    "leave values without environment variables as is" in {
+      StaticClaimMatcher.extractEnvVars("admin", "origin-ref") shouldBe "admin"
+    }
+  }
+
+  "A JwtClaimsMatcher" should {
+
+    // many rules per method, like a multi-tenant API would have
+    val tenants = 0 until 150
+    val matcher = tenants.foldLeft(JwtClaimsMatcher.create()) { (matcher, i) =>
+      if (i % 2 == 0) matcher.withValues(s"claim-$i", s"value-$i")
+      else matcher.withPattern(s"claim-$i", s"^tenant-$i-\\d+$$")
+    }
+    val allClaims = tenants.map(i => s"claim-$i" -> (if (i % 2 == 0) s"value-$i" else s"tenant-$i-42"))
+
+    "match claims satisfying all of many rules" in {
+      val requestClaims = claims(allClaims: _*)
+      (1 to 1000).foreach { _ =>
+        matcher.matches(requestClaims) shouldBe true
+      }
+    }
+
+    "not match claims failing any one of many rules" in {
+      tenants.foreach { i =>
+        val failing = allClaims.updated(i, s"claim-$i" -> "wrong")
+        matcher.matches(claims(failing: _*)) shouldBe false
+      }
+    }
+
+    "match any claims without rules" in {
+      JwtClaimsMatcher.create().matches(claims()) shouldBe true
+    }
+
+    "not change when rules are added" in {
+      val base = JwtClaimsMatcher.create().withValues("role", "admin")
+      base.withValues("role", "other")
+      base.matches(claims("role" -> "admin")) shouldBe true
+    }
+  }
+}
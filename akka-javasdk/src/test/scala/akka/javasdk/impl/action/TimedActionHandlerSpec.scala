@@ -140,7 +140,7 @@ class TimedActionHandlerSpec
   @ComponentId("dummy-id")
   class TestAction extends TimedAction
 
-  private abstract class AbstractHandler extends TimedActionRouter[TestAction](new TestAction) {
+  private abstract class AbstractHandler extends TimedActionRouter[TestAction](new TestAction, sharedInstance = false) {
     override def handleUnary(commandName: String, message: CommandEnvelope[Any]): TimedAction.Effect =
       ???
 
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.client
+
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+import scala.jdk.CollectionConverters._
+import scala.jdk.FutureConverters._
+
+import akka.javasdk.Metadata
+import akka.javasdk.impl.MetadataImpl
+import akka.runtime.sdk.spi.EventSourcedEntityType
+import org.scalatest.concurrent.ScalaFutures
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class ComponentBulkMethodRefImplSpec extends AnyWordSpec with Matchers with ScalaFutures {
+
+  private implicit val ec: ExecutionContext = ExecutionContext.global
+
+  private def bulkMethodRef(ids: Seq[String])(call: (String, String) => Future[String]) =
+    ComponentBulkMethodRefImpl[String, String](
+      ids,
+      None,
+      { (id, _, maybeArg) =>
+        DeferredCallImpl[String, String](
+          maybeArg.orNull,
+          MetadataImpl.Empty,
+          EventSourcedEntityType,
+          "counter",
+          "Increase",
+          Some(id),
+          (_: Metadata) => call(id, maybeArg.orNull).asJava)
+      })
+
+  "The ComponentBulkMethodRefImpl" should {
+
+    "return the result for each id in the order of the ids" in {
+      val methodRef = bulkMethodRef(Seq("a", "b", "c")) { (id, arg) => Future(s"$id-$arg") }
+
+      val results = methodRef.invokeAllAsync("x", 2).asScala.futureValue.asScala
+      results.map(_.id) shouldBe Seq("a", "b", "c")
+      results.map(_.result) shouldBe Seq("a-x", "b-x", "c-x")
+      results.forall(_.isSuccess) shouldBe true
+    }
+
+    "keep the failure of a call for its id and complete the other calls" in {
+      val methodRef = bulkMethodRef(Seq("a", "b", "c")) { (id, _) =>
+        if (id == "b") Future.failed(new RuntimeException("boom")) else Future.successful(id)
+      }
+
+      val results = methodRef.invokeAllAsync("x", 3).asScala.futureValue.asScala
+      results.map(_.isSuccess) shouldBe Seq(true, false, true)
+      results(1).failure.getMessage shouldBe "boom"
+      results(2).result shouldBe "c"
+    }
+
+    "never have more than parallelism calls in flight" in {
+      val inFlight = new AtomicInteger(0)
+      val maxInFlight = new AtomicInteger(0)
+      val methodRef = bulkMethodRef((1 to 20).map(_.toString)) { (id, _) =>
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), (a, b) => math.max(a, b))
+        Future {
+          Thread.sleep(5)
+          inFlight.decrementAndGet()
+          id
+        }
+      }
+
+      methodRef.invokeAllAsync("x", 3).asScala.futureValue.size() shouldBe 20
+      maxInFlight.get() should be <= 3
+    }
+
+    "complete right away without ids" in {
+      val methodRef = bulkMethodRef(Seq.empty) { (_, _) => Future.never }
+
+      methodRef.invokeAllAsync("x", 3).asScala.futureValue.isEmpty shouldBe true
+    }
+
+    "reject a parallelism below 1" in {
+      intercept[IllegalArgumentException] {
+        bulkMethodRef(Seq("a")) { (id, _) => Future.successful(id) }.invokeAllAsync("x", 0)
+      }
+    }
+  }
+}
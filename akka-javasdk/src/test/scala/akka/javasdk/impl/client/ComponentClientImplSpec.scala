@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.client
+
+import scala.concurrent.Await
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+import scala.concurrent.duration._
+
+import akka.javasdk.Metadata
+import akka.runtime.sdk.spi.ActionClient
+import akka.runtime.sdk.spi.ComponentClients
+import akka.runtime.sdk.spi.EntityClient
+import akka.runtime.sdk.spi.TimerClient
+import akka.runtime.sdk.spi.ViewClient
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class ComponentClientImplSpec extends AnyWordSpec with Matchers {
+
+  private implicit val ec: ExecutionContext = ExecutionContext.global
+
+  private val runtimeClients = new ComponentClients {
+    override def eventSourcedEntityClient: EntityClient = null
+    override def keyValueEntityClient: EntityClient = null
+    override def workFlowClient: EntityClient = null
+    override def timerClient: TimerClient = null
+    override def viewClient: ViewClient = null
+    override def actionClient: ActionClient = null
+  }
+
+  private val messageMetadata =
+    Metadata.EMPTY.add("traceparent", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01")
+
+  private def callMetadataOf(client: ComponentClientImpl): Option[Metadata] =
+    client.forTimedAction().asInstanceOf[TimedActionClientImpl].callMetadata
+
+  "The ComponentClientImpl" should {
+
+    "use the metadata of the message handled on the calling thread" in {
+      val client = ComponentClientImpl(runtimeClients, None)
+      client.callMetadata = Some(Metadata.EMPTY.add("other", "value"))
+
+      ComponentClientImpl.withCallMetadata(messageMetadata)(() => callMetadataOf(client)) shouldBe Some(
+        messageMetadata)
+      callMetadataOf(client) shouldBe client.callMetadata
+    }
+
+    "not use the metadata of the message handled on another thread" in {
+      val client = ComponentClientImpl(runtimeClients, None)
+      val fromOtherThread = ComponentClientImpl.withCallMetadata(messageMetadata) { () =>
+        Future(callMetadataOf(client))
+      }
+      Await.result(fromOtherThread, 3.seconds) shouldBe None
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.client
+
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.concurrent.Future
+import scala.concurrent.Promise
+
+import akka.javasdk.impl.MetadataImpl
+import akka.javasdk.impl.telemetry.Telemetry
+import akka.util.ByteString
+import org.scalatest.concurrent.Eventually
+import org.scalatest.concurrent.ScalaFutures
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class SingleFlightSpec extends AnyWordSpec with Matchers with ScalaFutures with Eventually {
+
+  private def key(id: String, metadata: MetadataImpl = MetadataImpl.Empty) =
+    SingleFlight.key("counter", Some(id), "Get", ByteString("{}"), metadata)
+
+  "The SingleFlight" should {
+
+    "merge concurrent identical calls into one" in {
+      val singleFlight = new SingleFlight
+      val calls = new AtomicInteger(0)
+      val reply = Promise[String]()
+      def call() = {
+        calls.incrementAndGet()
+        reply.future
+      }
+
+      val first = singleFlight(key("a"))(call())
+      val second = singleFlight(key("a"))(call())
+      val other = singleFlight(key("b"))(call())
+      calls.get() shouldBe 2
+
+      reply.success("reply")
+      first.futureValue shouldBe "reply"
+      second.futureValue shouldBe "reply"
+      other.futureValue shouldBe "reply"
+    }
+
+    "call again once the in-flight call completed" in {
+      val singleFlight = new SingleFlight
+      val calls = new AtomicInteger(0)
+
+      singleFlight(key("a"))(Future.successful(calls.incrementAndGet())).futureValue shouldBe 1
+      eventually(singleFlight.inFlightCalls shouldBe 0)
+      singleFlight(key("a"))(Future.successful(calls.incrementAndGet())).futureValue shouldBe 2
+    }
+
+    "give the failure to all merged callers and not keep it" in {
+      val singleFlight = new SingleFlight
+      val reply = Promise[String]()
+
+      val first = singleFlight(key("a"))(reply.future)
+      val second = singleFlight(key("a"))(Future.successful("never called"))
+      reply.failure(new RuntimeException("boom"))
+
+      first.failed.futureValue.getMessage shouldBe "boom"
+      second.failed.futureValue.getMessage shouldBe "boom"
+      eventually(singleFlight.inFlightCalls shouldBe 0)
+      singleFlight(key("a"))(Future.successful("ok")).futureValue shouldBe "ok"
+    }
+
+    "ignore the tracing headers but not the other metadata in the key" in {
+      val traced = MetadataImpl.Empty.set(Telemetry.TRACE_PARENT_KEY, "00-1-2-01")
+      val otherTrace = MetadataImpl.Empty.set(Telemetry.TRACE_PARENT_KEY, "00-3-4-01")
+      key("a", traced) shouldBe key("a", otherTrace)
+      key("a", traced.set("tenant", "t1")) should not be key("a", traced.set("tenant", "t2"))
+    }
+  }
+}
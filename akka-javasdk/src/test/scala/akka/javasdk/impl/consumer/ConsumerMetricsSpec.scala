@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.consumer
+
+import java.time.Instant
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+import scala.jdk.CollectionConverters._
+
+import akka.javasdk.impl.telemetry.CollectingMetricReader
+import akka.runtime.sdk.spi.Internet
+import akka.runtime.sdk.spi.ServiceNamePattern
+import io.opentelemetry.api.OpenTelemetry
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class ConsumerMetricsSpec extends AnyWordSpec with Matchers {
+
+  private def metricsWithClock(clock: AtomicLong) =
+    new ConsumerMetrics("consumer", OpenTelemetry.noop().getMeter("test"), () => clock.get())
+
+  "The ConsumerMetrics" should {
+
+    "count messages per outcome" in {
+      val metrics = metricsWithClock(new AtomicLong(0))
+      metrics.handled(ConsumerMetrics.Done)
+      metrics.handled(ConsumerMetrics.Produced, messages = 3)
+      metrics.handled(ConsumerMetrics.Failed)
+
+      metrics.count(ConsumerMetrics.Done) shouldBe 1
+      metrics.count(ConsumerMetrics.Produced) shouldBe 3
+      metrics.count(ConsumerMetrics.Ignored) shouldBe 0
+      metrics.count(ConsumerMetrics.Failed) shouldBe 1
+    }
+
+    "report the messages received during the last full second" in {
+      val clock = new AtomicLong(10000)
+      val metrics = metricsWithClock(clock)
+      (1 to 5).foreach(_ => metrics.received(None))
+      metrics.messagesPerSecond shouldBe 0
+
+      clock.set(11500)
+      metrics.messagesPerSecond shouldBe 5
+      metrics.received(None)
+      metrics.messagesPerSecond shouldBe 5
+
+      clock.set(13000)
+      metrics.messagesPerSecond shouldBe 0
+    }
+
+    "compute the lag from the event time of the last received message" in {
+      val clock = new AtomicLong(60000)
+      val metrics = metricsWithClock(clock)
+      metrics.lag shouldBe None
+
+      metrics.received(Some(Instant.ofEpochMilli(45000)))
+      metrics.lag shouldBe Some(15000)
+
+      metrics.received(None)
+      metrics.lag shouldBe Some(15000)
+    }
+
+    "export durations and lag in seconds" in {
+      val reader = new CollectingMetricReader
+      val metrics = new ConsumerMetrics("consumer", reader.meter, () => 60000)
+      metrics.received(Some(Instant.ofEpochMilli(58500)))
+      val start = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(1500)
+      metrics.handlerStarted(start - TimeUnit.MILLISECONDS.toNanos(250), start)
+      metrics.handlerCompleted(start)
+      metrics.asyncCompleted(System.nanoTime())
+
+      val exported = reader.collect()
+      val handler = exported("akka.javasdk.consumer.handler.duration")
+      handler.getUnit shouldBe "s"
+      handler.getHistogramData.getPoints.asScala.head.getSum should (be >= 1.5 and be < 10.0)
+      val queue = exported("akka.javasdk.consumer.queue.duration")
+      queue.getUnit shouldBe "s"
+      queue.getHistogramData.getPoints.asScala.head.getSum shouldBe 0.25
+      exported("akka.javasdk.consumer.async.duration").getUnit shouldBe "s"
+      val lag = exported("akka.javasdk.consumer.lag")
+      lag.getUnit shouldBe "s"
+      lag.getDoubleGaugeData.getPoints.asScala.head.getValue shouldBe 1.5
+    }
+
+    "include all metrics in the snapshot" in {
+      val metrics = metricsWithClock(new AtomicLong(60000))
+      metrics.received(Some(Instant.ofEpochMilli(59000)))
+      metrics.handled(ConsumerMetrics.Ignored)
+      val start = System.nanoTime()
+      metrics.handlerStarted(start - TimeUnit.MILLISECONDS.toNanos(20), start)
+      metrics.handlerCompleted(start)
+
+      val snapshot = metrics.snapshot()
+      snapshot.get("componentId").asText() shouldBe "consumer"
+      snapshot.get("ignored").asLong() shouldBe 1
+      snapshot.get("done").asLong() shouldBe 0
+      snapshot.get("lagMillis").asLong() shouldBe 1000
+      snapshot.get("handlerLatencyMillis").get("count").asLong() shouldBe 1
+      snapshot.get("queueLatencyMillis").get("count").asLong() shouldBe 1
+      snapshot.get("queueLatencyMillis").get("max").asLong() shouldBe 20
+    }
+
+    "only serve the metrics endpoint to other services" in {
+      val acl = ConsumerMetricsEndpoint.descriptor("/metrics", Nil).componentOptions.aclOpt.get
+      acl.deny shouldBe List(Internet)
+      acl.allow.collect { case p: ServiceNamePattern => p.pattern } shouldBe List("*")
+    }
+  }
+}
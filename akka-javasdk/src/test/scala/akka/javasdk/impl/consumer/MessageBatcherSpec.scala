@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.consumer
+
+import java.util.concurrent.ConcurrentLinkedQueue
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+import scala.concurrent.Promise
+import scala.concurrent.duration._
+import scala.jdk.CollectionConverters._
+
+import akka.actor.testkit.typed.scaladsl.ScalaTestWithActorTestKit
+import akka.javasdk.annotations.Consume
+import org.scalatest.wordspec.AnyWordSpecLike
+
+class MessageBatcherSpec extends ScalaTestWithActorTestKit with AnyWordSpecLike {
+
+  private implicit val ec: ExecutionContext = system.executionContext
+
+  private def batcher(maxSize: Int, maxWait: FiniteDuration)(handle: Seq[Int] => Future[String]) =
+    new MessageBatcher[Int, String](maxSize, maxWait, system.classicSystem.scheduler)(handle)
+
+  "The MessageBatcher" should {
+
+    "handle a full batch as soon as the messages are added concurrently" in {
+      val batches = new ConcurrentLinkedQueue[Seq[Int]]()
+      val messageBatcher = batcher(3, 1.hour) { batch =>
+        batches.add(batch)
+        Future.successful(batch.mkString(","))
+      }
+
+      val results = (1 to 3).map(messageBatcher.add)
+
+      Future.sequence(results).futureValue shouldBe Seq("1,2,3", "1,2,3", "1,2,3")
+      batches.asScala.toList shouldBe List(Seq(1, 2, 3))
+    }
+
+    "handle an incomplete batch after the max wait" in {
+      val messageBatcher = batcher(10, 100.millis)(batch => Future.successful(batch.mkString(",")))
+
+      val results = Seq(messageBatcher.add(1), messageBatcher.add(2))
+
+      Future.sequence(results).futureValue shouldBe Seq("1,2", "1,2")
+    }
+
+    "handle batches of one message when each message waits for the previous one" in {
+      val batches = new ConcurrentLinkedQueue[Seq[Int]]()
+      val messageBatcher = batcher(10, 50.millis) { batch =>
+        batches.add(batch)
+        Future.successful(batch.mkString(","))
+      }
+
+      val results = (1 to 3).map(message => messageBatcher.add(message).futureValue)
+
+      results shouldBe Seq("1", "2", "3")
+      batches.asScala.toList shouldBe List(Seq(1), Seq(2), Seq(3))
+    }
+
+    "keep up with messages that each wait for the previous one, with the default max wait" in {
+      val defaultMaxWait =
+        classOf[Consume.Batch].getMethod("maxWaitMillis").getDefaultValue.asInstanceOf[java.lang.Long].longValue()
+      val messageBatcher = batcher(100, defaultMaxWait.millis)(batch => Future.successful(batch.size))
+
+      val start = System.nanoTime()
+      (1 to 100).foreach(message => messageBatcher.add(message).futureValue shouldBe 1)
+
+      // at most the max wait per message, with a margin for the scheduler tick
+      (System.nanoTime() - start).nanos should be < 5.seconds
+    }
+
+    "handle batches one at a time, in order" in {
+      val first = Promise[String]()
+      val handled = new ConcurrentLinkedQueue[Seq[Int]]()
+      val messageBatcher = batcher(1, 1.hour) { batch =>
+        handled.add(batch)
+        if (batch == Seq(1)) first.future else Future.successful("second")
+      }
+
+      val result1 = messageBatcher.add(1)
+      val result2 = messageBatcher.add(2)
+      eventually {
+        handled.asScala.toList shouldBe List(Seq(1))
+      }
+      result2.isCompleted shouldBe false
+
+      first.success("first")
+      result1.futureValue shouldBe "first"
+      result2.futureValue shouldBe "second"
+      handled.asScala.toList shouldBe List(Seq(1), Seq(2))
+    }
+
+    "fail every message of a failed batch" in {
+      val messageBatcher = batcher(2, 1.hour)(_ => Future.failed(new RuntimeException("boom")))
+
+      val results = Seq(messageBatcher.add(1), messageBatcher.add(2))
+
+      results.foreach(_.failed.futureValue.getMessage shouldBe "boom")
+    }
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.consumer
+
+import java.util.concurrent.ConcurrentLinkedQueue
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+import scala.concurrent.Promise
+import scala.jdk.CollectionConverters._
+
+import org.scalatest.concurrent.ScalaFutures
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class SubjectPartitionedDispatcherSpec extends AnyWordSpec with Matchers with ScalaFutures {
+
+  private implicit val ec: ExecutionContext = ExecutionContext.global
+
+  "The SubjectPartitionedDispatcher" should {
+
+    "handle messages for the same subject one at a time and in order" in {
+      val dispatcher = new SubjectPartitionedDispatcher(4)
+      val handled = new ConcurrentLinkedQueue[Int]()
+      val first = Promise[Int]()
+
+      val f1 = dispatcher.dispatch(Some("subject")) { () =>
+        handled.add(1)
+        first.future
+      }
+      val f2 = dispatcher.dispatch(Some("subject")) { () =>
+        handled.add(2)
+        Future.successful(2)
+      }
+
+      val partition = dispatcher.partitionFor(Some("subject"))
+      dispatcher.queueDepth(partition) shouldBe 2
+      handled.asScala.toList should not contain 2
+
+      first.success(1)
+      Future.sequence(Seq(f1, f2)).futureValue shouldBe Seq(1, 2)
+      handled.asScala.toList shouldBe List(1, 2)
+      dispatcher.queueDepth(partition) shouldBe 0
+    }
+
+    "handle messages for subjects in different partitions concurrently" in {
+      val dispatcher = new SubjectPartitionedDispatcher(2)
+      val subjects = Iterator.from(0).map(_.toString)
+      val subjectA = subjects.next()
+      val subjectB = subjects.find(s => dispatcher.partitionFor(Some(s)) != dispatcher.partitionFor(Some(subjectA))).get
+      val blocked = Promise[String]()
+
+      val fa = dispatcher.dispatch(Some(subjectA))(() => blocked.future)
+      val fb = dispatcher.dispatch(Some(subjectB))(() => Future.successful(subjectB))
+
+      fb.futureValue shouldBe subjectB
+      fa.isCompleted shouldBe false
+      blocked.success(subjectA)
+      fa.futureValue shouldBe subjectA
+    }
+
+    "continue with the next message after a failed one" in {
+      val dispatcher = new SubjectPartitionedDispatcher(1)
+
+      val failed = dispatcher.dispatch[String](Some("subject"))(() => throw new RuntimeException("boom"))
+      val next = dispatcher.dispatch(Some("subject"))(() => Future.successful("next"))
+
+      failed.failed.futureValue.getMessage shouldBe "boom"
+      next.futureValue shouldBe "next"
+    }
+  }
+}
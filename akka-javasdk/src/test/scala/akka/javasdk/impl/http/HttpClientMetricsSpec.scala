@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.http
+
+import scala.concurrent.duration.DurationInt
+import scala.jdk.CollectionConverters._
+
+import akka.javasdk.impl.telemetry.CollectingMetricReader
+import io.opentelemetry.api.OpenTelemetry
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class HttpClientMetricsSpec extends AnyWordSpec with Matchers {
+
+  private def metrics() = new HttpClientMetrics("service", OpenTelemetry.noop().getMeter("test"))
+
+  private def respondedAfter(metrics: HttpClientMetrics, latencyMillis: Int): Unit =
+    metrics.responded(System.nanoTime() - latencyMillis.millis.toNanos)
+
+  "The HttpClientMetrics" should {
+
+    "not know the latency percentile before enough responses" in {
+      val m = metrics()
+      (1 to 10).foreach(respondedAfter(m, _))
+      m.latencyPercentile(0.95) shouldBe None
+    }
+
+    "compute the latency percentile of the recent responses" in {
+      val m = metrics()
+      (1 to 100).foreach(latency => respondedAfter(m, latency * 10))
+      val p95 = m.latencyPercentile(0.95).get
+      p95 should be >= 950.millis
+      p95 should be < 970.millis
+    }
+
+    "record the attempt duration in seconds" in {
+      val reader = new CollectingMetricReader
+      respondedAfter(new HttpClientMetrics("service", reader.meter), 1500)
+
+      val duration = reader.collect()("akka.javasdk.http_client.attempt.duration")
+      duration.getUnit shouldBe "s"
+      val max = duration.getHistogramData.getPoints.asScala.map(_.getMax).max
+      max should (be >= 1.5 and be < 2.0)
+    }
+
+    "only keep the most recent responses" in {
+      val m = metrics()
+      (1 to 300).foreach(_ => respondedAfter(m, 1000))
+      (1 to 256).foreach(_ => respondedAfter(m, 10))
+      m.latencyPercentile(0.99).get should be < 100.millis
+    }
+  }
+
+  "The RetrySettings" should {
+
+    "back off exponentially up to the max backoff" in {
+      val settings = HttpSender.RetrySettings(maxRetries = 5, minBackoff = 100.millis, maxBackoff = 1.second)
+      settings.backoff(0) should (be >= 100.millis and be <= 120.millis)
+      settings.backoff(2) should (be >= 400.millis and be <= 480.millis)
+      settings.backoff(10) should (be >= 1.second and be <= 1200.millis)
+    }
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.http
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.CompletionStage
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.concurrent.Future
+import scala.concurrent.duration.FiniteDuration
+import scala.jdk.CollectionConverters._
+import scala.jdk.FutureConverters._
+
+import akka.actor.testkit.typed.scaladsl.ScalaTestWithActorTestKit
+import akka.discovery.Lookup
+import akka.discovery.ServiceDiscovery.Resolved
+import akka.discovery.ServiceDiscovery.ResolvedTarget
+import akka.discovery.SimpleServiceDiscovery
+import akka.http.javadsl.model.HttpRequest
+import akka.http.javadsl.model.HttpResponse
+import akka.http.javadsl.settings.ConnectionPoolSettings
+import akka.http.scaladsl.model.{ HttpResponse => ScalaHttpResponse }
+import akka.javasdk.http.HttpClient
+import akka.javasdk.impl.Settings
+import com.typesafe.config.ConfigFactory
+import io.opentelemetry.api.trace.Span
+import io.opentelemetry.api.trace.SpanContext
+import io.opentelemetry.api.trace.TraceFlags
+import io.opentelemetry.api.trace.TraceState
+import io.opentelemetry.context.{ Context => OtelContext }
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+object HttpClientProviderImplSpec {
+
+  val config = ConfigFactory.parseString(s"""
+    akka.discovery.method = test-discovery
+    akka.discovery.test-discovery.class = "${classOf[TestDiscovery].getName}"
+    """)
+
+  // the address of each service, a missing service fails the lookup
+  val serviceAddresses = new ConcurrentHashMap[String, (String, Int)]()
+  val lookups = new AtomicInteger()
+
+  final class TestDiscovery extends SimpleServiceDiscovery {
+    override def lookup(lookup: Lookup, resolveTimeout: FiniteDuration): Future[Resolved] = {
+      lookups.incrementAndGet()
+      Option(serviceAddresses.get(lookup.serviceName)) match {
+        case Some((host, port)) =>
+          Future.successful(Resolved(lookup.serviceName, List(ResolvedTarget(host, Some(port), None))))
+        case None =>
+          Future.failed(new RuntimeException(s"no service [${lookup.serviceName}]"))
+      }
+    }
+  }
+}
+
+class HttpClientProviderImplSpec
+    extends ScalaTestWithActorTestKit(HttpClientProviderImplSpec.config)
+    with AnyWordSpecLike
+    with Matchers {
+  import HttpClientProviderImplSpec._
+
+  private val settings = Settings(system.settings.config.getConfig("akka.javasdk"))
+  private val devModeSettings = settings.copy(devModeSettings = Some(Settings.DevModeSettings("this-service", 9000)))
+
+  // records the connection pool settings of each created sender and the requests sent
+  private class StubSend {
+    val poolSettings = new ConcurrentLinkedQueue[Option[ConnectionPoolSettings]]()
+    val requests = new ConcurrentLinkedQueue[HttpRequest]()
+    def apply(pool: Option[ConnectionPoolSettings]): HttpRequest => CompletionStage[HttpResponse] = {
+      poolSettings.add(pool)
+      request => {
+        requests.add(request)
+        CompletableFuture.completedFuture[HttpResponse](ScalaHttpResponse(200))
+      }
+    }
+    def clients(settings: Settings) =
+      new HttpClientProviderImpl.SharedClients(system, None, settings, pool => apply(pool))
+  }
+
+  private def get(client: HttpClient): CompletionStage[Int] =
+    client.GET("/path").invokeAsync().thenApply[Int](_.status.intValue)
+
+  private def failureOf(stage: CompletionStage[_]): Throwable =
+    stage.asScala.failed.futureValue match {
+      case ex: CompletionException if ex.getCause ne null => ex.getCause
+      case ex                                             => ex
+    }
+
+  "The shared HTTP clients" should {
+
+    "reuse the client for a name" in {
+      val stub = new StubSend
+      val clients = stub.clients(settings)
+      clients.clientFor("http://example.com") should be theSameInstanceAs clients.clientFor("http://example.com")
+      clients.clientFor("other-service") should be theSameInstanceAs clients.clientFor("other-service")
+      stub.poolSettings.size shouldBe 2
+    }
+
+    "not cache more than the maximum number of clients" in {
+      val stub = new StubSend
+      val clients = stub.clients(settings)
+      (1 to HttpClientProviderImpl.MaxCachedClients).foreach(i => clients.clientFor(s"http://host-$i.example.com"))
+      stub.poolSettings.size shouldBe HttpClientProviderImpl.MaxCachedClients
+
+      clients.clientFor("http://host-1.example.com") should be theSameInstanceAs clients.clientFor(
+        "http://host-1.example.com")
+      clients.clientFor("http://uncached.example.com") should not be theSameInstanceAs(
+        clients.clientFor("http://uncached.example.com"))
+      stub.poolSettings.size shouldBe HttpClientProviderImpl.MaxCachedClients + 2
+    }
+
+    "share one sender between the clients of the same target" in {
+      val stub = new StubSend
+      val clients = stub.clients(settings)
+      clients.clientFor("http://example.com")
+      clients.clientFor("https://example.com:8443")
+      stub.poolSettings.size shouldBe 1
+
+      // a service and a url with the same host are different targets
+      clients.clientFor("other-service")
+      clients.clientFor("http://other-service")
+      stub.poolSettings.size shouldBe 3
+
+      get(clients.clientFor("http://example.com")).asScala.futureValue shouldBe 200
+      get(clients.clientFor("https://example.com:8443")).asScala.futureValue shouldBe 200
+      stub.requests.asScala.toList.map(_.getUri.toString) shouldBe List(
+        "http://example.com/path",
+        "https://example.com:8443/path")
+    }
+
+    "share one client between the providers of different trace contexts" in {
+      val stub = new StubSend
+      val provider = new HttpClientProviderImpl(None, stub.clients(settings))
+      val spanContext = SpanContext.create(
+        "4bf92f3577b34da6a3ce929d0e0e4736",
+        "00f067aa0ba902b7",
+        TraceFlags.getSampled,
+        TraceState.getDefault)
+      val traced = provider.withTraceContext(OtelContext.root().`with`(Span.wrap(spanContext)))
+
+      get(provider.httpClientFor("http://example.com")).asScala.futureValue shouldBe 200
+      get(traced.httpClientFor("http://example.com")).asScala.futureValue shouldBe 200
+
+      stub.poolSettings.size shouldBe 1
+      val requests = stub.requests.asScala.toList
+      requests.size shouldBe 2
+      requests.head.getHeader("traceparent").isPresent shouldBe false
+      requests(1).getHeader("traceparent").get.value should include("4bf92f3577b34da6a3ce929d0e0e4736")
+    }
+
+    "use the connection pool settings of the target" in {
+      val poolConfig = ConfigFactory.parseString("max-connections = 3")
+      val stub = new StubSend
+      val clients = stub.clients(
+        settings.copy(httpClientConnectionPools = Map("payments" -> poolConfig, "example.com" -> poolConfig)))
+
+      clients.clientFor("payments")
+      clients.clientFor("https://example.com:8443")
+      clients.clientFor("other-service")
+      clients.clientFor("http://other.example.com")
+
+      stub.poolSettings.asScala.toList.map(_.map(_.getMaxConnections)) shouldBe List(Some(3), Some(3), None, None)
+    }
+
+    "send the requests to other services in dev mode to the address found with discovery" in {
+      serviceAddresses.put("found-service", ("127.0.0.1", 9001))
+      val stub = new StubSend
+      val client = stub.clients(devModeSettings).clientFor("found-service")
+
+      get(client).asScala.futureValue shouldBe 200
+      stub.requests.peek().getUri.toString shouldBe "http://127.0.0.1:9001/path"
+    }
+
+    "reuse the address found with discovery until the cache TTL has passed" in {
+      serviceAddresses.put("cached-service", ("127.0.0.1", 9002))
+      val cached = new StubSend().clients(devModeSettings).clientFor("cached-service")
+      val lookupsBefore = lookups.get()
+      get(cached).asScala.futureValue shouldBe 200
+      get(cached).asScala.futureValue shouldBe 200
+      lookups.get() - lookupsBefore shouldBe 1
+
+      val noCache = devModeSettings.copy(httpClientDiscoveryCacheTtl = java.time.Duration.ZERO)
+      val uncached = new StubSend().clients(noCache).clientFor("cached-service")
+      val lookupsBeforeUncached = lookups.get()
+      get(uncached).asScala.futureValue shouldBe 200
+      get(uncached).asScala.futureValue shouldBe 200
+      lookups.get() - lookupsBeforeUncached shouldBe 2
+    }
+
+    "fail the request when the service cannot be found and look it up again for the next request" in {
+      val stub = new StubSend
+      val client = stub.clients(devModeSettings).clientFor("late-service")
+
+      val failure = failureOf(get(client))
+      failure.getMessage should include("Failed to look up service [late-service] in dev-mode")
+      failure.getCause.getMessage shouldBe "no service [late-service]"
+      stub.requests.size shouldBe 0
+
+      serviceAddresses.put("late-service", ("127.0.0.1", 9003))
+      get(client).asScala.futureValue shouldBe 200
+      stub.requests.peek().getUri.toString shouldBe "http://127.0.0.1:9003/path"
+    }
+  }
+}
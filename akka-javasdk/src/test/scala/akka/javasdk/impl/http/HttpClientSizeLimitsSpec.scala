@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.http
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.CompletionStage
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.jdk.FutureConverters._
+
+import akka.actor.testkit.typed.scaladsl.ScalaTestWithActorTestKit
+import akka.http.javadsl.model.HttpRequest
+import akka.http.javadsl.model.HttpResponse
+import akka.http.scaladsl.model.ContentTypes
+import akka.http.scaladsl.model.HttpEntity
+import akka.http.scaladsl.model.{ HttpResponse => ScalaHttpResponse }
+import akka.javasdk.http.ResponseTooLargeException
+import akka.stream.javadsl.Sink
+import akka.stream.scaladsl.Source
+import akka.util.ByteString
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+class HttpClientSizeLimitsSpec extends ScalaTestWithActorTestKit with AnyWordSpecLike with Matchers {
+
+  private val body = ByteString(Array.fill[Byte](100)('x'))
+  private val sent = new AtomicInteger()
+
+  private def client(response: => HttpResponse, sizeLimits: HttpClientImpl.SizeLimits): HttpClientImpl = {
+    val send = { (_: HttpRequest) =>
+      sent.incrementAndGet()
+      CompletableFuture.completedFuture(response): CompletionStage[HttpResponse]
+    }
+    new HttpClientImpl(system, new HttpSender(system, send, "service"), "http://service", sizeLimits, Seq.empty)
+  }
+
+  // failures of dependent stages are wrapped in a CompletionException
+  private def failureOf(stage: CompletionStage[_]): Throwable =
+    stage.asScala.failed.futureValue match {
+      case ex: CompletionException if ex.getCause ne null => ex.getCause
+      case ex                                             => ex
+    }
+
+  private def limits(
+      maxRequestSize: Long = 1000,
+      maxResponseSize: Long = 1000,
+      maxStreamedResponseSize: Long = 1000): HttpClientImpl.SizeLimits =
+    HttpClientImpl.SizeLimits(maxRequestSize, maxResponseSize, maxStreamedResponseSize)
+
+  private def strictResponse = ScalaHttpResponse(entity = HttpEntity(ContentTypes.`application/octet-stream`, body))
+
+  private def chunkedResponse =
+    ScalaHttpResponse(entity =
+      HttpEntity.Chunked.fromData(ContentTypes.`application/octet-stream`, Source(body.grouped(10).toList)))
+
+  "The HttpClient" should {
+
+    "fail a response larger than the maximum response size" in {
+      val failure = failureOf(client(strictResponse, limits(maxResponseSize = 50)).GET("/").invokeAsync())
+      failure shouldBe a[ResponseTooLargeException]
+      failure.asInstanceOf[ResponseTooLargeException].maxResponseSize shouldBe 50
+    }
+
+    "fail a streamed response once more than the maximum streamed response size has arrived" in {
+      val response = client(chunkedResponse, limits(maxStreamedResponseSize = 50))
+        .GET("/")
+        .invokeStreamAsync()
+        .asScala
+        .futureValue
+      failureOf(response.body.runWith(Sink.ignore(), system)) shouldBe a[ResponseTooLargeException]
+    }
+
+    "not apply the maximum response size to streamed responses" in {
+      val response = client(chunkedResponse, limits(maxResponseSize = 50))
+        .GET("/")
+        .invokeStreamAsync()
+        .asScala
+        .futureValue
+      val concat = Sink.fold(ByteString.empty, (acc: ByteString, bytes: ByteString) => acc ++ bytes)
+      val received = response.body.runWith(concat, system)
+      received.asScala.futureValue shouldBe body
+    }
+
+    "not limit streamed responses by default" in {
+      HttpClientImpl.SizeLimits(system.settings.config).maxStreamedResponseSize shouldBe Long.MaxValue
+    }
+
+    "use the maximum response size of the request" in {
+      val response = client(chunkedResponse, limits(maxResponseSize = 50))
+        .GET("/")
+        .withMaxResponseSize(100)
+        .invokeAsync()
+        .asScala
+        .futureValue
+      response.body shouldBe body
+    }
+
+    "fail a request with a body larger than the maximum request size without sending it" in {
+      sent.set(0)
+      val request = client(strictResponse, limits(maxRequestSize = 50)).POST("/").withRequestBody(body.toArray)
+      val failure = failureOf(request.invokeAsync())
+      failure shouldBe an[IllegalArgumentException]
+      sent.get shouldBe 0
+    }
+
+    "limit a streamed request body to the maximum request size" in {
+      val streamedBody =
+        HttpEntity.Chunked.fromData(ContentTypes.`application/octet-stream`, Source(body.grouped(10).toList))
+      val send = { (request: HttpRequest) =>
+        // like the connection pool, the response only arrives once the request body has been sent
+        request.entity.getDataBytes
+          .runWith(Sink.ignore(), system)
+          .asScala
+          .map(_ => strictResponse: HttpResponse)(system.executionContext)
+          .asJava
+      }
+      val sender = new HttpSender(system, send, "service")
+      val client = new HttpClientImpl(system, sender, "http://service", limits(maxRequestSize = 50), Seq.empty)
+      val request = client.POST("/").withRequest(HttpRequest.POST("http://service/").withEntity(streamedBody))
+
+      failureOf(request.invokeAsync()) shouldBe an[IllegalArgumentException]
+    }
+  }
+}
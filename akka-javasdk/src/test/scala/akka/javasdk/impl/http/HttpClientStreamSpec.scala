@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.http
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.CompletionStage
+
+import scala.jdk.CollectionConverters._
+import scala.jdk.FutureConverters._
+
+import akka.actor.testkit.typed.scaladsl.ScalaTestWithActorTestKit
+import akka.http.javadsl.model.HttpRequest
+import akka.http.javadsl.model.HttpResponse
+import akka.http.scaladsl.model.ContentTypes
+import akka.http.scaladsl.model.HttpEntity
+import akka.http.scaladsl.model.StatusCodes
+import akka.http.scaladsl.model.{ HttpResponse => ScalaHttpResponse }
+import akka.javasdk.http.RequestBuilder
+import akka.javasdk.testmodels.Message
+import akka.stream.javadsl.Sink
+import akka.stream.scaladsl.Framing.FramingException
+import akka.stream.scaladsl.Source
+import akka.util.ByteString
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+class HttpClientStreamSpec extends ScalaTestWithActorTestKit with AnyWordSpecLike with Matchers {
+
+  private val limits = HttpClientImpl.SizeLimits(1000, 1000, Long.MaxValue)
+
+  private def client(response: ScalaHttpResponse): HttpClientImpl = {
+    val send = { (_: HttpRequest) =>
+      CompletableFuture.completedFuture[HttpResponse](response): CompletionStage[HttpResponse]
+    }
+    new HttpClientImpl(system, new HttpSender(system, send, "service"), "http://service", limits, Seq.empty)
+  }
+
+  // the body arrives in small chunks, so that elements are split over several chunks
+  private def chunked(body: String, chunkSize: Int = 7) =
+    ScalaHttpResponse(entity =
+      HttpEntity.Chunked.fromData(ContentTypes.`application/json`, Source(ByteString(body).grouped(chunkSize).toList)))
+
+  private def streamed(response: ScalaHttpResponse): CompletionStage[java.util.List[Message]] =
+    client(response)
+      .GET("/")
+      .invokeStreamAsync(classOf[Message])
+      .thenCompose[java.util.List[Message]](_.body.runWith(Sink.seq[Message](), system))
+
+  private def failureOf(stage: CompletionStage[_]): Throwable =
+    stage.asScala.failed.futureValue match {
+      case ex: CompletionException if ex.getCause ne null => ex.getCause
+      case ex                                             => ex
+    }
+
+  "The streamed responses of the HttpClient" should {
+
+    "parse the objects of a JSON array" in {
+      val body = """[{"value":"a"}, {"value":"b,]}"},{"value":"c"}]"""
+      streamed(chunked(body)).asScala.futureValue.asScala shouldBe Seq(
+        new Message("a"),
+        new Message("b,]}"),
+        new Message("c"))
+    }
+
+    "parse newline delimited JSON objects" in {
+      val body = "{\"value\":\"a\"}\n{\"value\":\"b\"}\n"
+      streamed(chunked(body)).asScala.futureValue.asScala shouldBe Seq(new Message("a"), new Message("b"))
+    }
+
+    "parse objects with nested arrays and objects" in {
+      val body = """[{"value":"a","nested":[[1],{"x":[2]}]}]"""
+      streamed(chunked(body)).asScala.futureValue.asScala shouldBe Seq(new Message("a"))
+    }
+
+    "fail for elements that are not objects" in {
+      Seq("[1,2]", """["a"]""", "[[{}]]", "true", """{"value":"a"} 1""").foreach { body =>
+        failureOf(streamed(chunked(body))) shouldBe a[FramingException]
+      }
+    }
+
+    "fail for an element larger than the maximum element size" in {
+      val large = "x" * (RequestBuilder.MAX_STREAMED_ELEMENT_BYTES + 1)
+      val body = s"""[{"value":"a"},{"value":"$large"}]"""
+      failureOf(streamed(chunked(body, chunkSize = 64 * 1024))) shouldBe a[FramingException]
+    }
+
+    "fail for a failure status with the body of the response" in {
+      val entity = HttpEntity(ContentTypes.`text/plain(UTF-8)`, "boom")
+      val response = ScalaHttpResponse(StatusCodes.InternalServerError, entity = entity)
+      val failure = failureOf(client(response).GET("/").invokeStreamAsync(classOf[Message]))
+      failure.getMessage should include("500 Internal Server Error")
+      failure.getMessage should include("boom")
+    }
+  }
+}
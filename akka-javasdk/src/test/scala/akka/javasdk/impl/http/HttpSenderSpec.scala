@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.http
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionStage
+import java.util.concurrent.ConcurrentLinkedQueue
+
+import scala.concurrent.duration._
+import scala.jdk.FutureConverters._
+
+import akka.actor.testkit.typed.scaladsl.ScalaTestWithActorTestKit
+import akka.http.javadsl.model.HttpRequest
+import akka.http.javadsl.model.HttpResponse
+import akka.http.scaladsl.model.ContentTypes
+import akka.http.scaladsl.model.HttpEntity
+import akka.http.scaladsl.model.HttpMethods
+import akka.http.scaladsl.model.{ HttpRequest => ScalaHttpRequest }
+import akka.http.scaladsl.model.{ HttpResponse => ScalaHttpResponse }
+import akka.stream.scaladsl.Source
+import akka.util.ByteString
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+class HttpSenderSpec extends ScalaTestWithActorTestKit with AnyWordSpecLike with Matchers {
+
+  private val retries = Some(HttpSender.RetrySettings(3, 1.millis, 5.millis))
+  private val get: HttpRequest = ScalaHttpRequest(uri = "http://service/")
+
+  // answers each attempt with the next of the given outcomes, the last one repeated
+  private class StubSend(outcomes: (() => CompletionStage[HttpResponse])*) {
+    val attempts = new ConcurrentLinkedQueue[HttpRequest]()
+    @volatile var warmingUp = false
+    def apply(request: HttpRequest): CompletionStage[HttpResponse] =
+      if (warmingUp) status(200)()
+      else {
+        attempts.add(request)
+        outcomes(math.min(attempts.size, outcomes.size) - 1)()
+      }
+    def sender = new HttpSender(system, request => apply(request), "service")
+  }
+
+  private def status(code: Int): () => CompletionStage[HttpResponse] =
+    () => CompletableFuture.completedFuture[HttpResponse](ScalaHttpResponse(code))
+
+  private def failure(message: String): () => CompletionStage[HttpResponse] =
+    () => CompletableFuture.failedFuture[HttpResponse](new RuntimeException(message))
+
+  private def pending(response: CompletableFuture[HttpResponse]): () => CompletionStage[HttpResponse] =
+    () => response
+
+  private def statusOf(response: CompletionStage[HttpResponse]): Int =
+    response.asScala.futureValue.status.intValue
+
+  // enough fast responses for a latency percentile, so that requests are hedged right away
+  private def warmedUp(stub: StubSend): HttpSender = {
+    val sender = stub.sender
+    stub.warmingUp = true
+    (1 to 20).foreach(_ => sender(get, None, None).asScala.futureValue)
+    stub.warmingUp = false
+    sender
+  }
+
+  "The HttpSender" should {
+
+    "retry the statuses of unavailable services" in {
+      Seq(502, 503, 504).foreach { code =>
+        val stub = new StubSend(status(code), status(200))
+        statusOf(stub.sender(get, retries, None)) shouldBe 200
+        stub.attempts.size shouldBe 2
+      }
+    }
+
+    "retry a failed attempt" in {
+      val stub = new StubSend(failure("connection refused"), status(200))
+      statusOf(stub.sender(get, retries, None)) shouldBe 200
+      stub.attempts.size shouldBe 2
+    }
+
+    "not retry other statuses" in {
+      Seq(200, 404, 500).foreach { code =>
+        val stub = new StubSend(status(code), status(200))
+        statusOf(stub.sender(get, retries, None)) shouldBe code
+        stub.attempts.size shouldBe 1
+      }
+    }
+
+    "give up after the max retries with the last outcome" in {
+      val stub = new StubSend(status(503))
+      statusOf(stub.sender(get, retries, None)) shouldBe 503
+      stub.attempts.size shouldBe 4
+    }
+
+    "not retry requests with a non-idempotent method" in {
+      val stub = new StubSend(status(503), status(200))
+      val post: HttpRequest = ScalaHttpRequest(HttpMethods.POST, uri = "http://service/")
+      statusOf(stub.sender(post, retries, None)) shouldBe 503
+      stub.attempts.size shouldBe 1
+    }
+
+    "not retry requests with a streamed entity" in {
+      val stub = new StubSend(status(503), status(200))
+      val body = Source.single(ByteString("body"))
+      val entity = HttpEntity.Chunked.fromData(ContentTypes.`application/octet-stream`, body)
+      val streamed: HttpRequest = ScalaHttpRequest(HttpMethods.PUT, uri = "http://service/", entity = entity)
+      statusOf(stub.sender(streamed, retries, None)) shouldBe 503
+      stub.attempts.size shouldBe 1
+    }
+
+    "cap the backoff after the jitter" in {
+      val settings = HttpSender.RetrySettings(10, 100.millis, 150.millis)
+      (1 to 100).foreach { _ =>
+        settings.backoff(0) should (be >= 100.millis and be <= 120.millis)
+        settings.backoff(5) shouldBe 150.millis
+      }
+    }
+
+    "complete with the response of the hedged attempt when the first one is slow" in {
+      val slow = new CompletableFuture[HttpResponse]()
+      val stub = new StubSend(pending(slow), status(200))
+      val response = warmedUp(stub)(get, None, Some(0.5))
+
+      statusOf(response) shouldBe 200
+      stub.attempts.size shouldBe 2
+      slow.complete(ScalaHttpResponse(500))
+    }
+
+    "wait for the hedged attempt when the first one fails" in {
+      val slow = new CompletableFuture[HttpResponse]()
+      val first = new CompletableFuture[HttpResponse]()
+      val stub = new StubSend(pending(first), pending(slow))
+      val response = warmedUp(stub)(get, None, Some(0.5))
+
+      eventually {
+        stub.attempts.size shouldBe 2
+      }
+      first.completeExceptionally(new RuntimeException("first failed"))
+      response.toCompletableFuture.isDone shouldBe false
+
+      slow.complete(ScalaHttpResponse(200))
+      statusOf(response) shouldBe 200
+    }
+
+    "fail when every attempt failed" in {
+      val first = new CompletableFuture[HttpResponse]()
+      val stub = new StubSend(pending(first), failure("hedge failed"))
+      val response = warmedUp(stub)(get, None, Some(0.5))
+
+      eventually {
+        stub.attempts.size shouldBe 2
+      }
+      first.completeExceptionally(new RuntimeException("first failed"))
+      response.asScala.failed.futureValue.getMessage should (be("first failed") or be("hedge failed"))
+    }
+
+    "complete with the first response when it arrives before the hedge" in {
+      val stub = new StubSend(status(200))
+      statusOf(warmedUp(stub)(get, None, Some(0.99))) shouldBe 200
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.http
+
+import java.time.Instant
+import java.util.Optional
+
+import scala.jdk.CollectionConverters._
+
+import akka.runtime.sdk.spi.{ JwtClaims => RuntimeJwtClaims }
+import com.fasterxml.jackson.databind.node.ObjectNode
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class JwtClaimsImplSpec extends AnyWordSpec with Matchers {
+
+  // raw claims as the runtime provides them, string claims unquoted and other claims as JSON
+  private def claims(raw: (String, String)*): JwtClaimsImpl = {
+    val rawClaims = raw.toMap
+    new JwtClaimsImpl(new RuntimeJwtClaims {
+      override def getAllClaimNames: Iterable[String] = rawClaims.keys
+      override def getRawClaim(name: String): Option[String] = rawClaims.get(name)
+    })
+  }
+
+  private def list[T](values: T*): Optional[java.util.List[T]] = Optional.of(values.asJava)
+
+  "The JWT claims" should {
+
+    "return the raw claims" in {
+      val jwt = claims("sub" -> "alice", "roles" -> """["a","b"]""")
+      jwt.hasClaims shouldBe true
+      jwt.allClaimNames().asScala.toSet shouldBe Set("sub", "roles")
+      jwt.asMap().asScala shouldBe Map("sub" -> "alice", "roles" -> """["a","b"]""")
+      jwt.subject shouldBe Optional.of("alice")
+      jwt.getString("missing") shouldBe Optional.empty
+      claims().hasClaims shouldBe false
+    }
+
+    "parse boolean claims" in {
+      val jwt = claims("yes" -> "true", "no" -> "false", "upper" -> "TRUE", "invalid" -> "yes")
+      jwt.getBoolean("yes") shouldBe Optional.of(true)
+      jwt.getBoolean("no") shouldBe Optional.of(false)
+      jwt.getBoolean("upper") shouldBe Optional.of(true)
+      jwt.getBoolean("invalid") shouldBe Optional.empty
+      jwt.getBoolean("missing") shouldBe Optional.empty
+    }
+
+    "parse numeric claims" in {
+      val jwt = claims("int" -> "42", "long" -> "8589934592", "double" -> "1.5", "exp" -> "1700000000")
+      jwt.getInteger("int") shouldBe Optional.of(42)
+      jwt.getInteger("long") shouldBe Optional.empty
+      jwt.getLong("long") shouldBe Optional.of(8589934592L)
+      jwt.getDouble("double") shouldBe Optional.of(1.5)
+      jwt.expirationTime shouldBe Optional.of(Instant.ofEpochSecond(1700000000L))
+    }
+
+    "parse list claims" in {
+      val jwt = claims(
+        "strings" -> """["a","b"]""",
+        "integers" -> "[1,2]",
+        "longs" -> "[8589934592,1]",
+        "doubles" -> "[1.5,2.5]",
+        "booleans" -> "[true,false]",
+        "dates" -> "[1700000000]",
+        "objects" -> """[{"a":1},{"b":2}]""")
+
+      jwt.getStringList("strings") shouldBe list("a", "b")
+      jwt.getIntegerList("integers") shouldBe list[Integer](1, 2)
+      jwt.getLongList("longs") shouldBe list[java.lang.Long](8589934592L, 1L)
+      jwt.getDoubleList("doubles") shouldBe list[java.lang.Double](1.5, 2.5)
+      jwt.getBooleanList("booleans") shouldBe list[java.lang.Boolean](true, false)
+      jwt.getNumericDateList("dates") shouldBe list(Instant.ofEpochSecond(1700000000L))
+      jwt.getObjectList("objects").get.asScala.map(_.toString) shouldBe Seq("""{"a":1}""", """{"b":2}""")
+    }
+
+    "return empty for list claims of another type" in {
+      val jwt = claims("strings" -> """["a","b"]""", "object" -> """{"a":1}""")
+      jwt.getIntegerList("strings") shouldBe Optional.empty
+      jwt.getStringList("object") shouldBe Optional.empty
+      jwt.getStringList("missing") shouldBe Optional.empty
+    }
+
+    "return empty for claims that are not valid JSON" in {
+      val bad = """["a","b""""
+      val jwt = claims("bad" -> bad, "sub" -> "alice")
+      jwt.getStringList("bad") shouldBe Optional.empty
+      jwt.getObject("bad") shouldBe Optional.empty
+      jwt.getObject("sub") shouldBe Optional.empty
+      // the raw value is still available
+      jwt.getString("bad") shouldBe Optional.of(bad)
+    }
+
+    "return an independent copy of an object claim for each call" in {
+      val jwt = claims("obj" -> """{"a":1}""")
+      jwt.getObject("obj").get.asInstanceOf[ObjectNode].put("b", 2)
+      jwt.getObject("obj").get.toString shouldBe """{"a":1}"""
+      jwt.getObject("obj").get should not be theSameInstanceAs(jwt.getObject("obj").get)
+    }
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.telemetry
+
+import scala.jdk.CollectionConverters._
+
+import io.opentelemetry.api.metrics.Meter
+import io.opentelemetry.sdk.common.CompletableResultCode
+import io.opentelemetry.sdk.metrics.InstrumentType
+import io.opentelemetry.sdk.metrics.SdkMeterProvider
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality
+import io.opentelemetry.sdk.metrics.data.MetricData
+import io.opentelemetry.sdk.metrics.export.CollectionRegistration
+import io.opentelemetry.sdk.metrics.export.MetricReader
+
+/**
+ * Collects the metrics recorded with its meter on demand, for tests.
+ */
+final class CollectingMetricReader extends MetricReader {
+  @volatile private var registration: CollectionRegistration = CollectionRegistration.noop()
+
+  val meter: Meter = SdkMeterProvider.builder().registerMetricReader(this).build().get("test")
+
+  def collect(): Map[String, MetricData] =
+    registration.collectAllMetrics().asScala.map(metric => metric.getName -> metric).toMap
+
+  override def register(registration: CollectionRegistration): Unit = this.registration = registration
+
+  override def forceFlush(): CompletableResultCode = CompletableResultCode.ofSuccess()
+
+  override def shutdown(): CompletableResultCode = CompletableResultCode.ofSuccess()
+
+  override def getAggregationTemporality(instrumentType: InstrumentType): AggregationTemporality =
+    AggregationTemporality.CUMULATIVE
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.telemetry
+
+import akka.javasdk.impl.JsonMessageCodec
+import akka.javasdk.impl.workflow.WorkflowService
+import akka.javasdk.testmodels.workflow.WorkflowState
+import akka.javasdk.testmodels.workflow.WorkflowTestModels.TransferWorkflow
+import io.opentelemetry.api.OpenTelemetry
+import io.opentelemetry.api.common.AttributeKey
+import io.opentelemetry.api.trace.SpanContext
+import io.opentelemetry.api.trace.SpanKind
+import io.opentelemetry.api.trace.TraceFlags
+import io.opentelemetry.api.trace.TraceState
+import io.opentelemetry.api.trace.Tracer
+import io.opentelemetry.sdk.trace.ReadableSpan
+import io.opentelemetry.sdk.trace.SdkTracerProvider
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class TraceInstrumentationSpec extends AnyWordSpec with Matchers {
+
+  private val service = new WorkflowService[WorkflowState, TransferWorkflow](
+    classOf[TransferWorkflow],
+    new JsonMessageCodec(),
+    _ => new TransferWorkflow)
+
+  private val tracer = SdkTracerProvider.builder().build().get("test")
+
+  private val commandSpan = SpanContext.create(
+    "4bf92f3577b34da6a3ce929d0e0e4736",
+    "00f067aa0ba902b7",
+    TraceFlags.getSampled,
+    TraceState.getDefault)
+
+  private def instrumentation(tracer: Tracer) =
+    new TraceInstrumentation(service.componentId, WorkflowCategory, () => tracer)
+
+  "The TraceInstrumentation" should {
+
+    "create a span for a workflow step as a child of the span of the command" in {
+      val span = instrumentation(tracer).buildStepSpan(service, "workflow-1", "withdraw", Some(commandSpan)).get
+      span.end()
+
+      val data = span.asInstanceOf[ReadableSpan].toSpanData
+      data.getName shouldBe "Workflow: transfer-workflow.withdraw"
+      data.getKind shouldBe SpanKind.INTERNAL
+      data.getTraceId shouldBe commandSpan.getTraceId
+      data.getParentSpanId shouldBe commandSpan.getSpanId
+      data.getAttributes.get(AttributeKey.stringKey("component.type_id")) shouldBe "transfer-workflow"
+      data.getAttributes.get(AttributeKey.stringKey("component.id")) shouldBe "workflow-1"
+      data.getAttributes.get(AttributeKey.stringKey("workflow.step")) shouldBe "withdraw"
+    }
+
+    "not create a span for a step when the command was not traced" in {
+      instrumentation(tracer).buildStepSpan(service, "workflow-1", "withdraw", None) shouldBe None
+    }
+
+    "not create a span for a step when tracing is disabled" in {
+      val noop = OpenTelemetry.noop().getTracer(TraceInstrumentation.InstrumentationScopeName)
+      instrumentation(noop).buildStepSpan(service, "workflow-1", "withdraw", Some(commandSpan)) shouldBe None
+    }
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.workflow
+
+import akka.actor.testkit.typed.scaladsl.ScalaTestWithActorTestKit
+import akka.dispatch.Dispatchers
+import akka.javasdk.impl.JsonMessageCodec
+import akka.javasdk.testmodels.workflow.WorkflowTestModels.WorkflowKeepingState
+import akka.stream.scaladsl.Sink
+import akka.stream.scaladsl.Source
+import io.opentelemetry.api.OpenTelemetry
+import kalix.protocol.workflow_entity.GetNextStep
+import kalix.protocol.workflow_entity.WorkflowEffect
+import kalix.protocol.workflow_entity.WorkflowEntityInit
+import kalix.protocol.workflow_entity.WorkflowStreamIn
+import kalix.protocol.workflow_entity.WorkflowStreamIn.Message.Init
+import kalix.protocol.workflow_entity.WorkflowStreamIn.Message.Transition
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+class WorkflowImplSpec extends ScalaTestWithActorTestKit with AnyWordSpecLike with Matchers {
+
+  private val service =
+    new WorkflowService[String, WorkflowKeepingState](
+      classOf[WorkflowKeepingState],
+      new JsonMessageCodec,
+      _ => new WorkflowKeepingState)
+  private val serviceName = service.descriptor.getFullName
+  private val state = service.strictMessageCodec.encodeScala("state")
+
+  // the effects of the transitions after the given steps, for a workflow started with a stored state
+  private def transitionEffects(storeStepTransitions: Boolean, steps: String*): Seq[WorkflowEffect] = {
+    val workflows = new WorkflowImpl(
+      Map(serviceName -> service),
+      null,
+      system.executionContext,
+      Dispatchers.DefaultDispatcherId,
+      () => OpenTelemetry.noop().getTracer("test"),
+      storeStepTransitions = storeStepTransitions)
+    val init = WorkflowStreamIn(Init(WorkflowEntityInit(serviceName, "workflow-1", Some(state))))
+    val transitions = steps.zipWithIndex.map { case (step, i) =>
+      val result = service.strictMessageCodec.encodeScala("result")
+      WorkflowStreamIn(Transition(GetNextStep(commandId = i + 1L, stepName = step, result = Some(result))))
+    }
+    workflows.handle(Source(init +: transitions)).runWith(Sink.seq).futureValue.flatMap(_.message.effect)
+  }
+
+  "The WorkflowImpl" should {
+
+    "not send the state with a step transition that keeps the state" in {
+      val effects = transitionEffects(storeStepTransitions = false, "update", "keep")
+      effects.map(_.transition.isStepTransition) shouldBe Seq(true, true)
+      effects.map(_.userState) shouldBe Seq(None, None)
+    }
+
+    "send the state with the step transitions when storing them" in {
+      val effects = transitionEffects(storeStepTransitions = true, "update", "keep")
+      effects.map(_.userState.map(WorkflowState.decode)) shouldBe Seq(Some((state, Some(1L))), Some((state, Some(2L))))
+    }
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.workflow
+
+import scala.jdk.CollectionConverters._
+
+import akka.javasdk.impl.telemetry.CollectingMetricReader
+import akka.javasdk.impl.workflow.WorkflowEffectImpl.End
+import akka.javasdk.impl.workflow.WorkflowEffectImpl.Pause
+import akka.javasdk.impl.workflow.WorkflowEffectImpl.StepTransition
+import io.opentelemetry.api.common.AttributeKey
+import io.opentelemetry.sdk.metrics.data.MetricData
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class WorkflowMetricsSpec extends AnyWordSpec with Matchers {
+
+  private val StepKey = AttributeKey.stringKey("step")
+  private val OutcomeKey = AttributeKey.stringKey("outcome")
+
+  private def newInstance(): (WorkflowMetrics#Instance, CollectingMetricReader) = {
+    val reader = new CollectingMetricReader
+    (new WorkflowMetrics("workflow", reader.meter).instance(), reader)
+  }
+
+  // the counts of a counter by step
+  private def countsByStep(metric: Option[MetricData]): Map[String, Long] =
+    metric.toList.flatMap(_.getLongSumData.getPoints.asScala).map(p => p.getAttributes.get(StepKey) -> p.getValue).toMap
+
+  private def histogramCount(metric: Option[MetricData]): Long =
+    metric.toList.flatMap(_.getHistogramData.getPoints.asScala).map(_.getCount).sum
+
+  private def executeStep(instance: WorkflowMetrics#Instance, stepName: String, failed: Boolean = false): Unit =
+    instance.stepCompleted(stepName, instance.stepStarted(stepName), failed)
+
+  "The WorkflowMetrics" should {
+
+    "record the duration of steps by outcome" in {
+      val (instance, reader) = newInstance()
+      executeStep(instance, "withdraw")
+      executeStep(instance, "withdraw", failed = true)
+
+      val stepDuration = reader.collect()("akka.javasdk.workflow.step.duration")
+      stepDuration.getUnit shouldBe "s"
+      val points = stepDuration.getHistogramData.getPoints.asScala
+      val countsByOutcome = points.map(p => p.getAttributes.get(OutcomeKey) -> p.getCount).toMap
+      countsByOutcome shouldBe Map("executed" -> 1L, "failed" -> 1L)
+      points.map(_.getAttributes.get(StepKey)).toSet shouldBe Set("withdraw")
+    }
+
+    "count a step executed again without a transition as a retry" in {
+      val (instance, reader) = newInstance()
+      executeStep(instance, "withdraw", failed = true)
+      executeStep(instance, "withdraw", failed = true)
+      executeStep(instance, "withdraw")
+
+      val metrics = reader.collect()
+      countsByStep(metrics.get("akka.javasdk.workflow.step.retries")) shouldBe Map("withdraw" -> 2L)
+      countsByStep(metrics.get("akka.javasdk.workflow.failovers")) shouldBe Map.empty
+    }
+
+    "count another step after a failed step as a failover of the failed step" in {
+      val (instance, reader) = newInstance()
+      executeStep(instance, "withdraw", failed = true)
+      executeStep(instance, "compensate")
+
+      val metrics = reader.collect()
+      countsByStep(metrics.get("akka.javasdk.workflow.failovers")) shouldBe Map("withdraw" -> 1L)
+      countsByStep(metrics.get("akka.javasdk.workflow.step.retries")) shouldBe Map.empty
+    }
+
+    "not count a step after the result of the previous step was delivered" in {
+      val (instance, reader) = newInstance()
+      executeStep(instance, "poll")
+      instance.stepResultDelivered()
+      executeStep(instance, "poll")
+
+      val metrics = reader.collect()
+      countsByStep(metrics.get("akka.javasdk.workflow.step.retries")) shouldBe Map.empty
+      countsByStep(metrics.get("akka.javasdk.workflow.failovers")) shouldBe Map.empty
+    }
+
+    "count the transitions and record the workflow when it ends" in {
+      val (instance, reader) = newInstance()
+      instance.transitioned(StepTransition("withdraw", None))
+      instance.transitioned(StepTransition("deposit", None))
+      instance.transitioned(StepTransition("deposit", None))
+      histogramCount(reader.collect().get("akka.javasdk.workflow.duration")) shouldBe 0
+
+      instance.transitioned(End)
+      val metrics = reader.collect()
+      countsByStep(metrics.get("akka.javasdk.workflow.transitions")) shouldBe Map("withdraw" -> 1L, "deposit" -> 2L)
+      val perWorkflow = metrics("akka.javasdk.workflow.transitions.per_workflow").getHistogramData.getPoints.asScala
+      perWorkflow.map(_.getSum) shouldBe Seq(3.0)
+      histogramCount(metrics.get("akka.javasdk.workflow.duration")) shouldBe 1
+      metrics("akka.javasdk.workflow.duration").getUnit shouldBe "s"
+    }
+
+    "not record a workflow that ends without a transition seen by this instance" in {
+      val (instance, reader) = newInstance()
+      instance.transitioned(End)
+
+      val metrics = reader.collect()
+      histogramCount(metrics.get("akka.javasdk.workflow.transitions.per_workflow")) shouldBe 0
+      histogramCount(metrics.get("akka.javasdk.workflow.duration")) shouldBe 0
+    }
+
+    "record the time paused when the workflow is active again" in {
+      val (instance, reader) = newInstance()
+      instance.transitioned(Pause)
+      histogramCount(reader.collect().get("akka.javasdk.workflow.paused.duration")) shouldBe 0
+
+      instance.active()
+      instance.active()
+      histogramCount(reader.collect().get("akka.javasdk.workflow.paused.duration")) shouldBe 1
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.workflow
+
+import scala.concurrent.ExecutionContext
+
+import akka.javasdk.impl.JsonMessageCodec
+import akka.javasdk.impl.MetadataImpl
+import akka.javasdk.impl.StrictJsonMessageCodec
+import akka.javasdk.impl.timer.TimerSchedulerImpl
+import akka.javasdk.testmodels.workflow.WorkflowTestModels.WorkflowWithSteps
+import kalix.protocol.workflow_entity.StepExecuted
+import kalix.protocol.workflow_entity.StepResponse
+import org.scalatest.concurrent.ScalaFutures
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class WorkflowRouterSpec extends AnyWordSpec with Matchers with ScalaFutures {
+
+  private val messageCodec = new StrictJsonMessageCodec(new JsonMessageCodec)
+
+  "The WorkflowRouter" should {
+
+    "create the workflow definition once per workflow instance" in {
+      val workflow = new WorkflowWithSteps
+      val router = new ReflectiveWorkflowRouter[String, WorkflowWithSteps](workflow, Map.empty)
+
+      router._getWorkflowDefinition().getSteps.size() shouldBe 3
+      router._internalGetNextStep("first", messageCodec.encodeScala("input"), messageCodec)
+      router._internalGetNextStep("second", messageCodec.encodeScala("input"), messageCodec)
+
+      workflow.definitionsCreated shouldBe 1
+    }
+
+    "reuse the result of a cached step executed again with the same input" in {
+      val workflow = new WorkflowWithSteps
+      val router = new ReflectiveWorkflowRouter[String, WorkflowWithSteps](workflow, Map.empty)
+      val context = new CommandContextImpl("workflow-id", "cached", 1, MetadataImpl.Empty, None, () => null)
+      val timerScheduler = new TimerSchedulerImpl(messageCodec, null, MetadataImpl.Empty)
+
+      def executeStep(input: String, stepTransitions: Long = 1) =
+        router
+          ._internalHandleStep(
+            1,
+            stepTransitions,
+            Some(messageCodec.encodeScala(input)),
+            "cached",
+            messageCodec,
+            timerScheduler,
+            context,
+            ExecutionContext.global)
+          .futureValue
+
+      def executed(result: String) =
+        StepResponse(1, "cached", StepResponse.Response.Executed(StepExecuted(Some(messageCodec.encodeScala(result)))))
+
+      executeStep("a") shouldBe executed("a-1")
+      executeStep("a") shouldBe executed("a-1")
+      executeStep("b") shouldBe executed("b-2")
+      // another run of the step, after transitioning to it again
+      executeStep("a", stepTransitions = 2) shouldBe executed("a-3")
+
+      // a transition ends the step, a later execution calls again
+      router._internalGetNextStep("cached", messageCodec.encodeScala("a-1"), messageCodec)
+      executeStep("a") shouldBe executed("a-4")
+    }
+
+    "fail for an unknown step" in {
+      val router = new ReflectiveWorkflowRouter[String, WorkflowWithSteps](new WorkflowWithSteps, Map.empty)
+
+      intercept[WorkflowRouter.WorkflowStepNotFound] {
+        router._internalGetNextStep("unknown", messageCodec.encodeScala("input"), messageCodec)
+      }.stepName shouldBe "unknown"
+    }
+  }
+}
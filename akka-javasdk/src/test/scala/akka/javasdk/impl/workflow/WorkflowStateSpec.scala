@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.workflow
+
+import java.time.Instant
+
+import akka.javasdk.eventsourcedentity.TestESState
+import akka.javasdk.impl.JsonMessageCodec
+import akka.javasdk.testmodels.InstantWrapper
+import akka.javasdk.testmodels.Message
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class WorkflowStateSpec extends AnyWordSpec with Matchers {
+
+  private val messageCodec = new JsonMessageCodec
+
+  "The WorkflowState" should {
+
+    "keep the user state and the step transitions" in {
+      val userState = messageCodec.encodeScala("state")
+      val encoded = WorkflowState.encode(userState, 3)
+
+      encoded.typeUrl shouldBe WorkflowState.TypeUrl
+      WorkflowState.decode(encoded) shouldBe ((userState, Some(3L)))
+    }
+
+    "read a state stored without step transitions as the user state" in {
+      val userState = messageCodec.encodeScala("state")
+      WorkflowState.decode(userState) shouldBe ((userState, None))
+    }
+
+    "encode equal states equally" in {
+      val userState = messageCodec.encodeScala("state")
+      WorkflowState.encode(userState, 1) shouldBe WorkflowState.encode(userState, 1)
+      WorkflowState.encode(userState, 1) should not be WorkflowState.encode(userState, 2)
+    }
+
+    "know the states that cannot be changed in place" in {
+      WorkflowState.unmodifiable("state") shouldBe true
+      WorkflowState.unmodifiable(new TestESState("a", 1, true, "b")) shouldBe true
+      WorkflowState.unmodifiable(new InstantWrapper(Instant.now())) shouldBe true
+      WorkflowState.unmodifiable(java.util.List.of(new Message("a"))) shouldBe true
+      WorkflowState.unmodifiable(java.util.Map.of("a", java.util.List.of(1))) shouldBe true
+
+      WorkflowState.unmodifiable(new java.util.concurrent.atomic.AtomicInteger) shouldBe false
+      WorkflowState.unmodifiable(new java.util.ArrayList[String]()) shouldBe false
+      WorkflowState.unmodifiable(java.util.List.of(new java.util.ArrayList[String]())) shouldBe false
+      WorkflowState.unmodifiable(new InstantWrapper(null)) shouldBe true
+    }
+  }
+}